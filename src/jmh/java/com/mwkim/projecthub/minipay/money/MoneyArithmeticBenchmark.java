@@ -0,0 +1,81 @@
+package com.mwkim.projecthub.minipay.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이체 한 건의 금액 계산(자동 충전 + 일일 한도 + 잔액 변경)을 BigDecimal 과 Money 로 비교한다.
+ *
+ * ./gradlew jmh 로 실행하며, gc 프로파일러의 gc.alloc.rate.norm 이 연산 당 할당 바이트다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private static final BigDecimal DECIMAL_UNIT = new BigDecimal("10000");
+    private static final BigDecimal DECIMAL_LIMIT = new BigDecimal("3000000");
+    private static final Money MONEY_UNIT = Money.of(10_000);
+    private static final Money MONEY_LIMIT = Money.of(3_000_000);
+
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalUsed;
+    private BigDecimal decimalAmount;
+
+    private Money moneyBalance;
+    private Money moneyUsed;
+    private Money moneyAmount;
+
+    @Setup
+    public void setUp() {
+        long balance = ThreadLocalRandom.current().nextLong(0, 1_000_000);
+        long amount = ThreadLocalRandom.current().nextLong(1, 1_500_000);
+
+        decimalBalance = BigDecimal.valueOf(balance);
+        decimalUsed = BigDecimal.valueOf(100_000);
+        decimalAmount = BigDecimal.valueOf(amount);
+
+        moneyBalance = Money.of(balance);
+        moneyUsed = Money.of(100_000);
+        moneyAmount = Money.of(amount);
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        BigDecimal balance = decimalBalance;
+        BigDecimal charge = BigDecimal.ZERO;
+        if (balance.compareTo(decimalAmount) < 0) {
+            charge = decimalAmount.subtract(balance)
+                    .divide(DECIMAL_UNIT, 0, RoundingMode.UP)
+                    .multiply(DECIMAL_UNIT);
+        }
+        boolean allowed = decimalUsed.add(charge).add(decimalAmount).compareTo(DECIMAL_LIMIT) <= 0;
+        balance = balance.add(charge).subtract(decimalAmount);
+        bh.consume(allowed);
+        bh.consume(balance);
+    }
+
+    @Benchmark
+    public void money(Blackhole bh) {
+        Money balance = moneyBalance;
+        Money charge = Money.ZERO;
+        if (balance.isLessThan(moneyAmount)) {
+            charge = moneyAmount.minus(balance).roundUpTo(MONEY_UNIT);
+        }
+        boolean allowed = !moneyUsed.plus(charge).plus(moneyAmount).isGreaterThan(MONEY_LIMIT);
+        balance = balance.plus(charge).minus(moneyAmount);
+        bh.consume(allowed);
+        bh.consume(balance);
+    }
+}
@@ -0,0 +1,38 @@
+package com.mwkim.projecthub.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 트랜잭션이라도 primary 에서 읽어야 하는 구간을 표시한다.
+ *
+ * 캐시 로더처럼 읽은 값을 ttl 동안 재사용하는 곳에서 replica 를 읽으면, replica 지연만큼 옛 잔액이 ttl 내내 남는다.
+ * 이런 로더를 call 로 감싸면 그 안에서 고르는 커넥션은 항상 primary 가 된다.
+ *
+ * @note 커넥션을 고르는 시점(트랜잭션의 첫 SQL)에만 적용된다. 이미 replica 커넥션을 잡은 트랜잭션 안에서는 효과가 없다.
+ *       datasource.routing.enabled 가 꺼져 있으면 아무 일도 하지 않는다.
+ */
+public final class PrimaryReadHint {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReadHint() {
+    }
+
+    public static <T> T call(Supplier<T> reader) {
+        Boolean previous = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mwkim.projecthub.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 요청을 보낸 회원을 ReadYourWritesTracker 에 묶는다.
+ *
+ * 경로 변수 userId (/users/{userId}/...) 를 우선 쓰고, 없으면 X-User-Id 헤더를 쓴다. 둘 다 없으면 read-your-writes 를 적용하지 않는다.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String USER_HEADER = "X-User-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = null;
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("userId") != null) {
+            userId = map.get("userId").toString();
+        } else if (request.getHeader(USER_HEADER) != null) {
+            userId = request.getHeader(USER_HEADER);
+        }
+        if (userId != null) {
+            tracker.bind("user:" + userId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        tracker.clear();
+    }
+}
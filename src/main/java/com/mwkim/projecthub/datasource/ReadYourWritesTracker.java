@@ -0,0 +1,61 @@
+package com.mwkim.projecthub.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * read-your-writes 를 위한 최근 쓰기 기록.
+ *
+ * 요청 스레드에 "누구의 요청인지" (회원 키) 를 묶어 두고, 그 스레드의 쓰기 트랜잭션이 커밋되면 키를 readYourWritesMillis 동안 기억한다.
+ * 기억하는 동안 같은 키의 읽기 전용 트랜잭션은 replica 대신 primary 로 간다. 자기가 방금 보낸 이체가 잔액과 내역에 바로 보인다.
+ *
+ * @note 기록은 노드 로컬이다. 쓰기와 읽기가 다른 노드로 가면 replica 지연만큼 늦게 볼 수 있다.
+ */
+public class ReadYourWritesTracker {
+
+    private final ThreadLocal<String> currentKey = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(long readYourWritesMillis) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(readYourWritesMillis))
+                .maximumSize(1_000_000)
+                .build();
+    }
+
+    public void bind(String key) {
+        currentKey.set(key);
+    }
+
+    public void clear() {
+        currentKey.remove();
+    }
+
+    // 현재 스레드의 키가 최근에 쓰기를 커밋했는지
+    public boolean isSticky() {
+        String key = currentKey.get();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+
+    // 쓰기 트랜잭션이 primary 커넥션을 얻을 때 호출된다. 롤백되면 기록하지 않는다.
+    void recordWriteAfterCommit() {
+        String key = currentKey.get();
+        if (key == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(key);
+            }
+        });
+    }
+
+    public void recordWrite(String key) {
+        recentWriters.put(key, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mwkim.projecthub.datasource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * 라우팅 대상이 되는 실제 커넥션 풀 묶음 (primary 하나 + 이름 붙은 replica 들).
+ *
+ * DataSource 빈으로 등록하지 않기 위해 따로 감싼다. 애플리케이션이 주입받는 DataSource 는 라우팅 DataSource 하나뿐이다.
+ */
+public class ReplicaDataSources implements AutoCloseable {
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+
+    public ReplicaDataSources(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
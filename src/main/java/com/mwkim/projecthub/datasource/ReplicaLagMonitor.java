@@ -0,0 +1,125 @@
+package com.mwkim.projecthub.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * heartbeat 행으로 replica 지연을 잰다.
+ *
+ * 주기마다 primary 의 replication_heartbeat 행에 현재 시각을 쓰고, 각 replica 에서 같은 행을 읽어 (지금 - 읽은 시각) 을 지연으로 본다.
+ * 복제 방식이나 DB 종류와 무관하고 (SHOW REPLICA STATUS 불필요), 초 단위가 아닌 밀리초 단위로 잴 수 있다.
+ * heartbeat 를 읽지 못하거나 maxLagMillis 보다 뒤처진 replica 는 다음 측정까지 라우팅에서 빠진다.
+ * 처음 측정 전에는 모든 replica 를 뒤처진 것으로 본다.
+ *
+ * 측정값은 잰 시각과 함께 두고, 측정 후 흐른 시간만큼 지연이 늘었다고 본다 (지연 + 측정 후 경과 시간).
+ * 스케줄러가 밀려 check 가 돌지 않으면 마지막 "건강한" 값을 계속 믿지 않고 곧 primary 로 돌아간다.
+ *
+ * 지표 : datasource.replica.lag{replica=이름} (초, 측정 후 경과 시간 포함, 읽지 못하면 -1)
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS replication_heartbeat " +
+            "(id INT NOT NULL PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String UPDATE_SQL = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String READ_SQL = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private static final long UNKNOWN = -1;
+    private static final Measurement NOT_MEASURED = new Measurement(UNKNOWN, 0);
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+
+    private final Map<String, Measurement> lags = new ConcurrentHashMap<>();
+    private volatile boolean heartbeatReady;
+
+    private record Measurement(long lagMillis, long measuredAt) {
+    }
+
+    public ReplicaLagMonitor(ReplicaDataSources dataSources, long maxLagMillis, MeterRegistry meterRegistry) {
+        this(dataSources, maxLagMillis, meterRegistry, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(ReplicaDataSources dataSources, long maxLagMillis, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.primary = new JdbcTemplate(dataSources.getPrimary());
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+        dataSources.getReplicas().forEach((name, dataSource) -> {
+            replicas.put(name, new JdbcTemplate(dataSource));
+            lags.put(name, NOT_MEASURED);
+            Gauge.builder("datasource.replica.lag", this, monitor -> {
+                        long lag = monitor.lagMillis(name);
+                        return lag == UNKNOWN ? -1 : lag / 1000.0;
+                    })
+                    .description("replica lag measured by the heartbeat row")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-millis:1000}")
+    public void check() {
+        try {
+            beat();
+        } catch (DataAccessException e) {
+            log.warn("failed to write replication heartbeat on primary: {}", e.getMessage());
+        }
+        replicas.forEach((name, replica) -> lags.put(name, new Measurement(measure(name, replica), clock.getAsLong())));
+    }
+
+    public boolean isHealthy(String replica) {
+        long lag = lagMillis(replica);
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    // 지금 시점의 지연 상한 (밀리초) = 측정된 지연 + 측정 후 경과 시간. 읽지 못했으면 -1
+    public long lagMillis(String replica) {
+        Measurement measurement = lags.getOrDefault(replica, NOT_MEASURED);
+        if (measurement.lagMillis() == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return measurement.lagMillis() + Math.max(0, clock.getAsLong() - measurement.measuredAt());
+    }
+
+    public List<String> replicaNames() {
+        return List.copyOf(replicas.keySet());
+    }
+
+    private void beat() {
+        if (!heartbeatReady) {
+            primary.execute(CREATE_SQL);
+            heartbeatReady = true;
+        }
+        long now = clock.getAsLong();
+        if (primary.update(UPDATE_SQL, now) == 0) {
+            primary.update(INSERT_SQL, now);
+        }
+    }
+
+    private long measure(String name, JdbcTemplate replica) {
+        try {
+            List<Long> beats = replica.queryForList(READ_SQL, Long.class);
+            if (beats.isEmpty()) {
+                return UNKNOWN;
+            }
+            return Math.max(0, clock.getAsLong() - beats.get(0));
+        } catch (DataAccessException e) {
+            log.debug("failed to read replication heartbeat from {}: {}", name, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mwkim.projecthub.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 커넥션을 얻는 시점의 트랜잭션 속성으로 primary / replica 를 고른다.
+ *
+ * - 읽기 전용 트랜잭션 : 지연이 maxLag 이하인 replica 중 하나 (round-robin). 없거나 read-your-writes 대상이거나 {@link PrimaryReadHint} 구간이면 primary
+ * - 그 외 (쓰기 트랜잭션, 트랜잭션 밖) : primary
+ *
+ * 트랜잭션 매니저는 readOnly 표시를 커넥션을 얻은 뒤에 하므로, 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 SQL 이 나갈 때 커넥션을 고르게 해야 한다. (ReplicaRoutingConfig 참고)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaDataSources dataSources, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaNames = List.copyOf(dataSources.getReplicas().keySet());
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, dataSources.getPrimary());
+        targets.putAll(dataSources.getReplicas());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(dataSources.getPrimary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWriteAfterCommit();
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.isSticky() || PrimaryReadHint.isActive()) {
+            return PRIMARY;
+        }
+
+        int size = replicaNames.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (lagMonitor.isHealthy(name)) {
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mwkim.projecthub.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    읽기 전용 트랜잭션의 replica 라우팅 설정 (primary 는 spring.datasource)
+    - enabled : true 면 @Transactional(readOnly = true) 를 replica 로 보낸다
+    - replicas : replica 접속 정보. username, password 를 비우면 primary 것을 쓴다
+    - maxLagMillis : 이보다 뒤처진 replica 에는 보내지 않는다 (모두 뒤처지면 primary)
+    - lagCheckIntervalMillis : heartbeat 를 쓰고 replica 지연을 재는 주기
+    - readYourWritesMillis : 회원이 쓰기 트랜잭션을 커밋한 뒤 이 시간 동안은 그 회원의 읽기도 primary 로 보낸다
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private long maxLagMillis = 2000;
+
+    private long lagCheckIntervalMillis = 1000;
+
+    private long readYourWritesMillis = 5000;
+
+    @Getter @Setter
+    public static class Replica {
+
+        private String name; // 지표 태그, 로그용 (비우면 replica-1, replica-2 ...)
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+    }
+}
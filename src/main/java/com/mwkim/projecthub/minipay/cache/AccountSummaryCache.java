@@ -0,0 +1,139 @@
+package com.mwkim.projecthub.minipay.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mwkim.projecthub.datasource.PrimaryReadHint;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * 계좌 요약 / 회원별 계좌 목록 read-through 캐시.
+ *
+ * 조회는 캐시에 없을 때만 DB 를 읽고, 잔액을 바꾸는 쪽은 커밋이 끝난 뒤에 해당 계좌를 무효화한다.
+ * 커밋 전에 무효화하면 그 사이 다른 스레드가 커밋 전 값을 다시 읽어 넣을 수 있어서 반드시 afterCommit 에서 지운다.
+ * 반대로 커밋 직전에 DB 를 읽던 로더가 있어도, get 은 Caffeine 의 invalidate 가 같은 키의 로딩이 끝나길 기다린 뒤 지우므로 옛 값이 남지 않는다.
+ * getAll 의 묶음 로딩은 이 보장을 받지 못한다. 그래서 계좌 id 를 나눈 칸(stripe)마다 무효화 세대를 두고,
+ * 로딩 전후로 세대가 바뀐 키는 캐시에 남기지 않는다 (읽은 값은 호출자에게 그대로 돌려준다).
+ * 로더는 {@link PrimaryReadHint} 안에서 실행한다. 읽기 전용 트랜잭션이 replica 로 가면 무효화 직후 지연된 옛 잔액을 읽어 ttl 동안 캐시하게 된다.
+ *
+ * 적중/실패 수는 micrometer 의 cache.gets{cache=account.summary, result=hit|miss} 로 노출된다.
+ *
+ * @note 무효화는 노드 로컬이다. 여러 노드에서는 다른 노드가 바꾼 잔액을 최대 ttl 만큼 늦게 본다.
+ */
+@Component
+public class AccountSummaryCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, AccountSummary> summaries;
+    private final Cache<Long, List<Long>> userAccountIds;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES); // 무효화될 때마다 증가
+
+    public AccountSummaryCache(AccountCacheProperties properties, MeterRegistry meterRegistry) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.userAccountIds = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "account.summary");
+        CaffeineCacheMetrics.monitor(meterRegistry, userAccountIds, "account.user-accounts");
+    }
+
+    public AccountSummary get(Long accountId, Function<Long, AccountSummary> loader) {
+        return summaries.get(accountId, id -> PrimaryReadHint.call(() -> loader.apply(id)));
+    }
+
+    // 캐시에 없는 id 만 모아서 loader 한 번으로 읽는다 (findAllById)
+    public Map<Long, AccountSummary> getAll(Collection<Long> accountIds,
+                                            Function<Collection<Long>, Map<Long, AccountSummary>> loader) {
+        Map<Long, AccountSummary> result = new HashMap<>(summaries.getAllPresent(accountIds));
+        List<Long> missing = accountIds.stream().filter(id -> !result.containsKey(id)).distinct().toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long[] before = new long[missing.size()];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = generations.get(stripe(missing.get(i)));
+        }
+        Map<Long, AccountSummary> loaded = PrimaryReadHint.call(() -> loader.apply(missing));
+
+        // 넣은 뒤에 세대를 확인한다. 확인 전에 무효화됐으면 여기서 지우고, 확인 후라면 그 무효화가 지운다.
+        ConcurrentMap<Long, AccountSummary> cached = summaries.asMap();
+        for (int i = 0; i < before.length; i++) {
+            Long accountId = missing.get(i);
+            AccountSummary summary = loaded.get(accountId);
+            if (summary == null) {
+                continue;
+            }
+            result.put(accountId, summary);
+            cached.putIfAbsent(accountId, summary);
+            if (generations.get(stripe(accountId)) != before[i]) {
+                cached.remove(accountId, summary);
+            }
+        }
+        return result;
+    }
+
+    public List<Long> getUserAccountIds(Long userId, Function<Long, List<Long>> loader) {
+        return userAccountIds.get(userId, id -> PrimaryReadHint.call(() -> loader.apply(id)));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 계좌 요약을 지운다. 트랜잭션 밖이면 바로 지운다.
+     * 롤백되면 DB 값이 그대로이므로 지우지 않는다.
+     */
+    public void evictAfterCommit(Long accountId) {
+        afterCommit(() -> {
+            generations.incrementAndGet(stripe(accountId));
+            summaries.invalidate(accountId);
+        });
+    }
+
+    public void evictAllAfterCommit(Collection<Long> accountIds) {
+        afterCommit(() -> {
+            accountIds.forEach(accountId -> generations.incrementAndGet(stripe(accountId)));
+            summaries.invalidateAll(accountIds);
+        });
+    }
+
+    // 회원의 계좌 목록이 바뀐 경우 (계좌 개설)
+    public void evictUserAfterCommit(Long userId) {
+        afterCommit(() -> userAccountIds.invalidate(userId));
+    }
+
+    private static int stripe(Long accountId) {
+        return (int) Math.floorMod(accountId, (long) GENERATION_STRIPES);
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.limit.DailyUsage;
+import com.mwkim.projecthub.minipay.limit.DailyUsageStore;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import com.mwkim.projecthub.minipay.service.DailyLimitService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 조건부 UPDATE 이체 (transfer.strategy: conditional).
+ *
+ * JPA 경로는 두 계좌를 엔티티로 읽고, Java 에서 계산한 뒤, dirty checking 으로 다시 쓴다.
+ * 이 엔진은 계좌를 읽지 않고 잔액 검증과 차감을 SQL 한 문장으로 처리한다.
+ *
+ *   UPDATE account SET balance = balance - ? ... WHERE id = ? AND balance >= ?
+ *
+ * 영향받은 행 수가 1 이면 출금이 끝난 것이고, 입금 UPDATE 와 함께 같은 트랜잭션에서 커밋된다. 거래 내역은 같은 트랜잭션에서 batch insert 한다.
+ * 차감 조건이 WHERE 절에 있으므로 동시 이체가 있어도 잔액이 음수가 되지 않는다.
+ *
+ * 두 UPDATE 는 요청 순서가 아니라 계좌 id 오름차순으로 실행한다. A -> B 와 B -> A 가 동시에 들어와도 같은 순서로 행을 잠그므로 교착 상태가 생기지 않는다.
+ * 받는 계좌 id 가 더 작으면 입금을 먼저 하지만, 성공 여부는 여전히 차감 UPDATE 가 정하고 실패하면 입금까지 롤백된다.
+ *
+ * 자동 충전과 일일 한도 규칙은 JPA 경로와 같다.
+ * - 일일 한도는 DailyLimitService 의 메모리 카운터로 확인한다. DB 에 기록된 사용량은 노드에서 처음 만나는 계좌일 때만 읽는다
+ * - 차감 UPDATE 가 0 행이면(잔액 부족) 그때만 계좌 행을 잠그고 잔액을 읽어 충전액을 정한 뒤, 충전 + 출금을 UPDATE 한 번으로 반영한다
+ *
+ * 모든 UPDATE 는 version 도 올려서, 같은 계좌를 수정하는 JPA 경로(@Version)가 충돌을 감지할 수 있게 한다.
+ *
+ * @note 단건 이체만 이 경로를 쓴다. 일괄 이체(transferBatch)는 JPA 경로 그대로다.
+ *       두 경로 모두 version 을 올리고 같은 일일 한도 카운터를 쓰므로 섞여도 잔액과 한도는 맞다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.strategy", havingValue = "conditional")
+public class ConditionalUpdateTransferEngine {
+
+    private static final String DEBIT_SQL =
+            "UPDATE account SET balance = balance - ?, daily_use_amount = ?, last_withdrawal_reset = ?, version = version + 1 " +
+            "WHERE id = ? AND balance >= ?";
+    private static final String LOCK_BALANCE_SQL = "SELECT balance FROM account WHERE id = ? FOR UPDATE";
+    private static final String CHARGE_AND_DEBIT_SQL =
+            "UPDATE account SET balance = balance + ?, daily_use_amount = ?, last_withdrawal_reset = ?, version = version + 1 WHERE id = ?";
+    private static final String CREDIT_SQL = "UPDATE account SET balance = balance + ?, version = version + 1 WHERE id = ?";
+    private static final String DAILY_USAGE_SQL = "SELECT daily_use_amount, last_withdrawal_reset FROM account WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final DailyLimitService dailyLimitService;
+    private final DailyUsageStore dailyUsageStore;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final AccountSummaryCache accountSummaryCache;
+
+    public ConditionalUpdateTransferEngine(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                                           DailyLimitService dailyLimitService, DailyUsageStore dailyUsageStore,
+                                           TransactionBatchRepository transactionBatchRepository,
+                                           AccountSummaryCache accountSummaryCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.dailyLimitService = dailyLimitService;
+        this.dailyUsageStore = dailyUsageStore;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.accountSummaryCache = accountSummaryCache;
+    }
+
+    /**
+     * 이체를 조건부 UPDATE 로 실행한다. 바깥 트랜잭션이 있으면 참여하고, 없으면 이체 하나가 트랜잭션 하나다.
+     */
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        transactionOperations.executeWithoutResult(status -> {
+            long won = amount.longValue();
+            List<Transaction> records = new ArrayList<>(4);
+            Account from = transactionBatchRepository.accountReference(fromAccountId);
+
+            long used = dailyLimitService.checkAndAddUsage(fromAccountId, amount, () -> loadDailyUsage(fromAccountId));
+            Timestamp resetAt = Timestamp.valueOf(dailyUsageStore.startOfToday());
+
+            // 행 잠금 순서를 계좌 id 오름차순으로 맞춘다
+            boolean creditFirst = toAccountId < fromAccountId;
+            if (creditFirst) {
+                credit(toAccountId, won);
+            }
+
+            if (jdbcTemplate.update(DEBIT_SQL, won, used, resetAt, fromAccountId, won) == 0) {
+                // 잔액 부족(또는 계좌 없음) : 이때만 행을 잠그고 잔액을 읽는다
+                Money balance = lockBalance(fromAccountId);
+                Money chargeAmount = Money.ZERO;
+                if (balance.isLessThan(amount)) {
+                    chargeAmount = AccountService.calculateAutoChargeAmount(balance, amount);
+                    used = dailyLimitService.checkAndAddUsage(fromAccountId, chargeAmount, () -> DailyUsage.NONE);
+                    records.add(Transaction.createTransaction(from, TransactionType.DEPOSIT, chargeAmount, "Deposit"));
+                }
+                jdbcTemplate.update(CHARGE_AND_DEBIT_SQL, chargeAmount.longValue() - won, used, resetAt, fromAccountId);
+            }
+            records.add(Transaction.createTransaction(from, TransactionType.WITHDRAW, amount, "Withdraw"));
+
+            if (!creditFirst) {
+                credit(toAccountId, won);
+            }
+            long transferId = transactionBatchRepository.nextTransferId();
+            records.add(Transaction.createTransfer(transactionBatchRepository.accountReference(toAccountId),
+                    TransactionType.DEPOSIT, amount, TransferDirection.INCOMING, fromAccountId, transferId));
+            records.add(Transaction.createTransfer(from, TransactionType.TRANSFER, amount,
+                    TransferDirection.OUTGOING, toAccountId, transferId));
+
+            transactionBatchRepository.insertAll(records);
+            accountSummaryCache.evictAllAfterCommit(List.of(fromAccountId, toAccountId));
+            log.debug("Conditional transfer {} -> {}: {}", fromAccountId, toAccountId, amount);
+        });
+    }
+
+    private void credit(Long toAccountId, long won) {
+        if (jdbcTemplate.update(CREDIT_SQL, won, toAccountId) == 0) {
+            throw new AccountNotFoundException("Account not found with id: " + toAccountId); // 출금까지 롤백
+        }
+    }
+
+    private Money lockBalance(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(LOCK_BALANCE_SQL, BigDecimal.class, accountId);
+        if (balances.isEmpty()) {
+            throw new AccountNotFoundException("Account not found with id: " + accountId);
+        }
+        return Money.of(balances.get(0));
+    }
+
+    private DailyUsage loadDailyUsage(Long accountId) {
+        List<DailyUsage> usages = jdbcTemplate.query(DAILY_USAGE_SQL, (rs, rowNum) -> {
+            BigDecimal amount = rs.getBigDecimal(1);
+            Timestamp date = rs.getTimestamp(2);
+            return new DailyUsage(amount == null ? 0 : amount.longValueExact(),
+                    date == null ? LocalDate.EPOCH : date.toLocalDateTime().toLocalDate());
+        }, accountId);
+        return usages.isEmpty() ? DailyUsage.NONE : usages.get(0); // 없는 계좌는 차감 단계에서 AccountNotFoundException
+    }
+}
@@ -0,0 +1,81 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.config.TransferConcurrencyProperties;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * 낙관적 락 전략 (기본값).
+ *
+ * Account 의 @Version 으로 충돌을 감지하고, 충돌 시 새 트랜잭션에서 처음부터 다시 시도한다.
+ * 재시도 간격은 지수 백오프 상한 안에서 무작위로 고른다 (full jitter) -> 충돌한 요청들이 같은 시점에 다시 부딪히지 않게 한다.
+ * 바깥 트랜잭션에 참여한 경우에는 재시도할 수 없으므로 한 번만 시도한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.concurrency.mode", havingValue = "optimistic", matchIfMissing = true)
+public class OptimisticRetryTransferStrategy implements TransferConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionOperations transactionOperations;
+    private final TransferConcurrencyProperties properties;
+
+    public OptimisticRetryTransferStrategy(AccountRepository accountRepository,
+                                           TransactionOperations transactionOperations,
+                                           TransferConcurrencyProperties properties) {
+        this.accountRepository = accountRepository;
+        this.transactionOperations = transactionOperations;
+        this.properties = properties;
+    }
+
+    @Override
+    public void execute(Long fromAccountId, Long toAccountId, BiConsumer<Account, Account> transfer) {
+        boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+        int maxAttempts = retryable ? Math.max(1, properties.getMaxAttempts()) : 1;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    Account fromAccount = findAccount(fromAccountId);
+                    Account toAccount = findAccount(toAccountId);
+                    transfer.accept(fromAccount, toAccount);
+                    accountRepository.flush(); // 버전 충돌을 이 시도 안에서 감지
+                });
+                return;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw new CollisionException("transfer collision: " + fromAccountId + "->" + toAccountId);
+                }
+                log.debug("transfer collision {} -> {}, retry {}/{}", fromAccountId, toAccountId, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private Account findAccount(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + accountId));
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(properties.getMaxBackoffMillis(), properties.getBaseBackoffMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CollisionException("transfer retry interrupted");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * 비관적 락 전략.
+ *
+ * 두 계좌를 한 번의 SELECT ... FOR UPDATE 로 id 오름차순으로 잠근다.
+ * A->B 와 B->A 이체가 동시에 들어와도 항상 작은 id 부터 잠그기 때문에 교착 상태가 생기지 않는다.
+ * 충돌이 잦은 계좌(hot account)에서는 재시도가 없는 이 전략이 낙관적 락보다 처리량이 좋다.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.concurrency.mode", havingValue = "pessimistic")
+public class PessimisticOrderedTransferStrategy implements TransferConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionOperations transactionOperations;
+
+    public PessimisticOrderedTransferStrategy(AccountRepository accountRepository,
+                                              TransactionOperations transactionOperations) {
+        this.accountRepository = accountRepository;
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    public void execute(Long fromAccountId, Long toAccountId, BiConsumer<Account, Account> transfer) {
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                List<Account> locked = accountRepository.findAllByIdForUpdate(List.of(fromAccountId, toAccountId));
+                Account fromAccount = pick(locked, fromAccountId);
+                Account toAccount = pick(locked, toAccountId);
+                transfer.accept(fromAccount, toAccount);
+            });
+        } catch (PessimisticLockingFailureException e) { // 락 대기 시간 초과
+            throw new CollisionException("transfer lock timeout: " + fromAccountId + "->" + toAccountId);
+        }
+    }
+
+    private Account pick(List<Account> accounts, Long accountId) {
+        for (Account account : accounts) {
+            if (account.getId().equals(accountId)) {
+                return account;
+            }
+        }
+        throw new AccountNotFoundException("Account not found with id: " + accountId);
+    }
+}
@@ -0,0 +1,74 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.config.TransferConcurrencyProperties;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * JVM 내부 striped lock 전략 (단일 노드 배포 전용).
+ *
+ * 계좌 id 를 고정 개수의 락 중 하나에 매핑하고, 두 락을 stripe 번호 오름차순으로 잡는다.
+ * 락은 트랜잭션 커밋이 끝난 뒤에 풀기 때문에 다음 요청은 항상 커밋된 잔액을 읽는다.
+ * DB 락을 전혀 쓰지 않으므로 노드가 둘 이상이면 사용하면 안 된다.
+ *
+ * @note 바깥 트랜잭션에 참여하면 커밋 전에 락이 풀리므로, 이체가 가장 바깥 트랜잭션일 때만 의미가 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.concurrency.mode", havingValue = "striped")
+public class StripedLockTransferStrategy implements TransferConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionOperations transactionOperations;
+    private final ReentrantLock[] stripes;
+
+    public StripedLockTransferStrategy(AccountRepository accountRepository,
+                                       TransactionOperations transactionOperations,
+                                       TransferConcurrencyProperties properties) {
+        this.accountRepository = accountRepository;
+        this.transactionOperations = transactionOperations;
+        this.stripes = new ReentrantLock[Math.max(1, properties.getStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void execute(Long fromAccountId, Long toAccountId, BiConsumer<Account, Account> transfer) {
+        int a = stripeOf(fromAccountId);
+        int b = stripeOf(toAccountId);
+        ReentrantLock first = stripes[Math.min(a, b)];
+        ReentrantLock second = stripes[Math.max(a, b)];
+
+        first.lock();
+        try {
+            second.lock(); // 같은 stripe 라면 재진입
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    Account fromAccount = findAccount(fromAccountId);
+                    Account toAccount = findAccount(toAccountId);
+                    transfer.accept(fromAccount, toAccount);
+                });
+            } finally {
+                second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private int stripeOf(Long accountId) {
+        return (int) Math.floorMod(Long.hashCode(accountId) * 0x9E3779B9L, (long) stripes.length);
+    }
+
+    private Account findAccount(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + accountId));
+    }
+}
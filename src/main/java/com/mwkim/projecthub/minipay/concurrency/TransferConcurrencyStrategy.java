@@ -0,0 +1,36 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 이체 시 두 계좌를 어떻게 확보(조회 + 동시성 제어)할지 결정하는 전략.
+ *
+ * 구현체는 transfer.concurrency.mode 로 배포 단위마다 하나만 선택된다.
+ * - optimistic  : @Version 기반 낙관적 락 + 지터 백오프 재시도
+ * - pessimistic : SELECT ... FOR UPDATE 로 두 계좌를 id 오름차순으로 한 번에 잠금
+ * - striped     : JVM 내부 striped lock (단일 노드 배포 전용)
+ *
+ * 구현체는 트랜잭션 경계를 직접 관리한다. 이미 진행 중인 트랜잭션이 있으면 그 트랜잭션에 참여한다.
+ */
+public interface TransferConcurrencyStrategy {
+
+    /**
+     * 보내는 계좌와 받는 계좌를 확보한 뒤 이체 로직을 실행한다.
+     *
+     * @param fromAccountId 보내는 계좌 id
+     * @param toAccountId   받는 계좌 id
+     * @param transfer      (보내는 계좌, 받는 계좌) 를 받아 잔액을 변경하는 이체 로직
+     */
+    void execute(Long fromAccountId, Long toAccountId, BiConsumer<Account, Account> transfer);
+
+    /**
+     * 계좌 하나만 확보한 뒤 로직을 실행한다. (받는 쪽이 hot account 라 계좌 행을 건드리지 않는 이체 등)
+     * 같은 id 를 두 번 넘기므로 각 전략은 그 계좌 하나만 잠그거나 읽는다.
+     */
+    default void execute(Long accountId, Consumer<Account> work) {
+        execute(accountId, accountId, (account, same) -> work.accept(account));
+    }
+}
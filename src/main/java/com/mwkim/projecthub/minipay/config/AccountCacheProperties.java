@@ -0,0 +1,24 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+    계좌 요약(잔액, 유형, 일일 사용량) 조회 캐시 설정
+    - maximumSize : 캐시에 둘 최대 계좌 수 (넘으면 오래 안 쓴 것부터 제거)
+    - ttl : 기록 후 만료 시간. 커밋 후 무효화가 기본이고, ttl 은 다른 노드에서 바뀐 값을 늦게라도 따라가기 위한 상한이다.
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "account.cache")
+public class AccountCacheProperties {
+
+    private long maximumSize = 100_000;
+
+    private Duration ttl = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,31 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    그룹 커밋 이체 파이프라인 설정
+    - enabled : true 일 때만 파이프라인을 띄운다
+    - maxBatchSize : 트랜잭션 하나에 묶을 최대 이체 수
+    - maxWaitMicros : 첫 요청이 들어온 뒤 다음 요청을 더 모으며 기다릴 최대 시간 (마이크로초)
+    - queueCapacity : 대기 큐 크기 (가득 차면 제출한 스레드가 대기 -> backpressure)
+    - maxAttempts : 한 건으로 좁혀진 이체가 커밋 충돌로 실패했을 때 다시 시도할 최대 횟수
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "transfer.group-commit")
+public class GroupCommitProperties {
+
+    private boolean enabled = false;
+
+    private int maxBatchSize = 256;
+
+    private long maxWaitMicros = 500;
+
+    private int queueCapacity = 8192;
+
+    private int maxAttempts = 3;
+
+}
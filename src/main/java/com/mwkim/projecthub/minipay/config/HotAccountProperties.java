@@ -0,0 +1,31 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/*
+    입금이 몰리는 가맹점 계좌(hot account)의 잔액 분할 설정
+    - enabled : true 일 때만 분할 모드를 켠다
+    - accountIds : 분할할 계좌 id 목록
+    - slots : 계좌별 잔액 슬롯 수. 같은 계좌로 들어오는 입금이 이 수만큼의 행으로 나뉘어 잠긴다
+    - consolidateIntervalMillis : 슬롯 잔액을 계좌 행으로 모으는 주기
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "account.hot")
+public class HotAccountProperties {
+
+    private boolean enabled = false;
+
+    private Set<Long> accountIds = new LinkedHashSet<>();
+
+    private int slots = 16;
+
+    private long consolidateIntervalMillis = 1000;
+
+}
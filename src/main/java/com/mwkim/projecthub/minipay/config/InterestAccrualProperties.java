@@ -0,0 +1,33 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    SAVINGS 계좌 이자 적립 설정
+    - enabled : true 일 때만 InterestAccrualEngine 이 등록된다
+    - cron : 매일 적립을 시작하는 시각 (전날까지의 하루치 이자를 적립)
+    - regularRateBps, flexibleRateBps : 연 이율 (bp, 1bp = 0.01%). 하루치는 연 이율 / 365
+    - partitionSize : 한 트랜잭션에서 처리할 계좌 id 구간의 크기. 구간이 끝날 때마다 체크포인트를 남겨 중단 후 이어서 실행한다
+    - parallelism : 동시에 처리할 구간 수 (ForkJoinPool 크기). 구간마다 DB 커넥션을 하나씩 쓴다
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "savings.interest")
+public class InterestAccrualProperties {
+
+    private boolean enabled = false;
+
+    private String cron = "0 5 0 * * *";
+
+    private int regularRateBps = 350;
+
+    private int flexibleRateBps = 150;
+
+    private int partitionSize = 10_000;
+
+    private int parallelism = 4;
+
+}
@@ -0,0 +1,25 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    transfer.strategy: ledger 일 때 사용하는 인메모리 원장 엔진 설정
+    - partitions : 계좌 id 기준으로 나눌 단일 스레드 워커 수
+    - queueCapacity : 워커 별 대기 큐 크기 (가득 차면 호출 스레드가 대기 -> backpressure)
+    - projectionBatchSize : DB 반영(projection) 시 한 번에 묶어서 쓸 최대 건수
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "transfer.ledger")
+public class LedgerProperties {
+
+    private int partitions = Runtime.getRuntime().availableProcessors();
+
+    private int queueCapacity = 8192;
+
+    private int projectionBatchSize = 500;
+
+}
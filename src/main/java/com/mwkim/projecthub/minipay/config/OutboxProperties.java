@@ -0,0 +1,36 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    거래 내역 outbox 설정
+    - enabled : true 면 거래 내역을 기록하는 트랜잭션에서 outbox_event 도 함께 기록하고, relay 를 띄운다
+    - pollIntervalMillis : relay 가 outbox 를 확인하는 주기
+    - batchSize : 한 번에 잠그고 전달할 이벤트 수 (트랜잭션 하나)
+    - workers : 동시에 전달할 relay 스레드 수. 2 이상이면 같은 계좌의 이벤트도 순서가 바뀔 수 있다
+    - fileLogEnabled, fileLogPath : 이벤트를 한 줄에 하나씩(NDJSON) 덧붙이는 파일 로그 sink
+    - fileLogFsync : 배치마다 fsync 한 뒤 커밋한다 (꺼두면 OS 버퍼에 맡긴다)
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    private long pollIntervalMillis = 200;
+
+    private int batchSize = 500;
+
+    private int workers = 1;
+
+    private boolean fileLogEnabled = false;
+
+    private String fileLogPath = "./outbox/ledger-events.ndjson";
+
+    private boolean fileLogFsync = false;
+
+}
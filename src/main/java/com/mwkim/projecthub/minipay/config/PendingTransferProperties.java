@@ -0,0 +1,36 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+    transfer.strategy: pending 일 때 사용하는 수령 대기 송금 설정
+    - ttl : 수령하지 않은 송금이 만료되기까지의 시간
+    - tickMillis : 타이밍 휠 한 칸의 크기이자 만료 처리 주기. 만료는 최대 한 칸만큼 늦을 수 있다
+    - wheelLevels : 타이밍 휠 단계 수. 단계마다 64 칸이고, tickMillis * 64^wheelLevels 까지를 휠 안에서 다룬다
+    - expireBatchSize : 만료를 트랜잭션 하나에 묶어 처리할 최대 건수
+    - overdueSweepIntervalMillis : 휠에 없는 만료 건(다른 노드에서 보낸 건 등)을 인덱스로 찾아 정리하는 주기
+    - rehydrateFetchSize : 기동 시 PENDING 목록을 읽을 때의 fetch size (Integer.MIN_VALUE : MySQL 행 단위 스트리밍)
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "transfer.pending")
+public class PendingTransferProperties {
+
+    private Duration ttl = Duration.ofHours(72);
+
+    private long tickMillis = 1000;
+
+    private int wheelLevels = 4;
+
+    private int expireBatchSize = 1000;
+
+    private long overdueSweepIntervalMillis = 60_000;
+
+    private int rehydrateFetchSize = Integer.MIN_VALUE;
+
+}
@@ -0,0 +1,35 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    전원 승인된 정산의 송금 실행 설정
+    - enabled : false 면 전원 승인된 정산을 QUEUED 로만 표시하고 송금하지 않는다.
+                송금은 atomic 일괄 이체라 원장 모드(transfer.strategy: ledger)에서는 반드시 false 여야 한다 (시작할 때 확인)
+    - workers : 송금을 실행할 워커 스레드 수
+    - queueCapacity : 워커 대기 큐 크기. 가득 차면 요청 스레드는 기다리지 않고, 정산은 QUEUED 로 남아 sweeper 가 나중에 가져간다.
+    - sweepIntervalMillis : QUEUED 정산을 다시 찾는 주기 (큐가 넘쳤거나 다른 노드/재시작으로 남은 것)
+    - netting : true 면 정산마다 송금하지 않고, sweep 주기마다 QUEUED 정산을 모아 상계한 뒤 순액만 송금한다
+    - nettingWindowSize : 상계 한 번에 묶을 최대 정산 수
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "settlement.execution")
+public class SettlementExecutionProperties {
+
+    private boolean enabled = true;
+
+    private int workers = 4;
+
+    private int queueCapacity = 1000;
+
+    private long sweepIntervalMillis = 5000;
+
+    private boolean netting = false;
+
+    private int nettingWindowSize = 10_000;
+
+}
@@ -0,0 +1,33 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    예약 / 자동 이체 실행 설정
+    - pollIntervalMillis : 도래한 주문을 확인하는 주기
+    - workers : 동시에 실행할 묶음 수 (워커 스레드 수). 워커마다 DB 커넥션을 하나씩 쓴다
+    - batchSize : 한 묶음(트랜잭션 하나)에 담을 주문 수
+    - maxAttempts : 실패한 주문을 다시 시도할 최대 횟수. 넘으면 FAILED 로 멈춘다
+    - baseBackoffSeconds, maxBackoffSeconds : 재시도 간격 (지수 백오프, 분 단위로 올림)
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "transfer.schedule")
+public class StandingOrderProperties {
+
+    private long pollIntervalMillis = 5000;
+
+    private int workers = 4;
+
+    private int batchSize = 500;
+
+    private int maxAttempts = 5;
+
+    private long baseBackoffSeconds = 60;
+
+    private long maxBackoffSeconds = 3600;
+
+}
@@ -0,0 +1,23 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    거래 내역서(statement) 내보내기 설정
+    - fetchSize : JDBC fetch size. MySQL Connector/J 는 Integer.MIN_VALUE 일 때만 행 단위로 스트리밍하고,
+                  그 외 값은 (useCursorFetch 가 없으면) 결과 전체를 메모리에 올린다.
+    - bufferSize : 응답 스트림 버퍼 크기 (byte)
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "statement.export")
+public class StatementExportProperties {
+
+    private int fetchSize = Integer.MIN_VALUE;
+
+    private int bufferSize = 64 * 1024;
+
+}
@@ -0,0 +1,29 @@
+package com.mwkim.projecthub.minipay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    JPA 이체 경로(transfer.strategy: immediate)의 동시성 제어 설정
+    - mode : optimistic(기본) / pessimistic / striped
+    - maxAttempts, baseBackoffMillis, maxBackoffMillis : optimistic 모드의 재시도 횟수와 지터 백오프 범위
+    - stripes : striped 모드에서 사용할 락 개수 (단일 노드 배포 전용)
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "transfer.concurrency")
+public class TransferConcurrencyProperties {
+
+    private String mode = "optimistic";
+
+    private int maxAttempts = 5;
+
+    private long baseBackoffMillis = 5;
+
+    private long maxBackoffMillis = 100;
+
+    private int stripes = 1024;
+
+}
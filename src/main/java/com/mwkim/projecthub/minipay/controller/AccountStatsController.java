@@ -0,0 +1,36 @@
+package com.mwkim.projecthub.minipay.controller;
+
+import com.mwkim.projecthub.minipay.dto.DailyStatsSummary;
+import com.mwkim.projecthub.minipay.service.AccountStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/accounts/{accountId}/daily-stats")
+@RequiredArgsConstructor
+public class AccountStatsController {
+
+    private final AccountStatsService accountStatsService;
+
+    // 기간(양끝 포함)의 날짜별, 종류별 건수 / 합계
+    @GetMapping
+    public ResponseEntity<DailyStatsSummary> getDailyStats(
+            @PathVariable("accountId") Long accountId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(accountStatsService.getDailyStats(accountId, from, to));
+    }
+
+    // 한 달 (month=2024-01)
+    @GetMapping("/month")
+    public ResponseEntity<DailyStatsSummary> getMonthlyStats(
+            @PathVariable("accountId") Long accountId,
+            @RequestParam("month") @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(accountStatsService.getMonthlyStats(accountId, month));
+    }
+}
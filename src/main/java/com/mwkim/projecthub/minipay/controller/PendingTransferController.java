@@ -0,0 +1,34 @@
+package com.mwkim.projecthub.minipay.controller;
+
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// transfer.strategy: pending 일 때만 등록된다.
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transfer.strategy", havingValue = "pending")
+public class PendingTransferController {
+
+    private final PendingTransferEngine pendingTransferEngine;
+
+    // 수령 (받는 계좌 주인)
+    @PostMapping("/users/{userId}/pending-transfers/{pendingTransferId}/claim")
+    public ResponseEntity<Void> claim(@PathVariable("userId") Long userId,
+                                      @PathVariable("pendingTransferId") Long pendingTransferId) {
+        pendingTransferEngine.claim(pendingTransferId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 수령 전 취소 (보낸 계좌 주인)
+    @PostMapping("/users/{userId}/pending-transfers/{pendingTransferId}/cancel")
+    public ResponseEntity<Void> cancel(@PathVariable("userId") Long userId,
+                                       @PathVariable("pendingTransferId") Long pendingTransferId) {
+        pendingTransferEngine.cancel(pendingTransferId, userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.mwkim.projecthub.minipay.controller;
+
+import com.mwkim.projecthub.minipay.service.SettlementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    // 정산 승인 (참여자 한 명)
+    @PostMapping("/settlements/{settlementId}/participants/{userId}/approve")
+    public ResponseEntity<Void> approve(@PathVariable("settlementId") Long settlementId,
+                                        @PathVariable("userId") Long userId) {
+        settlementService.approveSettlement(userId, settlementId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 정산 거절 (참여자 한 명)
+    @PostMapping("/settlements/{settlementId}/participants/{userId}/reject")
+    public ResponseEntity<Void> reject(@PathVariable("settlementId") Long settlementId,
+                                       @PathVariable("userId") Long userId) {
+        settlementService.rejectSettlement(userId, settlementId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 회원의 PENDING 정산 일괄 승인. settlementIds 를 주지 않으면 전체를 승인한다.
+    @PostMapping("/users/{userId}/settlements/approve")
+    public ResponseEntity<Map<String, Integer>> approveAll(@PathVariable("userId") Long userId,
+                                                           @RequestBody(required = false) List<Long> settlementIds) {
+        int approved = settlementService.approveAllPending(userId, settlementIds);
+        return ResponseEntity.ok(Map.of("approved", approved));
+    }
+}
@@ -0,0 +1,34 @@
+package com.mwkim.projecthub.minipay.controller;
+
+import com.mwkim.projecthub.minipay.dto.StandingOrderRequest;
+import com.mwkim.projecthub.minipay.entity.StandingOrder;
+import com.mwkim.projecthub.minipay.service.StandingOrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+
+    // 예약 / 자동 이체 등록
+    @PostMapping("/users/{userId}/standing-orders")
+    public ResponseEntity<Map<String, Long>> register(@PathVariable("userId") Long userId,
+                                                      @RequestBody StandingOrderRequest request) {
+        StandingOrder order = standingOrderService.register(userId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", order.getId()));
+    }
+
+    // 해지
+    @DeleteMapping("/users/{userId}/standing-orders/{standingOrderId}")
+    public ResponseEntity<Void> cancel(@PathVariable("userId") Long userId,
+                                       @PathVariable("standingOrderId") Long standingOrderId) {
+        standingOrderService.cancel(userId, standingOrderId);
+        return ResponseEntity.noContent().build();
+    }
+}
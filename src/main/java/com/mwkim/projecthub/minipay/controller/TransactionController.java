@@ -0,0 +1,73 @@
+package com.mwkim.projecthub.minipay.controller;
+
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryPage;
+import com.mwkim.projecthub.minipay.enums.StatementFormat;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.service.StatementExportService;
+import com.mwkim.projecthub.minipay.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/accounts/{accountId}/transactions")
+@RequiredArgsConstructor
+public class TransactionController {
+
+    private final TransactionService transactionService;
+    private final StatementExportService statementExportService;
+
+    // 거래 내역 조회 (최신순, keyset 페이지). 다음 페이지는 응답의 nextCursorDate / nextCursorId 를 넘긴다.
+    @GetMapping
+    public ResponseEntity<TransactionHistoryPage> getHistory(
+            @PathVariable("accountId") Long accountId,
+            @RequestParam(value = "type", required = false) TransactionType type,
+            @RequestParam(value = "status", required = false) TransactionStatus status,
+            @RequestParam(value = "cursorDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(transactionService.getTransactionHistory(accountId, type, status, cursorDate, cursorId, size));
+    }
+
+    // 상대 계좌와 주고받은 송금 내역 (최신순, keyset 페이지)
+    @GetMapping("/counterparty/{counterpartyAccountId}")
+    public ResponseEntity<TransactionHistoryPage> getTransfersWith(
+            @PathVariable("accountId") Long accountId,
+            @PathVariable("counterpartyAccountId") Long counterpartyAccountId,
+            @RequestParam(value = "cursorDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(transactionService.getTransfersWith(accountId, counterpartyAccountId, cursorDate, cursorId, size));
+    }
+
+    // 거래 내역서 내보내기 (CSV / NDJSON). 조회 결과를 메모리에 모으지 않고 응답 스트림으로 바로 흘려보낸다.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable("accountId") Long accountId,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "CSV") StatementFormat format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        String filename = "statement-" + accountId + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> statementExportService.export(accountId, from, to, format, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,39 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// 잔액 / 계좌 정보 조회용 불변 요약. 캐시에 그대로 보관되므로 엔티티나 프록시를 들고 있지 않는다.
+@Getter
+public class AccountSummary {
+    private final Long accountId;
+    private final Long userId;
+    private final AccountType type;
+    private final BigDecimal balance;
+    private final BigDecimal dailyLimitAmount;
+    private final BigDecimal dailyUseAmount;
+
+    public AccountSummary(Long accountId, Long userId, AccountType type, BigDecimal balance,
+                          BigDecimal dailyLimitAmount, BigDecimal dailyUseAmount) {
+        this.accountId = accountId;
+        this.userId = userId;
+        this.type = type;
+        this.balance = balance;
+        this.dailyLimitAmount = dailyLimitAmount;
+        this.dailyUseAmount = dailyUseAmount;
+    }
+
+    public static AccountSummary from(Account account) {
+        return from(account, account.getBalance());
+    }
+
+    // 잔액이 계좌 행 밖에도 있는 경우(hot account 슬롯) 합산한 잔액으로 만든다.
+    public static AccountSummary from(Account account, BigDecimal balance) {
+        return new AccountSummary(account.getId(),
+                account.getUser() == null ? null : account.getUser().getId(), // 프록시 id 는 초기화 없이 읽힌다
+                account.getType(), balance, account.getDailyLimitAmount(), account.getDailyUseAmount());
+    }
+}
@@ -0,0 +1,25 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// 계좌의 하루, 거래 종류 하나의 집계
+@Getter
+public class DailyStat {
+    private final LocalDate date;
+    private final TransactionType type;
+    private final long count;
+    private final BigDecimal amount;
+
+    // JPQL constructor expression 에서 호출된다
+    public DailyStat(LocalDate date, TransactionType type, long count, Money amount) {
+        this.date = date;
+        this.type = type;
+        this.count = count;
+        this.amount = amount == null ? BigDecimal.ZERO : amount.toBigDecimal();
+    }
+}
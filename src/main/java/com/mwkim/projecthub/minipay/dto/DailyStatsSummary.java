@@ -0,0 +1,46 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// 기간 집계 : 날짜별 행과 종류별 합계. 합계는 날짜별 행에서 계산하므로 비용은 일 수에 비례한다.
+@Getter
+public class DailyStatsSummary {
+    private final Long accountId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<DailyStat> days;
+    private final Map<TransactionType, Total> totals;
+
+    public DailyStatsSummary(Long accountId, LocalDate from, LocalDate to, List<DailyStat> days) {
+        this.accountId = accountId;
+        this.from = from;
+        this.to = to;
+        this.days = days;
+        this.totals = new EnumMap<>(TransactionType.class);
+        for (DailyStat day : days) {
+            totals.merge(day.getType(), new Total(day.getCount(), day.getAmount()), Total::plus);
+        }
+    }
+
+    @Getter
+    public static class Total {
+        private final long count;
+        private final BigDecimal amount;
+
+        public Total(long count, BigDecimal amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+
+        Total plus(Total other) {
+            return new Total(count + other.count, amount.add(other.amount));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.Getter;
+
+// 정산 실행 시 참여자 한 명이 보낼 금액 (JPQL constructor expression 용)
+@Getter
+public class ParticipantShare {
+    private final Long userId;
+    private final Money amount;
+
+    public ParticipantShare(Long userId, Money amount) {
+        this.userId = userId;
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.Getter;
+
+// 정산 참여자(debtor)가 요청자(creditor)에게 줄 금액 (상계 입력, JPQL constructor expression 용)
+@Getter
+public class SettlementObligation {
+    private final Long debtorUserId;
+    private final Long creditorUserId;
+    private final Money amount;
+
+    public SettlementObligation(Long debtorUserId, Long creditorUserId, Money amount) {
+        this.debtorUserId = debtorUserId;
+        this.creditorUserId = creditorUserId;
+        this.amount = amount;
+    }
+}
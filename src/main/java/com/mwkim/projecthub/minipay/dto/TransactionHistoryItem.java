@@ -0,0 +1,39 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// 거래 내역 조회용 projection. 엔티티(계좌 프록시 포함)를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 읽는다.
+@Getter
+public class TransactionHistoryItem {
+    private final Long id;
+    private final TransactionType type;
+    private final BigDecimal amount;
+    private final String description;
+    private final LocalDateTime transactionDate;
+    private final TransactionStatus status;
+    private final TransferDirection direction;      // 송금 행만
+    private final Long counterpartyAccountId;       // 송금 행만
+    private final Long transferId;                  // 송금 행만
+
+    // JPQL constructor expression 에서 호출된다
+    public TransactionHistoryItem(Long id, TransactionType type, Money amount, String description,
+                                  LocalDateTime transactionDate, TransactionStatus status,
+                                  TransferDirection direction, Long counterpartyAccountId, Long transferId) {
+        this.id = id;
+        this.type = type;
+        this.amount = amount == null ? null : amount.toBigDecimal();
+        this.description = description;
+        this.transactionDate = transactionDate;
+        this.status = status;
+        this.direction = direction;
+        this.counterpartyAccountId = counterpartyAccountId;
+        this.transferId = transferId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 거래 내역 keyset 페이지.
+ * 다음 페이지는 nextCursorDate / nextCursorId 를 그대로 넘겨서 요청한다. (hasNext 가 false 면 둘 다 null)
+ */
+@Getter
+public class TransactionHistoryPage {
+    private final List<TransactionHistoryItem> items;
+    private final boolean hasNext;
+    private final LocalDateTime nextCursorDate;
+    private final Long nextCursorId;
+
+    public TransactionHistoryPage(List<TransactionHistoryItem> items, boolean hasNext,
+                                  LocalDateTime nextCursorDate, Long nextCursorId) {
+        this.items = items;
+        this.hasNext = hasNext;
+        this.nextCursorDate = nextCursorDate;
+        this.nextCursorId = nextCursorId;
+    }
+}
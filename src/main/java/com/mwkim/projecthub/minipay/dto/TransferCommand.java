@@ -0,0 +1,18 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+public class TransferCommand {
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final BigDecimal amount;
+
+    public TransferCommand(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+}
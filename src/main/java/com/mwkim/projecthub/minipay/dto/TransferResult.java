@@ -0,0 +1,35 @@
+package com.mwkim.projecthub.minipay.dto;
+
+import com.mwkim.projecthub.minipay.enums.TransferResultStatus;
+import lombok.Getter;
+
+@Getter
+public class TransferResult {
+    private final int index; // 요청 목록에서의 위치
+    private final TransferCommand command;
+    private final TransferResultStatus status;
+    private final String message;
+
+    public TransferResult(int index, TransferCommand command, TransferResultStatus status, String message) {
+        this.index = index;
+        this.command = command;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static TransferResult success(int index, TransferCommand command) {
+        return new TransferResult(index, command, TransferResultStatus.SUCCESS, null);
+    }
+
+    public static TransferResult failed(int index, TransferCommand command, String message) {
+        return new TransferResult(index, command, TransferResultStatus.FAILED, message);
+    }
+
+    public static TransferResult rolledBack(int index, TransferCommand command) {
+        return new TransferResult(index, command, TransferResultStatus.ROLLED_BACK, null);
+    }
+
+    public boolean isSuccess() {
+        return status == TransferResultStatus.SUCCESS;
+    }
+}
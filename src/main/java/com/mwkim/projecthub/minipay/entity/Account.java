@@ -2,8 +2,11 @@ package com.mwkim.projecthub.minipay.entity;
 
 
 import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.SavingsType;
 import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
 import com.mwkim.projecthub.minipay.exception.custom.InsufficientBalanceException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -13,16 +16,17 @@ import lombok.NoArgsConstructor;
 
 import javax.naming.LimitExceededException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_id")
+    @TableGenerator(name = "account_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "account", allocationSize = IdAllocation.ACCOUNT_BLOCK)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,33 +36,44 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountType type;
 
-    private BigDecimal balance;
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
 
-    private BigDecimal dailyLimitAmount;
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money dailyLimitAmount;
 
-    private BigDecimal dailyUseAmount; // 매번 출금 내역을 DB에서 조회해 합산하는 것보다, 메모리에 누적액을 유지하자.
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money dailyUseAmount; // 매번 출금 내역을 DB에서 조회해 합산하는 것보다, 메모리에 누적액을 유지하자.
 
     private LocalDateTime lastWithdrawalReset; // 마지막 리셋 시간
 
-    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Transaction> transactions = new ArrayList<>();
+    @Enumerated(EnumType.STRING)
+    private SavingsType savingsType; // SAVINGS 계좌의 이자 종류. null 이면 FLEXIBLE
+
+    @Column(name = "interest_carry", nullable = false, columnDefinition = "bigint not null default 0")
+    private long interestCarry; // 원 단위로 떨어지지 않은 이자 (1 / (10000 * 365) 원 단위). InterestAccrualEngine 이 JDBC 로만 갱신한다
+
+    private LocalDate lastInterestDate; // 마지막으로 이자가 적립된 날
+
+    @Version
+    private Long version; // 낙관적 락 (동시 이체 충돌 감지)
+
+    // 거래 내역 컬렉션(@OneToMany)은 두지 않는다. 오래된 계좌는 내역이 수십만 건이라 컬렉션을 건드리는 순간 전체가 로딩된다.
+    // 내역 기록은 Transaction 쪽(account_id FK)만으로 하고, 조회는 TransactionRepository 의 페이지 조회를 쓴다.
 
     @Builder
     public Account(Long id, AccountType type, BigDecimal balance, BigDecimal dailyLimitAmount) {
         this.id = id;
         this.type = type;
-        this.balance = balance;
-        this.dailyLimitAmount = dailyLimitAmount;
-        this.dailyUseAmount = BigDecimal.ZERO;
+        this.balance = balance == null ? null : Money.of(balance);
+        this.dailyLimitAmount = dailyLimitAmount == null ? null : Money.of(dailyLimitAmount);
+        this.dailyUseAmount = Money.ZERO;
         this.lastWithdrawalReset = LocalDateTime.now();
     }
 
-
-    public void addTransaction(Transaction transaction) {
-        this.transactions.add(transaction);
-        transaction.addAccount(this);
-    }
-
     // factory-method
     public static Account createAccount(User user, AccountType type, BigDecimal balance, BigDecimal dailyLimitAmount) {
         Account account = Account.builder()
@@ -75,15 +90,40 @@ public class Account {
         this.user = user;
     }
 
-    public void updateDailyUseAmount(BigDecimal amouont) {
-        this.dailyLimitAmount = amouont;
+    public void updateDailyUseAmount(Money amount) {
+        this.dailyUseAmount = amount;
     }
 
     public void updateLastWithdrawalReset(LocalDateTime time) {
         this.lastWithdrawalReset = time;
     }
 
-    public void updateBalance(BigDecimal balance) {
+    public void updateSavingsType(SavingsType savingsType) {
+        this.savingsType = savingsType;
+    }
+
+    public void updateBalance(Money balance) {
         this.balance = balance;
     }
+
+    // 계산은 Money(long) 로 하고, 외부 조회용 getter 는 기존처럼 BigDecimal 을 돌려준다.
+    public Money getBalanceMoney() {
+        return balance;
+    }
+
+    public Money getDailyUseMoney() {
+        return dailyUseAmount;
+    }
+
+    public BigDecimal getBalance() {
+        return balance == null ? null : balance.toBigDecimal();
+    }
+
+    public BigDecimal getDailyLimitAmount() {
+        return dailyLimitAmount == null ? null : dailyLimitAmount.toBigDecimal();
+    }
+
+    public BigDecimal getDailyUseAmount() {
+        return dailyUseAmount == null ? null : dailyUseAmount.toBigDecimal();
+    }
 }
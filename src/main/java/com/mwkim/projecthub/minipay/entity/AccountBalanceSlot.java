@@ -0,0 +1,57 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * hot account 의 잔액 슬롯.
+ *
+ * 계좌의 실제 잔액은 account.balance(정리된 잔액) + 이 계좌 슬롯들의 balance 합이다.
+ * 입금은 슬롯 하나에 UPDATE ... SET balance = balance + ? 로 더하기만 하므로 계좌 행을 잠그지 않는다.
+ * 슬롯 잔액은 출금 시 또는 주기적으로 계좌 행으로 옮겨지고 0 이 된다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "account_balance_slot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_balance_slot", columnNames = {"account_id", "slot_no"}))
+public class AccountBalanceSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_balance_slot_id")
+    @TableGenerator(name = "account_balance_slot_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "account_balance_slot", allocationSize = IdAllocation.ACCOUNT_BALANCE_SLOT_BLOCK)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId; // 연관관계 없이 id 만 둔다 (입금 UPDATE 가 계좌 행을 건드리지 않게)
+
+    @Column(name = "slot_no", nullable = false)
+    private int slotNo;
+
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    public static AccountBalanceSlot createSlot(Long accountId, int slotNo) {
+        AccountBalanceSlot slot = new AccountBalanceSlot();
+        slot.accountId = accountId;
+        slot.slotNo = slotNo;
+        slot.balance = Money.ZERO;
+        return slot;
+    }
+
+    public Money getBalanceMoney() {
+        return balance;
+    }
+
+    // 슬롯 잔액을 모두 꺼내고 0 으로 만든다. 잠금(FOR UPDATE)을 잡은 슬롯에만 호출한다.
+    public Money drain() {
+        Money drained = balance;
+        balance = Money.ZERO;
+        return drained;
+    }
+}
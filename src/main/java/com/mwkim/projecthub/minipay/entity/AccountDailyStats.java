@@ -0,0 +1,54 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 계좌별, 날짜별, 거래 종류별 건수와 합계.
+ *
+ * 거래 내역을 기록하는 트랜잭션에서 DailyStatsRecorder 가 upsert 로 더한다. 엔티티로는 읽기만 한다.
+ * PK 가 (account_id, stat_date, type) 이라 한 계좌의 기간 조회는 clustered index 의 연속 구간 하나를 읽는다. (일 수 * 종류 수 행)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@IdClass(AccountDailyStatsId.class)
+@Table(name = "account_daily_stats")
+public class AccountDailyStats {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate; // 거래 내역의 transactionDate 날짜
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 16)
+    private TransactionType type;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "amount_sum", nullable = false)
+    private Money amountSum;
+
+    public Money getAmountSumMoney() {
+        return amountSum;
+    }
+
+    public BigDecimal getAmountSum() {
+        return amountSum == null ? null : amountSum.toBigDecimal();
+    }
+}
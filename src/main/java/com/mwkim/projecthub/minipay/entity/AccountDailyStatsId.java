@@ -0,0 +1,20 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// AccountDailyStats 의 복합 키 (account_id, stat_date, type)
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class AccountDailyStatsId implements Serializable {
+    private Long accountId;
+    private LocalDate statDate;
+    private TransactionType type;
+}
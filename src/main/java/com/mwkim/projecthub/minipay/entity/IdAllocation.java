@@ -0,0 +1,33 @@
+package com.mwkim.projecthub.minipay.entity;
+
+/**
+ * minipay 엔티티 id 할당 설정.
+ *
+ * IDENTITY 전략은 INSERT 를 실행해야 id 를 알 수 있어서 hibernate 가 insert batching 을 하지 못한다.
+ * 대신 id_block 테이블에서 엔티티별로 id 블록을 미리 받아오는 pooled(hi-lo) 방식을 쓴다.
+ * 블록 크기만큼은 DB 왕복 없이 메모리에서 id 를 발급하므로, 블록 크기는 한 트랜잭션에서 만드는 행 수에 맞춰 조정한다.
+ *
+ * @note 기존 IDENTITY 데이터가 있는 DB 에서는 id_block.next_val 을 각 테이블의 max(id) + 1 이상으로 먼저 맞춰야 한다.
+ */
+public final class IdAllocation {
+
+    public static final String TABLE = "id_block";
+    public static final String PK_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // 엔티티별 블록 크기 (한 번에 예약하는 id 개수)
+    public static final int TRANSACTION_BLOCK = 1000;
+    public static final int ACCOUNT_BLOCK = 100;
+    public static final int USER_BLOCK = 100;
+    public static final int SETTLEMENT_BLOCK = 50;
+    public static final int SETTLEMENT_PARTICIPANT_BLOCK = 1000;
+    public static final int ACCOUNT_BALANCE_SLOT_BLOCK = 100;
+    public static final int PENDING_TRANSFER_BLOCK = 1000;
+    public static final int STANDING_ORDER_BLOCK = 1000;
+    public static final int INTEREST_CHECKPOINT_BLOCK = 100;
+    public static final int OUTBOX_EVENT_BLOCK = 1000;
+    public static final int TRANSFER_BLOCK = 1000; // transfer_id (엔티티가 아닌 송금 묶음 id, TransferIdAllocator)
+
+    private IdAllocation() {
+    }
+}
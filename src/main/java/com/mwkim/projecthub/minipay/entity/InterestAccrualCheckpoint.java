@@ -0,0 +1,55 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 이자 적립 구간 완료 기록.
+ *
+ * 구간의 잔액 갱신과 같은 트랜잭션에서 저장되므로, 이 행이 있으면 그 날짜의 그 구간은 적립이 끝난 것이다.
+ * 중단된 적립을 다시 실행하면 기록이 있는 구간은 건너뛴다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "interest_accrual_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_interest_checkpoint_date_start", columnNames = {"accrual_date", "partition_start"}))
+public class InterestAccrualCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "interest_accrual_checkpoint_id")
+    @TableGenerator(name = "interest_accrual_checkpoint_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "interest_accrual_checkpoint", allocationSize = IdAllocation.INTEREST_CHECKPOINT_BLOCK)
+    private Long id;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "partition_start", nullable = false)
+    private long partitionStart; // 포함
+
+    @Column(name = "partition_end", nullable = false)
+    private long partitionEnd; // 제외
+
+    private int accounts; // 적립한 계좌 수
+
+    private long interest; // 적립한 이자 합계 (원)
+
+    private LocalDateTime completedAt;
+
+    public static InterestAccrualCheckpoint createCheckpoint(LocalDate accrualDate, long partitionStart, long partitionEnd,
+                                                             int accounts, long interest) {
+        InterestAccrualCheckpoint checkpoint = new InterestAccrualCheckpoint();
+        checkpoint.accrualDate = accrualDate;
+        checkpoint.partitionStart = partitionStart;
+        checkpoint.partitionEnd = partitionEnd;
+        checkpoint.accounts = accounts;
+        checkpoint.interest = interest;
+        checkpoint.completedAt = LocalDateTime.now();
+        return checkpoint;
+    }
+}
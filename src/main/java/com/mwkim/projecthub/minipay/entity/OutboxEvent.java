@@ -0,0 +1,79 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 아직 전달되지 않은 거래 내역 이벤트.
+ *
+ * 거래 내역과 같은 트랜잭션에서 기록되고, OutboxRelay 가 sink 에 전달한 뒤 지운다. (남아 있는 행 = 전달 대기)
+ * 계좌나 거래 내역과 FK 를 걸지 않는다. relay 는 이 테이블만 읽는다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "outbox_event")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "outbox_event_id")
+    @TableGenerator(name = "outbox_event_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "outbox_event", allocationSize = IdAllocation.OUTBOX_EVENT_BLOCK)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private TransferDirection direction;
+
+    @Column(name = "counterparty_account_id")
+    private Long counterpartyAccountId;
+
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    private LocalDateTime occurredAt; // 거래 내역의 transactionDate
+
+    private LocalDateTime createdAt; // relay 지연(lag) 계산용
+
+    // 거래 내역이 persist 되어 id 가 정해진 뒤에 만든다.
+    public static OutboxEvent of(Transaction transaction) {
+        OutboxEvent event = new OutboxEvent();
+        event.transactionId = transaction.getId();
+        event.accountId = transaction.getAccount().getId();
+        event.type = transaction.getType();
+        event.amount = transaction.getAmountMoney();
+        event.description = transaction.getDescription();
+        event.direction = transaction.getDirection();
+        event.counterpartyAccountId = transaction.getCounterpartyAccountId();
+        event.transferId = transaction.getTransferId();
+        event.occurredAt = transaction.getTransactionDate();
+        event.createdAt = LocalDateTime.now();
+        return event;
+    }
+
+    public Money getAmountMoney() {
+        return amount;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 수령 대기 중인 송금 (transfer.strategy: pending).
+ *
+ * 보낼 때 보내는 계좌에서 금액을 빼서 잡아두고(hold), 받는 사람이 수령하면 받는 계좌에 입금한다.
+ * 수령하지 않으면 transactionDate + transfer.pending.ttl 에 만료되어 보낸 계좌로 돌려준다.
+ *
+ * PENDING -> COMPLETED (수령) / CANCELLED (보낸 사람 취소) / EXPIRED (만료)
+ *
+ * 기동 시 만료 대기 목록은 (status, transaction_date) 인덱스 범위만 읽어서 다시 만든다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "pending_transfer",
+        indexes = @Index(name = "idx_pending_transfer_status_date", columnList = "status, transaction_date"))
+public class PendingTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pending_transfer_id")
+    @TableGenerator(name = "pending_transfer_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "pending_transfer", allocationSize = IdAllocation.PENDING_TRANSFER_BLOCK)
+    private Long id;
+
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false)
+    private Long toAccountId;
+
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus status;
+
+    private LocalDateTime transactionDate; // 보낸 시각
+
+    // 보낼 때의 출금 행과 수령할 때의 입금 행이 함께 갖는 transfer_id
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    public static PendingTransfer createPendingTransfer(Long fromAccountId, Long toAccountId, Money amount, long transferId) {
+        PendingTransfer pendingTransfer = new PendingTransfer();
+        pendingTransfer.fromAccountId = fromAccountId;
+        pendingTransfer.toAccountId = toAccountId;
+        pendingTransfer.transferId = transferId;
+        pendingTransfer.amount = amount;
+        pendingTransfer.status = TransactionStatus.PENDING;
+        pendingTransfer.transactionDate = LocalDateTime.now();
+        return pendingTransfer;
+    }
+
+    public Money getAmountMoney() {
+        return amount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+}
@@ -1,7 +1,10 @@
 package com.mwkim.projecthub.minipay.entity;
 
 import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus;
 import com.mwkim.projecthub.minipay.enums.SettlementType;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -14,16 +17,23 @@ import java.util.List;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+// sweep 이 주기마다 QUEUED 정산을 찾고 잠근다. 인덱스가 없으면 전체를 훑으면서 훑은 행을 모두 잠가 승인(adjustCounts)을 막는다
+@Table(name = "settlement",
+        indexes = @Index(name = "idx_settlement_execution_status", columnList = "execution_status, pending_count, rejected_count, id"))
 public class Settlement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "settlement_id")
+    @TableGenerator(name = "settlement_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "settlement", allocationSize = IdAllocation.SETTLEMENT_BLOCK)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
     private User requester;
 
-    private BigDecimal totalAmount;
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount;
 
     @Enumerated(EnumType.STRING)
     private SettlementType type; // 균등정산 or 랜덤 정산
@@ -31,26 +41,67 @@ public class Settlement {
     @OneToMany(mappedBy = "settlement", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SettlementParticipant> participants = new ArrayList<>();
 
+    // 참여자 상태별 인원수. 승인/거절 시 SettlementRepository.adjustCounts 로 함께 갱신되므로 상태 확인에 참여자를 읽을 필요가 없다.
+    // 컬럼 추가 전 데이터는 아래처럼 한 번 채워준다.
+    // UPDATE settlement s SET
+    //   pending_count  = (SELECT COUNT(*) FROM settlement_participant p WHERE p.settlement_id = s.id AND p.status = 'PENDING'),
+    //   approved_count = (SELECT COUNT(*) FROM settlement_participant p WHERE p.settlement_id = s.id AND p.status = 'APPROVED'),
+    //   rejected_count = (SELECT COUNT(*) FROM settlement_participant p WHERE p.settlement_id = s.id AND p.status = 'REJECTED');
+    private int pendingCount;
+
+    private int approvedCount;
+
+    private int rejectedCount;
+
+    // 전원 승인 후 송금 실행 상태. QUEUED 로 바꾸는 쪽이 한 번만 성공하므로 정산마다 송금은 한 번만 실행된다.
+    @Enumerated(EnumType.STRING)
+    private SettlementExecutionStatus executionStatus;
+
+    private String executionMessage; // 실패 사유
+
     @Builder
-    public Settlement(User requester, BigDecimal totalAmount, SettlementType type, List<SettlementParticipant> participants) {
+    public Settlement(User requester, Money totalAmount, SettlementType type, List<SettlementParticipant> participants) {
         this.requester = requester;
         this.totalAmount = totalAmount;
-        this.participants = participants;
+        this.participants = participants == null ? new ArrayList<>() : participants;
         this.type = type;
+        this.executionStatus = SettlementExecutionStatus.NONE;
     }
 
     public void addParticipant(SettlementParticipant participant) {
         this.participants.add(participant);
         participant.addSettlement(this);
+        this.pendingCount++; // 새 참여자는 항상 PENDING
+    }
+
+    // 참여자를 컬렉션에 넣지 않고 따로 기록하는 대량 정산용 (SettlementParticipantBatchRepository)
+    public void addPendingParticipants(int count) {
+        this.pendingCount += count;
+    }
+
+    // 모든 참여자가 응답했는지 (승인 또는 거절)
+    public boolean isCompleted() {
+        return pendingCount == 0;
+    }
+
+    public boolean isFullyApproved() {
+        return pendingCount == 0 && rejectedCount == 0;
     }
 
     // factory-method
-    public static Settlement createSettlement(User requester, BigDecimal totalAmount, SettlementType type) {
+    public static Settlement createSettlement(User requester, Money totalAmount, SettlementType type) {
         return Settlement.builder()
                 .requester(requester)
                 .totalAmount(totalAmount)
                 .type(type)
                 .build();
     }
-}
 
+    public Money getTotalMoney() {
+        return totalAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount == null ? null : totalAmount.toBigDecimal();
+    }
+}
@@ -2,6 +2,8 @@ package com.mwkim.projecthub.minipay.entity;
 
 import com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus;
 import com.mwkim.projecthub.minipay.enums.SettlementType;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -11,11 +13,17 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_settlement_participant_settlement_user", columnList = "settlement_id, user_id"),
+        @Index(name = "idx_settlement_participant_user_status", columnList = "user_id, status")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class SettlementParticipant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "settlement_participant_id")
+    @TableGenerator(name = "settlement_participant_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "settlement_participant", allocationSize = IdAllocation.SETTLEMENT_PARTICIPANT_BLOCK)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,13 +34,15 @@ public class SettlementParticipant {
     @JoinColumn(name = "user_id")
     private User user;
 
-    private BigDecimal amount;
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     private SettlementParticipantStatus status;
 
     @Builder
-    public SettlementParticipant(User user, BigDecimal amount) {
+    public SettlementParticipant(User user, Money amount) {
         this.user = user;
         this.amount = amount;
         this.status = SettlementParticipantStatus.PENDING;
@@ -50,10 +60,18 @@ public class SettlementParticipant {
         this.status = SettlementParticipantStatus.REJECTED;
     }
 
-    public static SettlementParticipant createSettlementParticipant(User user, BigDecimal amount) {
+    public static SettlementParticipant createSettlementParticipant(User user, Money amount) {
         return SettlementParticipant.builder()
                 .user(user)
                 .amount(amount)
                 .build();
     }
-}
\ No newline at end of file
+
+    public Money getAmountMoney() {
+        return amount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+}
@@ -0,0 +1,133 @@
+package com.mwkim.projecthub.minipay.entity;
+
+import com.mwkim.projecthub.minipay.enums.RecurrenceType;
+import com.mwkim.projecthub.minipay.enums.StandingOrderStatus;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 예약 / 자동 이체 주문.
+ *
+ * 실행 시각(nextRunAt)은 분 단위로 맞춘다. 같은 분에 도래한 주문은 한 버킷으로 묶여 일괄 이체 경로로 실행된다.
+ * 실패하면 attempts 를 올리고 지수 백오프만큼 뒤로 미루며, 최대 횟수를 넘기면 FAILED 로 멈춘다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "standing_order",
+        indexes = @Index(name = "idx_standing_order_status_next_run", columnList = "status, next_run_at, id"))
+public class StandingOrder {
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "standing_order_id")
+    @TableGenerator(name = "standing_order_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "standing_order", allocationSize = IdAllocation.STANDING_ORDER_BLOCK)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // 등록한 회원 (보내는 계좌 주인)
+
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false)
+    private Long toAccountId;
+
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    private RecurrenceType recurrence;
+
+    @Enumerated(EnumType.STRING)
+    private StandingOrderStatus status;
+
+    private LocalDateTime firstRunAt;
+
+    private LocalDateTime nextRunAt;
+
+    private int occurrenceNo; // nextRunAt 이 첫 실행으로부터 몇 번째 회차인지
+
+    private int runCount; // 성공한 실행 수
+
+    private int attempts; // 이번 실행의 연속 실패 수
+
+    private String lastError;
+
+    public static StandingOrder createStandingOrder(Long userId, Long fromAccountId, Long toAccountId, Money amount,
+                                                    RecurrenceType recurrence, LocalDateTime firstRunAt) {
+        StandingOrder order = new StandingOrder();
+        order.userId = userId;
+        order.fromAccountId = fromAccountId;
+        order.toAccountId = toAccountId;
+        order.amount = amount;
+        order.recurrence = recurrence;
+        order.status = StandingOrderStatus.ACTIVE;
+        order.firstRunAt = firstRunAt.truncatedTo(ChronoUnit.MINUTES);
+        order.nextRunAt = order.firstRunAt;
+        return order;
+    }
+
+    // 실행 성공 : 다음 회차로 넘어가거나, 한 번짜리면 끝낸다.
+    public void succeeded(LocalDateTime now) {
+        runCount++;
+        attempts = 0;
+        lastError = null;
+        if (recurrence == RecurrenceType.ONCE) {
+            status = StandingOrderStatus.COMPLETED;
+            return;
+        }
+        advance(now);
+    }
+
+    /**
+     * 실행 실패 : 백오프만큼 뒤로 미룬다.
+     * 최대 횟수를 넘기면 한 번짜리는 FAILED 로 멈추고, 반복 주문은 이번 회차만 건너뛰고 다음 회차를 기다린다.
+     */
+    public void failed(String message, LocalDateTime now, Duration backoff, int maxAttempts) {
+        attempts++;
+        lastError = message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+        if (attempts < maxAttempts) {
+            // 분 단위 버킷에 맞춰 올림
+            nextRunAt = now.plus(backoff).truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+            return;
+        }
+        attempts = 0;
+        if (recurrence == RecurrenceType.ONCE) {
+            status = StandingOrderStatus.FAILED;
+            return;
+        }
+        advance(now);
+    }
+
+    // now 이후의 첫 회차로. 서버가 멈춰 있던 동안 지난 회차는 몰아서 실행하지 않는다.
+    private void advance(LocalDateTime now) {
+        do {
+            occurrenceNo++;
+            nextRunAt = recurrence.occurrence(firstRunAt, occurrenceNo);
+        } while (!nextRunAt.isAfter(now));
+    }
+
+    public void cancel() {
+        status = StandingOrderStatus.CANCELLED;
+    }
+
+    public Money getAmountMoney() {
+        return amount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+}
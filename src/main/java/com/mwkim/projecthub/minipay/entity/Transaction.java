@@ -4,6 +4,9 @@ package com.mwkim.projecthub.minipay.entity;
 import com.mwkim.projecthub.minipay.enums.SettlementType;
 import com.mwkim.projecthub.minipay.enums.TransactionStatus;
 import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -13,11 +16,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_date_id", columnList = "account_id, transaction_date, id"),
+        @Index(name = "idx_transaction_account_counterparty", columnList = "account_id, counterparty_account_id, transaction_date, id"),
+        @Index(name = "idx_transaction_transfer_id", columnList = "transfer_id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id")
+    @TableGenerator(name = "transaction_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.PK_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "transaction", allocationSize = IdAllocation.TRANSACTION_BLOCK)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,9 +37,23 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionType type; // 거래 분류 (입금, 출금, 송금)
 
-    private BigDecimal amount;
+    @Getter(AccessLevel.NONE)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
-    private String description;
+    private String description; // 송금 행은 null. 상대 계좌 / 방향은 아래 컬럼에 있다
+
+    // 송금 행만 채운다. 보낸 쪽은 받는 계좌, 받은 쪽은 보낸 계좌
+    @Column(name = "counterparty_account_id")
+    private Long counterpartyAccountId;
+
+    // 한 송금의 보낸 쪽 / 받은 쪽 행이 같은 값을 갖는다 (TransferIdAllocator)
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private TransferDirection direction;
 
     private LocalDateTime transactionDate;
 
@@ -37,12 +61,12 @@ public class Transaction {
     private TransactionStatus status; // 거래 생명주기 관리
 
     @Builder
-    public Transaction(Account account, TransactionType type, BigDecimal amount, String description) {
+    public Transaction(Account account, TransactionType type, Money amount, String description) {
         this.account = account;
         this.type = type;
         this.amount = amount;
         this.description = description;
-        this.transactionDate = LocalDateTime.now().plusDays(1);
+        this.transactionDate = LocalDateTime.now();
         this.status = TransactionStatus.PENDING;
     }
 
@@ -50,6 +74,11 @@ public class Transaction {
         this.account = account;
     }
 
+    // 기록 시점과 거래 시점이 다를 때 (원장 write-behind projection)
+    public void updateTransactionDate(LocalDateTime transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+
     public void complete() {
         this.status = TransactionStatus.COMPLETED;
     }
@@ -58,7 +87,7 @@ public class Transaction {
         this.status = TransactionStatus.CANCELLED;
     }
 
-    public static Transaction createTransaction(Account account, TransactionType type, BigDecimal amount, String description) {
+    public static Transaction createTransaction(Account account, TransactionType type, Money amount, String description) {
         return Transaction.builder()
                 .type(type)
                 .amount(amount)
@@ -67,4 +96,26 @@ public class Transaction {
                 .build();
     }
 
+    /**
+     * 송금 한 쪽의 거래 내역. 설명 문자열 대신 상대 계좌 / transfer_id / 방향을 컬럼으로 남긴다.
+     *
+     * @param counterpartyAccountId 보낸 쪽이면 받는 계좌, 받은 쪽이면 보낸 계좌
+     */
+    public static Transaction createTransfer(Account account, TransactionType type, Money amount,
+                                             TransferDirection direction, Long counterpartyAccountId, long transferId) {
+        Transaction transaction = createTransaction(account, type, amount, null);
+        transaction.direction = direction;
+        transaction.counterpartyAccountId = counterpartyAccountId;
+        transaction.transferId = transferId;
+        return transaction;
+    }
+
+    public Money getAmountMoney() {
+        return amount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+
 }
\ No newline at end of file
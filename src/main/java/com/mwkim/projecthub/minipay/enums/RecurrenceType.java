@@ -0,0 +1,20 @@
+package com.mwkim.projecthub.minipay.enums;
+
+import java.time.LocalDateTime;
+
+public enum RecurrenceType {
+    ONCE,    // 예약 이체 (한 번)
+    DAILY,   // 매일
+    WEEKLY,  // 매주
+    MONTHLY; // 매월 (첫 실행일 기준, 없는 날짜는 그 달 말일)
+
+    // 첫 실행 시각 기준 n 번째 실행 시각. 직전 실행 시각에서 더하지 않으므로 31일 -> 2월 말 -> 28일 처럼 밀리지 않는다.
+    public LocalDateTime occurrence(LocalDateTime firstRunAt, int n) {
+        return switch (this) {
+            case ONCE -> firstRunAt;
+            case DAILY -> firstRunAt.plusDays(n);
+            case WEEKLY -> firstRunAt.plusWeeks(n);
+            case MONTHLY -> firstRunAt.plusMonths(n);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.mwkim.projecthub.minipay.enums;
+
+public enum SettlementExecutionStatus {
+    NONE,       // 아직 승인 대기 중 (송금 전)
+    QUEUED,     // 전원 승인 -> 송금 실행 대기
+    COMPLETED,  // 참여자 -> 요청자 송금 완료
+    FAILED      // 송금 실패 (한도 초과, 계좌 없음 등). 전체 롤백됨
+}
@@ -0,0 +1,8 @@
+package com.mwkim.projecthub.minipay.enums;
+
+public enum StandingOrderStatus {
+    ACTIVE,    // 다음 실행 대기
+    COMPLETED, // 예약 이체 실행 완료
+    CANCELLED, // 사용자가 해지
+    FAILED     // 재시도 횟수를 넘겨 중단
+}
@@ -0,0 +1,6 @@
+package com.mwkim.projecthub.minipay.enums;
+
+public enum TransferDirection {
+    OUTGOING,   // 보낸 쪽 행 (상대 계좌 = 받는 계좌)
+    INCOMING    // 받은 쪽 행 (상대 계좌 = 보낸 계좌)
+}
@@ -0,0 +1,7 @@
+package com.mwkim.projecthub.minipay.enums;
+
+public enum TransferResultStatus {
+    SUCCESS,    // 이체 완료
+    FAILED,     // 해당 항목만 실패 (잔액/한도/계좌 없음 등)
+    ROLLED_BACK // atomic 모드에서 다른 항목 실패로 함께 취소됨
+}
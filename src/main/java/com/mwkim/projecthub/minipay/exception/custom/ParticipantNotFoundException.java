@@ -1,9 +1,21 @@
 package com.mwkim.projecthub.minipay.exception.custom;
 
 
+import java.util.List;
 
 public class ParticipantNotFoundException extends RuntimeException{
+    private final List<Long> missingIds; // 정산 생성 시 존재하지 않는 참여자 id 전체
+
     public ParticipantNotFoundException(String message) {
+        this(message, List.of());
+    }
+
+    public ParticipantNotFoundException(String message, List<Long> missingIds) {
         super(message);
+        this.missingIds = missingIds;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
     }
 }
@@ -0,0 +1,7 @@
+package com.mwkim.projecthub.minipay.exception.custom;
+
+public class PendingTransferNotFoundException extends RuntimeException{
+    public PendingTransferNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mwkim.projecthub.minipay.exception.custom;
+
+public class SettlementAlreadyExecutedException extends RuntimeException{
+    public SettlementAlreadyExecutedException(String message) {
+        super(message);
+    }
+}
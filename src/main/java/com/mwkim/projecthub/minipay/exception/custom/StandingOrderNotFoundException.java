@@ -0,0 +1,7 @@
+package com.mwkim.projecthub.minipay.exception.custom;
+
+public class StandingOrderNotFoundException extends RuntimeException{
+    public StandingOrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -2,9 +2,15 @@ package com.mwkim.projecthub.minipay.exception.handler;
 
 import com.mwkim.projecthub.minipay.dto.ErrorResponse;
 import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
 import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
 import com.mwkim.projecthub.minipay.exception.custom.DailyLimitNotFoundException;
 import com.mwkim.projecthub.minipay.exception.custom.InvalidAccountTypeException;
+import com.mwkim.projecthub.minipay.exception.custom.ParticipantNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.PendingTransferNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.SettlementAlreadyExecutedException;
+import com.mwkim.projecthub.minipay.exception.custom.SettlementNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.StandingOrderNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +44,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CollisionException.class)
+    public ResponseEntity<ErrorResponse> handleCollisionException(CollisionException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ParticipantNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleParticipantNotFoundException(ParticipantNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(SettlementNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleSettlementNotFoundException(SettlementNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(SettlementAlreadyExecutedException.class)
+    public ResponseEntity<ErrorResponse> handleSettlementAlreadyExecutedException(SettlementAlreadyExecutedException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PendingTransferNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePendingTransferNotFoundException(PendingTransferNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(StandingOrderNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleStandingOrderNotFoundException(StandingOrderNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
         ErrorResponse error = new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "An unexpected error occurred");
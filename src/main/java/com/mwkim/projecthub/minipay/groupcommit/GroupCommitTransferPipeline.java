@@ -0,0 +1,228 @@
+package com.mwkim.projecthub.minipay.groupcommit;
+
+import com.mwkim.projecthub.minipay.concurrency.ConditionalUpdateTransferEngine;
+import com.mwkim.projecthub.minipay.config.GroupCommitProperties;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 그룹 커밋 이체 파이프라인.
+ *
+ * 단건 이체는 건마다 트랜잭션을 커밋하므로 처리량이 커밋(fsync) 지연에 묶인다.
+ * 이 파이프라인은 들어온 이체를 큐에 모았다가 최대 maxBatchSize 건, 또는 첫 요청 후 maxWaitMicros 까지 묶어서
+ * {@link AccountService#transferBatch(List)} 트랜잭션 하나로 커밋한다. 호출자는 건별 결과를 future 로 받는다.
+ *
+ * - 잔액 부족, 한도 초과 같은 항목 실패는 transferBatch 가 그 항목만 FAILED 로 남긴다
+ * - 커밋 자체가 실패하면(버전 충돌, 교착 상태 등) 묶음을 반으로 나눠 다시 커밋한다. 문제가 된 이체만 한 건으로 좁혀지고 나머지는 반영된다
+ * - 한 건으로 좁혀진 이체는 일시적 오류일 때만 maxAttempts 까지 다시 시도하고, 그래도 실패하면 FAILED 로 끝낸다
+ *
+ * 커밋 스레드는 하나다. 묶음끼리는 순서대로 커밋되므로 같은 노드 안에서는 묶음 사이에 계좌 충돌이 없다.
+ *
+ * 진입점은 {@link AccountService#transferAsync} 다. AccountService 와 서로 참조하므로 AccountService 는 @Lazy 로 받는다.
+ * 아직 이 진입점을 부르는 HTTP 엔드포인트는 없다. 서비스 API 로만 열려 있다.
+ *
+ * @note 묶음은 JPA 경로의 transferBatch 로 커밋하므로 transfer.strategy 가 ledger, conditional, pending 이면 시작할 때 거부한다.
+ *       조건부 UPDATE 나 보류 송금 규칙이 적용되지 않고, 원장 이체는 커밋 실패로 다시 나눠 실행하면 이중 이체가 된다.
+ *       hot account 는 transferBatch 가 슬롯에 입금하므로 함께 쓸 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.group-commit.enabled", havingValue = "true")
+public class GroupCommitTransferPipeline {
+
+    private final AccountService accountService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int maxAttempts;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    @Autowired(required = false)
+    private ConditionalUpdateTransferEngine conditionalUpdateTransferEngine;
+
+    @Autowired(required = false)
+    private PendingTransferEngine pendingTransferEngine;
+
+    public GroupCommitTransferPipeline(@Lazy AccountService accountService, GroupCommitProperties properties) {
+        this.accountService = accountService;
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, properties.getMaxWaitMicros()));
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.committer = new Thread(this::runLoop, "transfer-group-commit");
+        this.committer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        checkTransferStrategy();
+        committer.start();
+    }
+
+    void checkTransferStrategy() {
+        String strategy = ledgerEngine != null ? "ledger"
+                : conditionalUpdateTransferEngine != null ? "conditional"
+                : pendingTransferEngine != null ? "pending"
+                : null;
+        if (strategy != null) {
+            throw new IllegalStateException("transfer.group-commit.enabled=true cannot be combined with transfer.strategy=" + strategy);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        committer.interrupt();
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingTransfer> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.future.completeExceptionally(new RejectedExecutionException("group commit pipeline is stopped")));
+    }
+
+    public CompletableFuture<TransferResult> submit(Long fromAccountId, Long toAccountId, Money amount) {
+        return submit(new TransferCommand(fromAccountId, toAccountId, amount.toBigDecimal()));
+    }
+
+    /**
+     * 이체를 다음 묶음에 넣는다. future 는 묶음이 커밋된 뒤(또는 해당 건이 실패로 확정된 뒤) 완료된다.
+     * 큐가 가득 차면 자리가 날 때까지 대기한다.
+     */
+    public CompletableFuture<TransferResult> submit(TransferCommand command) {
+        PendingTransfer pending = new PendingTransfer(command);
+        if (!running) {
+            pending.future.completeExceptionally(new RejectedExecutionException("group commit pipeline is stopped"));
+            return pending.future;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        }
+        return pending.future;
+    }
+
+    private void runLoop() {
+        List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(batch);
+                commit(batch, 1);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    failAll(batch, new RejectedExecutionException("group commit pipeline is stopped"));
+                    break;
+                }
+            } catch (Throwable t) {
+                log.error("group commit failed", t);
+                failAll(batch, t);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 첫 요청을 기다린 뒤, 묶음이 차거나 대기 시간이 끝날 때까지 더 모은다.
+    private void collect(List<PendingTransfer> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue; // 이미 쌓인 요청은 기다리지 않고 가져온다
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransfer> batch, int attempt) {
+        List<TransferCommand> commands = new ArrayList<>(batch.size());
+        for (PendingTransfer pending : batch) {
+            commands.add(pending.command);
+        }
+
+        List<TransferResult> results;
+        try {
+            results = accountService.transferBatch(commands); // 묶음 전체가 트랜잭션 하나
+        } catch (RuntimeException e) {
+            isolate(batch, attempt, e);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            TransferResult result = results.get(i);
+            // 묶음 안에서의 위치는 호출자에게 의미가 없으므로 단건 기준(0)으로 돌려준다.
+            batch.get(i).future.complete(new TransferResult(0, result.getCommand(), result.getStatus(), result.getMessage()));
+        }
+    }
+
+    // 커밋이 실패한 묶음을 반으로 나눠 다시 커밋한다. 한 건만 남으면 일시적 오류일 때만 재시도한다.
+    private void isolate(List<PendingTransfer> batch, int attempt, RuntimeException cause) {
+        if (batch.size() > 1) {
+            log.debug("group commit of {} transfers failed, splitting: {}", batch.size(), cause.getMessage());
+            int mid = batch.size() / 2;
+            commit(batch.subList(0, mid), attempt);
+            commit(batch.subList(mid, batch.size()), attempt);
+            return;
+        }
+
+        PendingTransfer pending = batch.get(0);
+        if (cause instanceof TransientDataAccessException && attempt < maxAttempts) {
+            commit(batch, attempt + 1);
+            return;
+        }
+        log.warn("transfer {} -> {} failed in group commit", pending.command.getFromAccountId(),
+                pending.command.getToAccountId(), cause);
+        pending.future.complete(TransferResult.failed(0, pending.command, cause.getMessage()));
+    }
+
+    private void failAll(List<PendingTransfer> batch, Throwable cause) {
+        for (PendingTransfer pending : batch) {
+            pending.future.completeExceptionally(cause); // 이미 완료된 future 는 영향 없음
+        }
+    }
+
+    private static final class PendingTransfer {
+        private final TransferCommand command;
+        private final CompletableFuture<TransferResult> future = new CompletableFuture<>();
+
+        private PendingTransfer(TransferCommand command) {
+            this.command = command;
+        }
+    }
+}
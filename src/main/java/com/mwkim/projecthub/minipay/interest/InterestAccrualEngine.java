@@ -0,0 +1,255 @@
+package com.mwkim.projecthub.minipay.interest;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.config.InterestAccrualProperties;
+import com.mwkim.projecthub.minipay.entity.InterestAccrualCheckpoint;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.SavingsType;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.InterestAccrualCheckpointRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * SAVINGS 계좌 하루치 이자 적립 배치.
+ *
+ * 1. SAVINGS 계좌의 id 범위를 partitionSize 크기의 구간으로 나누고, 구간들을 ForkJoinPool(parallelism) 에서 동시에 처리한다.
+ * 2. 구간 하나는 트랜잭션 하나다. 구간의 계좌를 (id, 잔액, carry, 종류) 원시 배열로 읽고, long 연산으로 이자를 계산한 뒤
+ *    잔액 UPDATE 와 이자 거래 내역을 JDBC batch 로 쓰고, 같은 트랜잭션에서 체크포인트를 남긴다.
+ * 3. 중단 후 다시 실행하면 체크포인트가 있는 구간은 건너뛴다. 계좌 UPDATE 도 last_interest_date 로 한 번 더 막으므로
+ *    여러 노드가 동시에 실행해도 같은 날 이자가 두 번 붙지 않는다.
+ *
+ * 잔액은 상대값(balance + ?)으로 더하고 version 을 올리므로, 같은 시각의 JPA 이체는 낙관적 락 충돌로 감지되어 재시도된다.
+ * 원장 모드(transfer.strategy: ledger)에서는 원장이 잔액의 기준이라 DB 를 직접 바꿀 수 없어 실행하지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "savings.interest.enabled", havingValue = "true")
+public class InterestAccrualEngine {
+
+    private static final String BOUNDS_SQL = "SELECT MIN(id), MAX(id) FROM account WHERE type = 'SAVINGS'";
+
+    private static final String SELECT_SQL = "SELECT id, balance, interest_carry, savings_type FROM account " +
+            "WHERE type = 'SAVINGS' AND id >= ? AND id < ? AND (last_interest_date IS NULL OR last_interest_date < ?)";
+
+    private static final String ACCRUE_SQL = "UPDATE account SET balance = balance + ?, interest_carry = ?, " +
+            "last_interest_date = ?, version = version + 1 " +
+            "WHERE id = ? AND (last_interest_date IS NULL OR last_interest_date < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final InterestAccrualCheckpointRepository checkpointRepository;
+    private final AccountSummaryCache accountSummaryCache;
+    private final InterestAccrualProperties properties;
+
+    private final ForkJoinPool pool;
+
+    // 몇 분씩 걸리는 배치라 @Scheduled 스레드(다른 주기 작업과 공유)에서 기다리지 않고 여기서 실행한다
+    private final ExecutorService runner;
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    public InterestAccrualEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 TransactionBatchRepository transactionBatchRepository,
+                                 InterestAccrualCheckpointRepository checkpointRepository,
+                                 AccountSummaryCache accountSummaryCache, InterestAccrualProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountSummaryCache = accountSummaryCache;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "interest-accrual");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runner.shutdown();
+        pool.shutdown();
+    }
+
+    // 자정을 넘긴 뒤 전날치 이자를 적립한다. 실행을 넘기고 바로 돌아온다.
+    @Scheduled(cron = "${savings.interest.cron:0 5 0 * * *}")
+    public void accrueDaily() {
+        LocalDate accrualDate = LocalDate.now().minusDays(1);
+        runner.execute(() -> {
+            try {
+                InterestAccrualResult result = accrue(accrualDate);
+                log.info("interest accrual {}: {} partitions ({} skipped, {} failed), {} accounts, {} won",
+                        result.accrualDate(), result.partitions(), result.skippedPartitions(), result.failedPartitions(),
+                        result.accounts(), result.interest());
+            } catch (RuntimeException e) {
+                log.error("interest accrual {} failed, will resume on the next run", accrualDate, e);
+            }
+        });
+    }
+
+    /**
+     * accrualDate 하루치 이자를 적립한다. 같은 날짜로 다시 호출하면 끝나지 않은 구간만 처리한다.
+     */
+    public InterestAccrualResult accrue(LocalDate accrualDate) {
+        if (ledgerEngine != null) {
+            log.warn("interest accrual skipped: balances are owned by the in-memory ledger (transfer.strategy=ledger)");
+            return InterestAccrualResult.empty(accrualDate);
+        }
+
+        long[] bounds = jdbcTemplate.queryForObject(BOUNDS_SQL, (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        });
+        if (bounds == null) {
+            return InterestAccrualResult.empty(accrualDate);
+        }
+
+        long size = properties.getPartitionSize();
+        Set<Long> completed = new HashSet<>(checkpointRepository.findCompletedPartitionStarts(accrualDate));
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        int partitions = 0;
+        for (long start = bounds[0]; start <= bounds[1]; start += size) {
+            partitions++;
+            if (completed.contains(start)) {
+                continue;
+            }
+            long from = start;
+            long to = start + size;
+            tasks.add(() -> accruePartition(accrualDate, from, to));
+        }
+
+        long accounts = 0;
+        long interest = 0;
+        int failed = 0;
+        for (Future<long[]> future : pool.invokeAll(tasks)) {
+            try {
+                long[] partition = future.get();
+                accounts += partition[0];
+                interest += partition[1];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+            } catch (ExecutionException e) {
+                log.warn("interest accrual partition failed, will resume on the next run: {}", e.getCause().getMessage());
+                failed++;
+            }
+        }
+        return new InterestAccrualResult(accrualDate, partitions, partitions - tasks.size(), failed, accounts, interest);
+    }
+
+    // [from, to) 구간 하나를 한 트랜잭션으로 적립한다. 반환값은 {계좌 수, 이자 합계}
+    long[] accruePartition(LocalDate accrualDate, long from, long to) {
+        return transactionTemplate.execute(status -> {
+            Date date = Date.valueOf(accrualDate);
+            PartitionRows rows = new PartitionRows((int) Math.min(to - from, 1024));
+            jdbcTemplate.query(SELECT_SQL, rs -> {
+                rows.add(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        SavingsType.REGULAR.name().equals(rs.getString(4)));
+            }, from, to, date);
+
+            long[] interests = new long[rows.count];
+            long[] carries = new long[rows.count];
+            for (int i = 0; i < rows.count; i++) {
+                int rateBps = rows.regular[i] ? properties.getRegularRateBps() : properties.getFlexibleRateBps();
+                InterestCalculator.Accrual accrual = InterestCalculator.accrueDaily(rows.balances[i], rateBps, rows.carries[i]);
+                interests[i] = accrual.interest();
+                carries[i] = accrual.carry();
+            }
+
+            int[][] updated = jdbcTemplate.batchUpdate(ACCRUE_SQL, indexes(rows.count), 500, (ps, i) -> {
+                ps.setLong(1, interests[i]);
+                ps.setLong(2, carries[i]);
+                ps.setDate(3, date);
+                ps.setLong(4, rows.ids[i]);
+                ps.setDate(5, date);
+            });
+
+            List<Transaction> records = new ArrayList<>();
+            List<Long> credited = new ArrayList<>();
+            long total = 0;
+            int accounts = 0;
+            for (int i = 0; i < rows.count; i++) {
+                if (updated[i / 500][i % 500] == 0) {
+                    continue; // 그 사이 다른 실행이 적립함
+                }
+                accounts++;
+                if (interests[i] > 0) {
+                    total += interests[i];
+                    credited.add(rows.ids[i]);
+                    records.add(Transaction.createTransaction(transactionBatchRepository.accountReference(rows.ids[i]),
+                            TransactionType.DEPOSIT, Money.of(interests[i]), "이자: " + accrualDate));
+                }
+            }
+            transactionBatchRepository.insertAll(records);
+            checkpointRepository.save(InterestAccrualCheckpoint.createCheckpoint(accrualDate, from, to, accounts, total));
+            accountSummaryCache.evictAllAfterCommit(credited);
+            return new long[]{accounts, total};
+        });
+    }
+
+    private static List<Integer> indexes(int count) {
+        List<Integer> indexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    // 구간의 계좌를 엔티티 없이 원시 배열로 들고 있는다.
+    private static final class PartitionRows {
+        long[] ids;
+        long[] balances;
+        long[] carries;
+        boolean[] regular;
+        int count;
+
+        PartitionRows(int capacity) {
+            ids = new long[capacity];
+            balances = new long[capacity];
+            carries = new long[capacity];
+            regular = new boolean[capacity];
+        }
+
+        void add(long id, long balance, long carry, boolean isRegular) {
+            if (count == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                balances = Arrays.copyOf(balances, capacity);
+                carries = Arrays.copyOf(carries, capacity);
+                regular = Arrays.copyOf(regular, capacity);
+            }
+            ids[count] = id;
+            balances[count] = balance;
+            carries[count] = carry;
+            regular[count] = isRegular;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mwkim.projecthub.minipay.interest;
+
+import java.time.LocalDate;
+
+/**
+ * 하루치 이자 적립 결과.
+ *
+ * @param skippedPartitions 이전 실행에서 이미 끝나 건너뛴 구간 수
+ * @param failedPartitions  실패해서 롤백된 구간 수 (다시 실행하면 이어서 처리된다)
+ */
+public record InterestAccrualResult(LocalDate accrualDate, int partitions, int skippedPartitions, int failedPartitions,
+                                    long accounts, long interest) {
+
+    public static InterestAccrualResult empty(LocalDate accrualDate) {
+        return new InterestAccrualResult(accrualDate, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.mwkim.projecthub.minipay.interest;
+
+import java.math.BigInteger;
+
+/**
+ * 하루치 이자 계산 (long 정수 연산).
+ *
+ * 하루 이자는 잔액 * 연 이율(bp) / (10000 * 365) 원이다. 원 미만은 버리지 않고 carry 로 넘겨서 다음 날 계산에 더한다.
+ * carry 는 1 / (10000 * 365) 원 단위라 항상 DAILY_DENOMINATOR 보다 작고, 며칠에 걸쳐 쌓인 이자도 잃지 않는다.
+ */
+public final class InterestCalculator {
+
+    public static final long DAILY_DENOMINATOR = 10_000L * 365;
+
+    private InterestCalculator() {
+    }
+
+    public record Accrual(long interest, long carry) {
+    }
+
+    public static Accrual accrueDaily(long balance, int rateBps, long carry) {
+        if (balance <= 0 || rateBps <= 0) {
+            return new Accrual(0, carry);
+        }
+        if (balance > (Long.MAX_VALUE - carry) / rateBps) {
+            // 잔액 * bp 가 long 을 넘는 경우 (약 920조원 / bp 이상) 만 BigInteger 로 계산한다
+            BigInteger[] qr = BigInteger.valueOf(balance).multiply(BigInteger.valueOf(rateBps)).add(BigInteger.valueOf(carry))
+                    .divideAndRemainder(BigInteger.valueOf(DAILY_DENOMINATOR));
+            return new Accrual(qr[0].longValueExact(), qr[1].longValueExact());
+        }
+        long numerator = balance * rateBps + carry;
+        return new Accrual(numerator / DAILY_DENOMINATOR, numerator % DAILY_DENOMINATOR);
+    }
+}
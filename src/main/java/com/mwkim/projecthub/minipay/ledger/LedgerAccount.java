@@ -0,0 +1,85 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 원장 파티션이 소유하는 계좌 상태.
+ *
+ * 하나의 계좌는 항상 하나의 파티션 워커 스레드에서만 읽고 쓰기 때문에 락이나 volatile 이 필요 없다.
+ * DB 의 Account 는 이 상태를 비동기로 반영한 projection 이다. 반영은 증감분으로 하므로 다른 writer 의 변경을 덮어쓰지 않는다.
+ */
+@Getter
+class LedgerAccount {
+
+    private final Long id;
+    private Money balance;
+    private Money dailyUseAmount;
+    private LocalDateTime lastWithdrawalReset;
+
+    // 마지막 스냅샷 시점의 값. 스냅샷에는 이 값과의 차이만 담는다.
+    @Getter(AccessLevel.NONE)
+    private Money projectedBalance;
+    @Getter(AccessLevel.NONE)
+    private Money projectedDailyUse;
+    @Getter(AccessLevel.NONE)
+    private LocalDateTime projectedReset;
+
+    private LedgerAccount(Long id, Money balance, Money dailyUseAmount, LocalDateTime lastWithdrawalReset) {
+        this.id = id;
+        this.balance = balance;
+        this.dailyUseAmount = dailyUseAmount == null ? Money.ZERO : dailyUseAmount;
+        this.lastWithdrawalReset = lastWithdrawalReset == null ? LocalDateTime.now() : lastWithdrawalReset;
+        this.projectedBalance = this.balance;
+        this.projectedDailyUse = this.dailyUseAmount;
+        this.projectedReset = this.lastWithdrawalReset;
+    }
+
+    static LedgerAccount from(Account account) {
+        return new LedgerAccount(account.getId(), account.getBalanceMoney(),
+                account.getDailyUseMoney(), account.getLastWithdrawalReset());
+    }
+
+    // 날짜가 바뀌었다면 일일 사용량 초기화
+    void rolloverIfNeeded(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (lastWithdrawalReset.toLocalDate().isBefore(today)) {
+            dailyUseAmount = Money.ZERO;
+            lastWithdrawalReset = now;
+        }
+    }
+
+    void credit(Money amount) {
+        balance = balance.plus(amount);
+    }
+
+    void debit(Money amount) {
+        balance = balance.minus(amount);
+    }
+
+    void addDailyUse(Money amount) {
+        dailyUseAmount = dailyUseAmount.plus(amount);
+    }
+
+    // 보상 처리로 되돌리는 사용량. 그 사이 날짜가 바뀌어 초기화됐다면 0 아래로 내려가지 않는다.
+    void reverseDailyUse(Money amount) {
+        dailyUseAmount = dailyUseAmount.isLessThan(amount) ? Money.ZERO : dailyUseAmount.minus(amount);
+    }
+
+    // 마지막 스냅샷 이후의 변경분. 그 사이 날짜가 바뀌었다면 초기화 이후 사용량 전체가 일일 사용량 변경분이다.
+    LedgerSnapshot snapshot() {
+        Money balanceDelta = balance.minus(projectedBalance);
+        Money dailyUseDelta = lastWithdrawalReset.equals(projectedReset)
+                ? dailyUseAmount.minus(projectedDailyUse)
+                : dailyUseAmount;
+        projectedBalance = balance;
+        projectedDailyUse = dailyUseAmount;
+        projectedReset = lastWithdrawalReset;
+        return new LedgerSnapshot(id, balanceDelta, dailyUseDelta, lastWithdrawalReset);
+    }
+}
@@ -0,0 +1,198 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.datasource.PrimaryReadHint;
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.config.LedgerProperties;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import com.mwkim.projecthub.minipay.service.DailyLimitService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 파티션 기반 단일 writer 인메모리 원장 엔진.
+ *
+ * 계좌 id 로 N 개의 단일 스레드 파티션 중 하나를 고르고, 각 파티션은 자기 계좌의 잔액과 일일 사용량을 메모리에 소유한다.
+ * 같은 계좌에 대한 이체는 항상 같은 스레드에서 순서대로 적용되므로 락도, 충돌 재시도도 없다.
+ * DB 는 {@link LedgerProjector} 가 비동기로 반영하는 projection 이 된다.
+ *
+ * transfer.strategy: ledger 일 때만 등록되며, AccountService.transfer 가 이 엔진으로 위임한다.
+ *
+ * @note 원장이 한 번 읽어들인 계좌는 원장이 잔액의 기준이 된다. projection 은 증감분이라 다른 writer 의 변경을 덮어쓰지는 않지만,
+ *       원장 메모리는 그 변경을 보지 못하므로 같은 계좌를 JPA 경로(deposit/withdraw)로 직접 수정하면 안 된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.strategy", havingValue = "ledger")
+public class LedgerEngine {
+
+    private final LedgerPartition[] partitions;
+    private final LedgerProjector projector;
+    private final TransactionBatchRepository transactionBatchRepository;
+
+    public LedgerEngine(LedgerProperties properties, AccountRepository accountRepository,
+                        TransactionBatchRepository transactionBatchRepository,
+                        JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        AccountSummaryCache accountSummaryCache) {
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.projector = new LedgerProjector(jdbcTemplate, transactionBatchRepository, transactionTemplate,
+                accountSummaryCache, properties.getProjectionBatchSize());
+        this.partitions = new LedgerPartition[Math.max(1, properties.getPartitions())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new LedgerPartition(i, properties.getQueueCapacity(),
+                    // 원장 메모리가 잔액의 기준이 되므로 지연된 replica 가 아니라 primary 에서 읽는다
+                    id -> PrimaryReadHint.call(() -> accountRepository.findById(id).orElse(null)));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        projector.start();
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        log.info("ledger engine started with {} partitions", partitions.length);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        projector.stop();
+    }
+
+    /**
+     * 이체를 원장에 적용한다. 출금/입금이 메모리에 반영된 뒤 반환하며, DB 반영은 비동기로 이루어진다.
+     * 보내는 계좌와 받는 계좌가 다른 파티션이면 (1) 받는 계좌 확인 (2) 출금 (3) 입금 순서로 각 파티션에 위임한다.
+     * 출금이 반영된 뒤 입금 단계가 실패하면 (파티션 종료, 잔액 overflow 등) 보내는 계좌 파티션에 보상 입금을 넣고 원래 예외를 던진다.
+     */
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        LedgerPartition source = partitionOf(fromAccountId);
+        LedgerPartition target = partitionOf(toAccountId);
+        long transferId = transactionBatchRepository.nextTransferId(); // 파티션 스레드를 막지 않도록 호출 스레드에서 받는다
+        LocalDateTime requestedAt = LocalDateTime.now(); // 보낸 쪽과 받은 쪽 거래 내역이 같은 시각을 갖는다
+
+        CompletableFuture<Void> result;
+        if (source == target) {
+            result = source.submit(() -> {
+                source.account(toAccountId); // 존재 확인
+                debit(source, fromAccountId, toAccountId, amount, transferId, requestedAt);
+                credit(source, toAccountId, fromAccountId, amount, transferId, requestedAt);
+                return null;
+            });
+        } else {
+            result = target.submit(() -> target.account(toAccountId).getId())
+                    .thenCompose(ignored -> source.submit(() -> {
+                        debit(source, fromAccountId, toAccountId, amount, transferId, requestedAt);
+                        return null;
+                    }))
+                    .thenCompose(ignored -> target.<Void>submit(() -> {
+                        credit(target, toAccountId, fromAccountId, amount, transferId, requestedAt);
+                        return null;
+                    }).exceptionallyCompose(failure -> refund(source, fromAccountId, amount, transferId, failure)));
+        }
+        await(result);
+    }
+
+    /**
+     * 원장 기준 잔액을 조회한다. DB projection 보다 항상 최신 값이다.
+     */
+    public Money getBalance(Long accountId) {
+        LedgerPartition partition = partitionOf(accountId);
+        CompletableFuture<Money> result = partition.submit(() -> partition.account(accountId).getBalance());
+        await(result);
+        return result.join();
+    }
+
+    // 보내는 계좌 처리 : 자동 충전 + 일일 한도 확인 + 출금 (모두 검증한 뒤 상태를 바꾼다)
+    private void debit(LedgerPartition partition, Long fromAccountId, Long toAccountId, Money amount, long transferId,
+                       LocalDateTime requestedAt) {
+        LedgerAccount from = partition.account(fromAccountId);
+        from.rolloverIfNeeded(requestedAt);
+
+        Money chargeAmount = Money.ZERO;
+        if (from.getBalance().isLessThan(amount)) {
+            chargeAmount = AccountService.calculateAutoChargeAmount(from.getBalance(), amount);
+        }
+
+        if (from.getDailyUseAmount().plus(chargeAmount).plus(amount).isGreaterThan(DailyLimitService.DAILY_LIMIT)) {
+            throw new DailyLimitExceedException("Daily deposit limit exceeded");
+        }
+
+        List<LedgerEntry> entries = new ArrayList<>(3);
+        if (chargeAmount.isPositive()) {
+            from.credit(chargeAmount);
+            from.addDailyUse(chargeAmount);
+            entries.add(new LedgerEntry(fromAccountId, TransactionType.DEPOSIT, chargeAmount, "Deposit", requestedAt));
+        }
+        from.debit(amount);
+        from.addDailyUse(amount);
+        entries.add(new LedgerEntry(fromAccountId, TransactionType.WITHDRAW, amount, "Withdraw", requestedAt));
+        entries.add(LedgerEntry.transfer(fromAccountId, TransactionType.TRANSFER, amount,
+                TransferDirection.OUTGOING, toAccountId, transferId, requestedAt));
+
+        projector.enqueue(from.snapshot(), entries);
+    }
+
+    // 받는 계좌 처리 : 입금
+    private void credit(LedgerPartition partition, Long toAccountId, Long fromAccountId, Money amount, long transferId,
+                        LocalDateTime requestedAt) {
+        LedgerAccount to = partition.account(toAccountId);
+        to.credit(amount);
+        projector.enqueue(to.snapshot(), List.of(LedgerEntry.transfer(toAccountId, TransactionType.DEPOSIT, amount,
+                TransferDirection.INCOMING, fromAccountId, transferId, requestedAt)));
+    }
+
+    // 입금 실패 시 보상 처리 : 출금한 금액과 일일 사용량을 되돌린 뒤 원래 예외로 실패시킨다
+    private CompletableFuture<Void> refund(LedgerPartition source, Long fromAccountId, Money amount, long transferId, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        log.warn("ledger transfer {} credit failed, refunding {} to account {}", transferId, amount, fromAccountId, cause);
+        return source.submit(() -> {
+            LedgerAccount from = source.account(fromAccountId);
+            from.credit(amount);
+            from.reverseDailyUse(amount);
+            projector.enqueue(from.snapshot(), List.of(new LedgerEntry(fromAccountId, TransactionType.DEPOSIT, amount,
+                    "송금 실패 환불: #" + transferId, LocalDateTime.now())));
+            return null;
+        }).handle((ignored, refundFailure) -> {
+            if (refundFailure != null) {
+                log.error("ledger transfer {} refund failed, {} must be restored to account {} manually",
+                        transferId, amount, fromAccountId, refundFailure);
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    private LedgerPartition partitionOf(Long accountId) {
+        return partitions[(int) Math.floorMod(accountId, (long) partitions.length)];
+    }
+
+    // 워커 스레드에서 발생한 예외를 호출 스레드에 그대로 전달
+    private static void await(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * 원장에서 확정된 거래 한 건. projection 단계에서 transaction 테이블의 한 행이 된다.
+ * 송금 행이면 direction / counterpartyAccountId / transferId 가 채워지고 description 은 null 이다.
+ * occurredAt 은 원장에 반영된 시각이다. projection 이 늦어져도 거래 시각과 일별 집계 날짜는 이 값을 따른다.
+ */
+record LedgerEntry(Long accountId, TransactionType type, Money amount, String description,
+                   TransferDirection direction, Long counterpartyAccountId, Long transferId, LocalDateTime occurredAt) {
+
+    LedgerEntry(Long accountId, TransactionType type, Money amount, String description, LocalDateTime occurredAt) {
+        this(accountId, type, amount, description, null, null, null, occurredAt);
+    }
+
+    static LedgerEntry transfer(Long accountId, TransactionType type, Money amount,
+                                TransferDirection direction, Long counterpartyAccountId, long transferId,
+                                LocalDateTime occurredAt) {
+        return new LedgerEntry(accountId, type, amount, null, direction, counterpartyAccountId, transferId, occurredAt);
+    }
+}
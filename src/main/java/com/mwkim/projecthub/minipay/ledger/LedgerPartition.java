@@ -0,0 +1,107 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 단일 스레드 원장 워커 (LMAX 방식).
+ *
+ * 파티션에 속한 계좌의 상태는 이 워커 스레드만 접근한다.
+ * 요청은 bounded queue 에 순서대로 쌓이고, 워커가 하나씩 꺼내 락 없이 적용한다.
+ * 큐가 가득 차면 제출한 스레드가 대기한다 (backpressure).
+ */
+@Slf4j
+class LedgerPartition {
+
+    private final int index;
+    private final BlockingQueue<Runnable> inbox;
+    private final Function<Long, Account> accountLoader;
+    private final Map<Long, LedgerAccount> accounts = new HashMap<>(); // 워커 스레드 전용
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    LedgerPartition(int index, int queueCapacity, Function<Long, Account> accountLoader) {
+        this.index = index;
+        this.inbox = new ArrayBlockingQueue<>(queueCapacity);
+        this.accountLoader = accountLoader;
+        this.worker = new Thread(this::runLoop, "ledger-partition-" + index);
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * 워커 스레드에서 작업을 실행하고 결과를 future 로 돌려준다.
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        };
+
+        if (!running) {
+            result.completeExceptionally(new RejectedExecutionException("ledger partition " + index + " is stopped"));
+            return result;
+        }
+
+        try {
+            inbox.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * 파티션이 소유한 계좌 상태를 조회한다. 처음 접근하는 계좌는 DB 에서 한 번만 읽어온다.
+     * 반드시 워커 스레드에서만 호출해야 한다.
+     */
+    LedgerAccount account(Long accountId) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null) {
+            Account entity = accountLoader.apply(accountId);
+            if (entity == null) {
+                throw new AccountNotFoundException("Account not found with id: " + accountId);
+            }
+            account = LedgerAccount.from(entity);
+            accounts.put(accountId, account);
+        }
+        return account;
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                inbox.take().run();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Throwable t) {
+                log.error("ledger partition {} task failed", index, t);
+            }
+        }
+    }
+}
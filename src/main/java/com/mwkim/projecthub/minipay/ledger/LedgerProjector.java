@@ -0,0 +1,158 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 원장 상태를 DB(account, transaction 테이블)에 반영하는 write-behind projector.
+ *
+ * 파티션이 적용을 끝낸 변경분을 큐에 쌓아두면, 전용 스레드가 최대 batchSize 만큼 모아서
+ * 하나의 DB 트랜잭션 안에서 JDBC batch 로 기록한다.
+ * 같은 계좌의 스냅샷이 여러 번 들어오면 증감분을 합쳐서 한 번만 UPDATE 한다.
+ */
+@Slf4j
+class LedgerProjector {
+
+    // 다른 writer(핫 계좌 통합, 이자, JPA 이체 등)의 변경을 덮어쓰지 않도록 증감분으로 반영한다.
+    // MySQL 은 SET 을 왼쪽부터 평가하므로 daily_use_amount 가 last_withdrawal_reset 보다 먼저 와야 한다.
+    private static final String UPDATE_ACCOUNT_SQL = "UPDATE account SET balance = balance + ?, " +
+            "daily_use_amount = CASE WHEN last_withdrawal_reset IS NULL OR CAST(last_withdrawal_reset AS DATE) < CAST(? AS DATE) " +
+            "THEN ? ELSE daily_use_amount + ? END, " +
+            "last_withdrawal_reset = CASE WHEN last_withdrawal_reset IS NULL OR CAST(last_withdrawal_reset AS DATE) < CAST(? AS DATE) " +
+            "THEN ? ELSE last_withdrawal_reset END, " +
+            "version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountSummaryCache accountSummaryCache;
+    private final int batchSize;
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    record Change(LedgerSnapshot snapshot, List<LedgerEntry> entries) {
+    }
+
+    LedgerProjector(JdbcTemplate jdbcTemplate, TransactionBatchRepository transactionBatchRepository,
+                    TransactionTemplate transactionTemplate, AccountSummaryCache accountSummaryCache, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.accountSummaryCache = accountSummaryCache;
+        this.batchSize = batchSize;
+        this.worker = new Thread(this::runLoop, "ledger-projector");
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * 남아있는 변경분을 모두 반영한 뒤 종료한다.
+     */
+    void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Change> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    void enqueue(LedgerSnapshot snapshot, List<LedgerEntry> entries) {
+        queue.add(new Change(snapshot, entries));
+    }
+
+    private void runLoop() {
+        List<Change> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() 에서 남은 변경분을 처리한다.
+            } catch (RuntimeException e) {
+                log.error("ledger projection failed, {} changes will be retried", batch.size(), e);
+                requeue(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void requeue(List<Change> batch) {
+        // 순서를 유지하기 위해 실패한 배치를 큐 앞에 다시 넣을 수 없으므로 잠시 후 동기적으로 재시도한다.
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(200);
+                flush(batch);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("ledger projection retry failed", e);
+            }
+        }
+    }
+
+    void flush(List<Change> batch) {
+        Map<Long, LedgerSnapshot> deltas = new LinkedHashMap<>();
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (Change change : batch) {
+            deltas.merge(change.snapshot().accountId(), change.snapshot(), LedgerSnapshot::merge);
+            entries.addAll(change.entries());
+        }
+
+        List<Object[]> accountParams = new ArrayList<>(deltas.size());
+        for (LedgerSnapshot s : deltas.values()) {
+            Timestamp reset = Timestamp.valueOf(s.lastWithdrawalReset());
+            BigDecimal dailyUse = s.dailyUseDelta().toBigDecimal();
+            accountParams.add(new Object[]{s.balanceDelta().toBigDecimal(), reset, dailyUse, dailyUse, reset, reset, s.accountId()});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_ACCOUNT_SQL, accountParams);
+
+            // 거래 내역은 pooled id 를 받아야 하므로 hibernate batch insert 로 기록
+            List<Transaction> transactions = new ArrayList<>(entries.size());
+            for (LedgerEntry e : entries) {
+                Transaction transaction = e.direction() == null
+                        ? Transaction.createTransaction(transactionBatchRepository.accountReference(e.accountId()),
+                                e.type(), e.amount(), e.description())
+                        : Transaction.createTransfer(transactionBatchRepository.accountReference(e.accountId()),
+                                e.type(), e.amount(), e.direction(), e.counterpartyAccountId(), e.transferId());
+                transaction.updateTransactionDate(e.occurredAt()); // flush 시각이 아니라 원장에 반영된 시각
+                transaction.complete();
+                transactions.add(transaction);
+            }
+            transactionBatchRepository.insertAll(transactions);
+        });
+        // 커밋이 끝난 뒤라 바로 지운다. 조회 캐시는 projection 보다 앞서지 않는다.
+        accountSummaryCache.evictAllAfterCommit(deltas.keySet());
+        log.debug("ledger projection flushed {} accounts, {} transactions", accountParams.size(), entries.size());
+    }
+}
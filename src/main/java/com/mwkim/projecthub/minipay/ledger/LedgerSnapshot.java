@@ -0,0 +1,23 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * DB 에 반영할 계좌 변경분의 불변 스냅샷.
+ * 잔액과 일일 사용량은 절대값이 아닌 직전 스냅샷 대비 증감분이다. lastWithdrawalReset 이 바뀌었다면
+ * dailyUseDelta 는 그 날의 사용량 전체이고, DB 의 초기화 시점이 그보다 이전 날짜일 때 그 값으로 덮어쓴다.
+ */
+record LedgerSnapshot(Long accountId, Money balanceDelta, Money dailyUseDelta, LocalDateTime lastWithdrawalReset) {
+
+    /**
+     * 같은 계좌의 다음 스냅샷을 합친다. 계좌 별 스냅샷은 소유 파티션에서 순서대로 만들어진다.
+     */
+    LedgerSnapshot merge(LedgerSnapshot next) {
+        Money dailyUse = next.lastWithdrawalReset.equals(lastWithdrawalReset)
+                ? dailyUseDelta.plus(next.dailyUseDelta)
+                : next.dailyUseDelta;
+        return new LedgerSnapshot(accountId, balanceDelta.plus(next.balanceDelta), dailyUse, next.lastWithdrawalReset);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mwkim.projecthub.minipay.limit;
+
+import java.time.LocalDate;
+
+/**
+ * DB 에 기록된 일일 사용량 (카운터 초기값).
+ *
+ * @param amount 사용량 (원)
+ * @param date   사용량이 기록된 날짜
+ */
+public record DailyUsage(long amount, LocalDate date) {
+
+    // 카운터가 이미 있어서 초기값이 쓰이지 않을 때
+    public static final DailyUsage NONE = new DailyUsage(0, LocalDate.EPOCH);
+}
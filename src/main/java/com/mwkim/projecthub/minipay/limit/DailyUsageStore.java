@@ -0,0 +1,145 @@
+package com.mwkim.projecthub.minipay.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌별 일일 사용량 카운터 (lock-free).
+ *
+ * 계좌 하나당 AtomicLong 하나에 [epochDay(20bit) | 사용량(44bit, 원 단위)] 를 함께 담는다.
+ * 한도 확인과 누적은 compare-and-set 한 번으로 끝나고, 날짜가 바뀌면 다음 CAS 에서 사용량이 0 으로 초기화된다 (lazy rollover).
+ * 처음 접근한 이후에는 객체를 만들지 않으므로, 거래가 많은 계좌에서도 락 경합이나 할당이 없다.
+ * 이틀 동안 접근이 없는 계좌의 카운터는 지운다. 그 카운터는 이미 지난 날짜라 사용량이 0 이고, 다음 거래 때 DB 값으로 다시 만든다.
+ *
+ * @note 카운터는 노드 메모리에 있다. DB 의 Account.dailyUseAmount 는 이 값을 트랜잭션과 함께 기록한 write-behind 사본이다.
+ */
+@Component
+public class DailyUsageStore {
+
+    private static final int AMOUNT_BITS = 44;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final Duration RETENTION = Duration.ofDays(2); // 날짜 경계를 넘겨서 지운다
+
+    private final ConcurrentMap<Long, AtomicLong> counters;
+    private final Clock clock;
+
+    // 오늘 날짜 캐시 : 자정이 지날 때만 다시 계산한다
+    private volatile long today;
+    private volatile long nextMidnightMillis;
+
+    public DailyUsageStore() {
+        this(Clock.systemDefaultZone());
+    }
+
+    DailyUsageStore(Clock clock) {
+        this.clock = clock;
+        Cache<Long, AtomicLong> cache = Caffeine.newBuilder()
+                .expireAfterAccess(RETENTION)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+        this.counters = cache.asMap();
+        refreshToday(clock.millis());
+    }
+
+    /**
+     * 사용량을 더해도 한도를 넘지 않으면 더하고 true 를 반환한다. 넘으면 아무것도 바꾸지 않고 false.
+     *
+     * @param seedAmount 카운터가 아직 없을 때 초기값으로 쓸 사용량 (DB 에 기록된 값)
+     * @param seedDate   seedAmount 가 기록된 날짜
+     */
+    public boolean tryAdd(Long accountId, long amount, long limit, long seedAmount, LocalDate seedDate) {
+        AtomicLong counter = counters.get(accountId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(accountId, id -> new AtomicLong(pack(seedDate.toEpochDay(), seedAmount)));
+        }
+
+        long day = currentEpochDay();
+        while (true) {
+            long current = counter.get();
+            long used = unpackDay(current) == day ? current & AMOUNT_MASK : 0;
+            long next = used + amount;
+            if (next > limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, pack(day, next))) {
+                return true;
+            }
+        }
+    }
+
+    // 이 계좌의 카운터가 이미 있는지 (없으면 tryAdd 가 seed 값을 쓴다)
+    public boolean isTracked(Long accountId) {
+        return counters.containsKey(accountId);
+    }
+
+    /**
+     * tryAdd 로 더한 사용량을 되돌린다. (트랜잭션 롤백 시)
+     * 그 사이 날짜가 바뀌었다면 이미 초기화된 것이므로 아무것도 하지 않는다.
+     */
+    public void release(Long accountId, long amount, long epochDay) {
+        AtomicLong counter = counters.get(accountId);
+        if (counter == null) {
+            return;
+        }
+        while (true) {
+            long current = counter.get();
+            if (unpackDay(current) != epochDay) {
+                return;
+            }
+            long used = Math.max(0, (current & AMOUNT_MASK) - amount);
+            if (counter.compareAndSet(current, pack(epochDay, used))) {
+                return;
+            }
+        }
+    }
+
+    // 오늘 기준 사용량 (날짜가 지났다면 0)
+    public long usage(Long accountId) {
+        AtomicLong counter = counters.get(accountId);
+        if (counter == null) {
+            return 0;
+        }
+        long current = counter.get();
+        return unpackDay(current) == currentEpochDay() ? current & AMOUNT_MASK : 0;
+    }
+
+    public long currentEpochDay() {
+        long now = clock.millis();
+        if (now >= nextMidnightMillis) {
+            refreshToday(now);
+        }
+        return today;
+    }
+
+    public LocalDateTime startOfToday() {
+        return LocalDate.ofEpochDay(currentEpochDay()).atStartOfDay();
+    }
+
+    private synchronized void refreshToday(long now) {
+        if (now < nextMidnightMillis) {
+            return;
+        }
+        ZonedDateTime current = clock.instant().atZone(clock.getZone());
+        LocalDate date = current.toLocalDate();
+        today = date.toEpochDay(); // today 를 먼저 바꿔야 다른 스레드가 새 경계와 이전 날짜를 함께 보지 않는다
+        nextMidnightMillis = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static long pack(long epochDay, long amount) {
+        return (epochDay << AMOUNT_BITS) | (amount & AMOUNT_MASK);
+    }
+
+    private static long unpackDay(long packed) {
+        return packed >>> AMOUNT_BITS;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mwkim.projecthub.minipay.money;
+
+import java.math.BigDecimal;
+
+/**
+ * 원(KRW) 단위 금액을 long 으로 표현하는 불변 값 타입.
+ *
+ * BigDecimal 은 연산마다 객체(및 내부 BigInteger)를 만들지만, Money 는 long 연산 한 번이면 된다.
+ * 모든 연산은 Math.*Exact 로 overflow 를 검사하고, 넘치면 ArithmeticException 을 던진다.
+ * DB 에는 {@link MoneyConverter} 로 DECIMAL 그대로 저장된다.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long won;
+
+    private Money(long won) {
+        this.won = won;
+    }
+
+    public static Money of(long won) {
+        return won == 0 ? ZERO : new Money(won);
+    }
+
+    /**
+     * 요청 금액이 들어오는 경계. 잘못된 금액은 400 으로 응답되도록 IllegalArgumentException 으로 바꾼다.
+     *
+     * @throws IllegalArgumentException 원 단위 아래 소수점이 있거나 long 범위를 넘는 경우
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return of(amount.longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must be a whole number of won: " + amount.toPlainString(), e);
+        }
+    }
+
+    public long longValue() {
+        return won;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(won);
+    }
+
+    public Money plus(Money other) {
+        return of(Math.addExact(won, other.won));
+    }
+
+    public Money minus(Money other) {
+        return of(Math.subtractExact(won, other.won));
+    }
+
+    public Money times(long multiplier) {
+        return of(Math.multiplyExact(won, multiplier));
+    }
+
+    // 나눗셈은 원 단위 내림 (1000 / 3 = 333)
+    public Money dividedBy(long divisor) {
+        return of(Math.floorDiv(won, divisor));
+    }
+
+    // unit 의 배수로 올림 (12,345 -> 20,000 : unit 10,000)
+    public Money roundUpTo(Money unit) {
+        return of(Math.multiplyExact(-Math.floorDiv(-won, unit.won), unit.won));
+    }
+
+    public boolean isLessThan(Money other) {
+        return won < other.won;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return won > other.won;
+    }
+
+    public boolean isPositive() {
+        return won > 0;
+    }
+
+    public boolean isNegative() {
+        return won < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(won, other.won);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && won == other.won);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(won);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(won);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mwkim.projecthub.minipay.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Money <-> DECIMAL 컬럼 변환. 스키마는 BigDecimal 매핑 때와 같다.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    // 저장된 값이 원 단위가 아닌 것은 요청이 아니라 데이터 문제다. 400 으로 매핑되는 IllegalArgumentException 을 그대로 올리지 않는다.
+    @Override
+    public Money convertToEntityAttribute(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Money.of(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Stored amount is not a whole number of won: " + value.toPlainString(), e);
+        }
+    }
+}
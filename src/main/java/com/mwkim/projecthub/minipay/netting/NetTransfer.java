@@ -0,0 +1,5 @@
+package com.mwkim.projecthub.minipay.netting;
+
+// 상계 후 실제로 옮길 금액 (원 단위)
+public record NetTransfer(long fromUserId, long toUserId, long amount) {
+}
@@ -0,0 +1,81 @@
+package com.mwkim.projecthub.minipay.netting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 다자간 상계(multilateral netting) 엔진.
+ *
+ * 채무(debtor -> creditor, 금액)를 모두 더해서 사용자별 순포지션을 만들고,
+ * 받을 돈이 가장 많은 사용자와 줄 돈이 가장 많은 사용자를 계속 짝지어 송금 목록을 만든다 (greedy min-cash-flow).
+ * 결과 송금 수는 순포지션이 0 이 아닌 사용자 수 - 1 이하이고, 사용자별 순 이동 금액은 원래 채무와 정확히 같다.
+ *
+ * 합산은 primitive 해시맵, 짝짓기는 primitive 힙으로 해서 채무 n 건, 사용자 u 명일 때 O(n + u log u) 이다.
+ * 상태를 가지므로 스레드 간에 공유하지 않는다 (상계 한 번에 하나씩 만든다).
+ */
+public class NettingEngine {
+
+    private final LongLongMap positions; // 사용자 id -> 순포지션 (+ 받을 돈, - 줄 돈)
+    private int obligations;
+
+    public NettingEngine() {
+        this(1024);
+    }
+
+    public NettingEngine(int expectedUsers) {
+        this.positions = new LongLongMap(expectedUsers);
+    }
+
+    public void add(long debtorUserId, long creditorUserId, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Obligation amount must not be negative: " + amount);
+        }
+        if (amount == 0 || debtorUserId == creditorUserId) {
+            return;
+        }
+        positions.addTo(debtorUserId, -amount);
+        positions.addTo(creditorUserId, amount);
+        obligations++;
+    }
+
+    public int obligationCount() {
+        return obligations;
+    }
+
+    public long positionOf(long userId) {
+        return positions.get(userId);
+    }
+
+    public List<NetTransfer> settle() {
+        PositionHeap creditors = new PositionHeap(positions.size());
+        PositionHeap debtors = new PositionHeap(positions.size());
+        positions.forEach((user, position) -> {
+            if (position > 0) {
+                creditors.push(user, position);
+            } else if (position < 0) {
+                debtors.push(user, -position);
+            }
+        });
+
+        List<NetTransfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            long creditor = creditors.peekUser();
+            long credit = creditors.peekAmount();
+            long debtor = debtors.peekUser();
+            long debit = debtors.peekAmount();
+            creditors.pop();
+            debtors.pop();
+
+            long amount = Math.min(credit, debit);
+            transfers.add(new NetTransfer(debtor, creditor, amount));
+
+            if (credit > amount) {
+                creditors.push(creditor, credit - amount);
+            }
+            if (debit > amount) {
+                debtors.push(debtor, debit - amount);
+            }
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mwkim.projecthub.minipay.netting;
+
+import java.util.Arrays;
+
+/**
+ * (금액, 사용자 id) 최대 힙. 금액이 가장 큰 사용자를 O(log n) 에 꺼낸다.
+ * 두 개의 long 배열로만 구성된다.
+ */
+final class PositionHeap {
+
+    private long[] amounts;
+    private long[] users;
+    private int size;
+
+    PositionHeap(int capacity) {
+        amounts = new long[Math.max(1, capacity)];
+        users = new long[Math.max(1, capacity)];
+    }
+
+    void push(long user, long amount) {
+        if (size == amounts.length) {
+            amounts = Arrays.copyOf(amounts, size << 1);
+            users = Arrays.copyOf(users, size << 1);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (amounts[parent] >= amount) {
+                break;
+            }
+            amounts[i] = amounts[parent];
+            users[i] = users[parent];
+            i = parent;
+        }
+        amounts[i] = amount;
+        users[i] = user;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long peekAmount() {
+        return amounts[0];
+    }
+
+    long peekUser() {
+        return users[0];
+    }
+
+    void pop() {
+        long amount = amounts[--size];
+        long user = users[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            if (child + 1 < size && amounts[child + 1] > amounts[child]) {
+                child++;
+            }
+            if (amount >= amounts[child]) {
+                break;
+            }
+            amounts[i] = amounts[child];
+            users[i] = users[child];
+            i = child;
+        }
+        amounts[i] = amount;
+        users[i] = user;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mwkim.projecthub.minipay.config.OutboxProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 이벤트를 한 줄에 하나씩(NDJSON) 파일 끝에 덧붙이는 sink. 메시지 브로커 대신 쓰는 append-only 로그다.
+ *
+ * 배치 하나를 버퍼에 모아 write 한 번으로 쓰고, fileLogFsync 가 켜져 있으면 outbox 커밋 전에 디스크까지 내린다.
+ * 커밋이 실패하면 같은 배치가 다시 덧붙여질 수 있다 (at-least-once).
+ */
+@Component
+@ConditionalOnProperty(name = {"outbox.enabled", "outbox.file-log-enabled"}, havingValue = "true")
+public class FileLogOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+
+    private FileChannel channel;
+
+    public FileLogOutboxSink(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(properties.getFileLogPath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // relay 워커가 여럿이어도 줄이 섞이지 않도록 배치 단위로 직렬화한다.
+    @Override
+    public synchronized void publish(List<LedgerEvent> events) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 160);
+            for (LedgerEvent event : events) {
+                objectMapper.writeValue(buffer, event);
+                buffer.write('\n');
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (properties.isFileLogFsync()) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append outbox events to " + properties.getFileLogPath(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+
+import java.time.LocalDateTime;
+
+/**
+ * sink 로 전달되는 거래 내역 이벤트.
+ *
+ * 전달은 at-least-once 라 같은 이벤트가 두 번 올 수 있다. 소비자는 transactionId 로 중복을 걸러야 한다.
+ *
+ * @param amount 원 단위 금액
+ * @param direction 송금 행이 아니면 null (counterpartyAccountId, transferId 도 마찬가지)
+ */
+public record LedgerEvent(long eventId, long transactionId, long accountId, TransactionType type, long amount,
+                          String description, TransferDirection direction, Long counterpartyAccountId, Long transferId,
+                          LocalDateTime occurredAt) {
+}
@@ -0,0 +1,12 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import java.util.List;
+
+/**
+ * 같은 프로세스 안의 거래 내역 이벤트 소비자 (알림, 통계, 이상거래 탐지 등).
+ * relay 스레드에서 호출되므로 오래 걸리는 일은 자기 스레드로 넘겨야 한다.
+ */
+public interface LedgerEventListener {
+
+    void onEvents(List<LedgerEvent> events);
+}
@@ -0,0 +1,24 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 등록된 LedgerEventListener 빈에 순서대로 전달한다.
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class ListenerOutboxSink implements OutboxSink {
+
+    private final ObjectProvider<LedgerEventListener> listeners;
+
+    public ListenerOutboxSink(ObjectProvider<LedgerEventListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void publish(List<LedgerEvent> events) {
+        listeners.orderedStream().forEach(listener -> listener.onEvents(events));
+    }
+}
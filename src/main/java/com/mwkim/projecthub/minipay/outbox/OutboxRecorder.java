@@ -0,0 +1,28 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.mwkim.projecthub.minipay.entity.OutboxEvent;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 거래 내역과 같은 트랜잭션에서 outbox 이벤트를 기록한다. (TransactionBatchRepository 가 호출)
+ *
+ * pooled id 라 persist 시점에 INSERT 가 나가지 않고, 거래 내역과 함께 flush 때 batch insert 로 나간다.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxRecorder {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // transaction 은 이미 persist 되어 id 가 있어야 한다.
+    public OutboxEvent record(Transaction transaction) {
+        OutboxEvent event = OutboxEvent.of(transaction);
+        entityManager.persist(event);
+        return event;
+    }
+}
@@ -0,0 +1,170 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.mwkim.projecthub.minipay.config.OutboxProperties;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * outbox_event 를 배치로 읽어 sink 에 전달하는 relay.
+ *
+ * 1. 워커마다 batchSize 개를 id 순으로 FOR UPDATE SKIP LOCKED 로 잠근다. 다른 워커나 다른 노드가 잡은 행은 건너뛴다.
+ * 2. 모든 sink 에 전달한 뒤 같은 트랜잭션에서 지우고 커밋한다. 남은 행이 없을 때까지 반복한다.
+ * 3. sink 가 실패하면 롤백되어 이벤트가 남고, 다음 주기에 다시 전달된다. (at-least-once)
+ *
+ * 지표
+ * - outbox.lag : 가장 오래된 미전달 이벤트의 나이 (초). 그 이벤트의 생성 시각은 relay 전과 배치마다 다시 읽고, 나이는 조회 시점에 계산한다
+ * - outbox.dispatched : 전달한 이벤트 수
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final String LOCK_SQL = "SELECT id, transaction_id, account_id, type, amount, description, " +
+            "direction, counterparty_account_id, transfer_id, occurred_at " +
+            "FROM outbox_event ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id = ?";
+
+    private static final String OLDEST_SQL = "SELECT created_at FROM outbox_event ORDER BY id LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+
+    private final ThreadPoolExecutor workers;
+    private final AtomicReference<LocalDateTime> oldestCreatedAt = new AtomicReference<>(); // null : 미전달 이벤트 없음
+    private final Counter dispatched;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<OutboxSink> sinks,
+                       OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.properties = properties;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 긴 backlog 를 비우는 동안에도 나이가 계속 늘어나도록 값을 저장하지 않고 조회할 때 계산한다
+        Gauge.builder("outbox.lag", this, relay -> relay.lagMillis() / 1000.0)
+                .description("age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("outbox.dispatched").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-millis:200}")
+    public void poll() {
+        updateLag(); // relay 가 backlog 를 비우는 동안 이전 주기의 0 이 보이지 않도록 먼저 갱신한다
+        relay();
+        updateLag();
+    }
+
+    // 남은 이벤트가 없거나 sink 가 실패할 때까지 전달한다. 반환값은 전달한 이벤트 수
+    public int relay() {
+        List<Callable<Integer>> tasks = new ArrayList<>(properties.getWorkers());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            tasks.add(this::drain);
+        }
+
+        int total = 0;
+        try {
+            for (Future<Integer> future : workers.invokeAll(tasks)) {
+                total += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("outbox relay failed, events stay for the next poll: {}", e.getCause().getMessage());
+        }
+        return total;
+    }
+
+    private int drain() {
+        int total = 0;
+        int delivered;
+        do {
+            delivered = relayBatch();
+            total += delivered;
+            if (delivered > 0) {
+                updateLag();
+            }
+        } while (delivered == properties.getBatchSize());
+        return total;
+    }
+
+    // 한 배치를 잠그고, 전달하고, 지운다.
+    int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<LedgerEvent> events = jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> new LedgerEvent(
+                    rs.getLong(1), rs.getLong(2), rs.getLong(3), TransactionType.valueOf(rs.getString(4)),
+                    rs.getLong(5), rs.getString(6), toDirection(rs.getString(7)), rs.getObject(8, Long.class),
+                    rs.getObject(9, Long.class), toLocalDateTime(rs.getTimestamp(10))), properties.getBatchSize());
+            if (events.isEmpty()) {
+                return 0;
+            }
+            for (OutboxSink sink : sinks) {
+                sink.publish(events);
+            }
+            jdbcTemplate.batchUpdate(DELETE_SQL, events, events.size(), (ps, event) -> ps.setLong(1, event.eventId()));
+            return events.size();
+        });
+        int count = delivered == null ? 0 : delivered;
+        dispatched.increment(count);
+        return count;
+    }
+
+    void updateLag() {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(OLDEST_SQL, Timestamp.class);
+        oldestCreatedAt.set(oldest.isEmpty() ? null : toLocalDateTime(oldest.get(0)));
+    }
+
+    long lagMillis() {
+        LocalDateTime oldest = oldestCreatedAt.get();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static TransferDirection toDirection(String direction) {
+        return direction == null ? null : TransferDirection.valueOf(direction);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import java.util.List;
+
+/**
+ * outbox 이벤트를 받는 곳. OutboxSink 빈은 모두 relay 에 등록된다.
+ *
+ * publish 가 예외를 던지면 그 배치는 outbox 에 남고 다음 주기에 모든 sink 로 다시 전달된다.
+ * 그래서 앞선 sink 는 같은 배치를 다시 받을 수 있다.
+ */
+public interface OutboxSink {
+
+    // 배치 안의 이벤트는 outbox id 순이다.
+    void publish(List<LedgerEvent> events);
+}
@@ -0,0 +1,320 @@
+package com.mwkim.projecthub.minipay.pending;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.concurrency.TransferConcurrencyStrategy;
+import com.mwkim.projecthub.minipay.config.PendingTransferProperties;
+import com.mwkim.projecthub.minipay.entity.PendingTransfer;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.PendingTransferNotFoundException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.PendingTransferRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import com.mwkim.projecthub.minipay.service.DailyLimitService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 수령 대기 송금 (transfer.strategy: pending).
+ *
+ * - 송금 : 보내는 계좌에서 금액을 빼서 잡아두고(hold) pending_transfer 행을 만든다. 자동 충전과 일일 한도는 즉시 이체와 같다
+ * - 수령 : 받는 사람이 수령하면 PENDING -> COMPLETED 로 바꾸고 받는 계좌에 입금한다
+ * - 취소 : 보낸 사람이 취소하면 PENDING -> CANCELLED 로 바꾸고 보낸 계좌로 돌려준다
+ * - 만료 : ttl 이 지나도록 수령하지 않으면 EXPIRED 로 바꾸고 보낸 계좌로 돌려준다
+ *
+ * 만료 시각은 메모리의 계층형 타이밍 휠({@link TimingWheel})로 관리한다. tick 마다 도달한 칸의 항목만 꺼내므로
+ * 대기 중인 송금이 수백만 건이어도 만료 처리 비용은 그 tick 에 만료되는 건수에만 비례하고, 테이블을 훑지 않는다.
+ * 휠은 기동 시 (status, transaction_date) 인덱스로 PENDING 행만 스트리밍해서 다시 채운다.
+ *
+ * 수령/취소/만료는 모두 상태 조건부 UPDATE 로 PENDING 에서만 넘어가므로, 경합해도 돈은 한쪽으로만 한 번 움직인다.
+ * 수령/취소된 항목은 휠에서 지우지 않고, 만료 시각에 꺼냈을 때 PENDING 이 아니면 그냥 버린다.
+ * 입금/환불은 계좌를 읽지 않고 UPDATE balance = balance + ? 로 반영한다 (version 도 올려서 JPA 경로가 충돌을 감지한다).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.strategy", havingValue = "pending")
+public class PendingTransferEngine {
+
+    private static final String CREDIT_SQL = "UPDATE account SET balance = balance + ?, version = version + 1 WHERE id = ?";
+    private static final String REHYDRATE_SQL =
+            "SELECT id, transaction_date FROM pending_transfer WHERE status = 'PENDING' ORDER BY transaction_date";
+
+    private final PendingTransferRepository pendingTransferRepository;
+    private final AccountRepository accountRepository;
+    private final TransferConcurrencyStrategy transferConcurrencyStrategy;
+    private final DailyLimitService dailyLimitService;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final AccountSummaryCache accountSummaryCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final PendingTransferProperties properties;
+    private final long ttlMillis;
+    private final TimingWheel wheel; // wheel 자체를 잠금으로 쓴다
+
+    public PendingTransferEngine(PendingTransferRepository pendingTransferRepository, AccountRepository accountRepository,
+                                 TransferConcurrencyStrategy transferConcurrencyStrategy, DailyLimitService dailyLimitService,
+                                 TransactionBatchRepository transactionBatchRepository, AccountSummaryCache accountSummaryCache,
+                                 JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                                 PendingTransferProperties properties) {
+        this.pendingTransferRepository = pendingTransferRepository;
+        this.accountRepository = accountRepository;
+        this.transferConcurrencyStrategy = transferConcurrencyStrategy;
+        this.dailyLimitService = dailyLimitService;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.accountSummaryCache = accountSummaryCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.properties = properties;
+        this.ttlMillis = properties.getTtl().toMillis();
+        this.wheel = new TimingWheel(properties.getTickMillis(), properties.getWheelLevels(), System.currentTimeMillis());
+    }
+
+    /**
+     * 보내는 계좌에서 금액을 잡아두고 수령 대기 송금을 만든다.
+     * 계좌 확보와 트랜잭션 경계는 transfer.concurrency.mode 전략을 따른다 (보내는 계좌 하나만 확보).
+     */
+    public PendingTransfer send(Long fromAccountId, Long toAccountId, Money amount) {
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (!accountRepository.existsById(toAccountId)) {
+            throw new AccountNotFoundException("Account not found with id: " + toAccountId);
+        }
+
+        PendingTransfer[] created = new PendingTransfer[1];
+        transferConcurrencyStrategy.execute(fromAccountId, fromAccount -> {
+            List<Transaction> records = new ArrayList<>(2);
+
+            // 자동 충전 / 일일 한도는 즉시 이체와 같은 규칙
+            if (fromAccount.getBalanceMoney().isLessThan(amount)) {
+                Money chargeAmount = AccountService.calculateAutoChargeAmount(fromAccount.getBalanceMoney(), amount);
+                dailyLimitService.checkAndUpdateDailyLimit(fromAccount, chargeAmount);
+                fromAccount.updateBalance(fromAccount.getBalanceMoney().plus(chargeAmount));
+                records.add(Transaction.createTransaction(fromAccount, TransactionType.DEPOSIT, chargeAmount, "Deposit"));
+            }
+            dailyLimitService.checkAndUpdateDailyLimit(fromAccount, amount);
+            fromAccount.updateBalance(fromAccount.getBalanceMoney().minus(amount));
+            long transferId = transactionBatchRepository.nextTransferId();
+            records.add(Transaction.createTransfer(fromAccount, TransactionType.WITHDRAW, amount,
+                    TransferDirection.OUTGOING, toAccountId, transferId));
+
+            PendingTransfer pending = pendingTransferRepository.save(
+                    PendingTransfer.createPendingTransfer(fromAccountId, toAccountId, amount, transferId));
+            transactionBatchRepository.insertAll(records);
+            accountSummaryCache.evictAfterCommit(fromAccountId);
+            scheduleAfterCommit(pending);
+            created[0] = pending; // 재시도되면 마지막 시도의 행
+        });
+        return created[0];
+    }
+
+    /**
+     * 받는 사람이 수령한다. 받는 계좌의 주인만 수령할 수 있다.
+     */
+    public void claim(Long pendingTransferId, Long userId) {
+        transactionOperations.executeWithoutResult(status -> {
+            PendingTransfer pending = getPendingTransfer(pendingTransferId);
+            requireOwner(pending.getToAccountId(), userId);
+            transition(pending, TransactionStatus.COMPLETED);
+            credit(Map.of(pending.getToAccountId(), pending.getAmountMoney().longValue()),
+                    List.of(Transaction.createTransfer(transactionBatchRepository.accountReference(pending.getToAccountId()),
+                            TransactionType.DEPOSIT, pending.getAmountMoney(), TransferDirection.INCOMING,
+                            pending.getFromAccountId(), pending.getTransferId())));
+        });
+    }
+
+    /**
+     * 보낸 사람이 수령 전에 취소한다. 잡아둔 금액은 보낸 계좌로 돌려준다.
+     */
+    public void cancel(Long pendingTransferId, Long userId) {
+        transactionOperations.executeWithoutResult(status -> {
+            PendingTransfer pending = getPendingTransfer(pendingTransferId);
+            requireOwner(pending.getFromAccountId(), userId);
+            transition(pending, TransactionStatus.CANCELLED);
+            credit(Map.of(pending.getFromAccountId(), pending.getAmountMoney().longValue()),
+                    List.of(refundRecord(pending.getId(), pending.getFromAccountId(), pending.getAmountMoney(), "취소")));
+        });
+    }
+
+    // tick 마다 휠에서 만료 시각에 도달한 항목을 꺼내 묶음 단위로 만료시킨다.
+    @Scheduled(fixedDelayString = "${transfer.pending.tick-millis:1000}")
+    public void expireDue() {
+        IdBuffer due = new IdBuffer();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        int batchSize = Math.max(1, properties.getExpireBatchSize());
+        for (int from = 0; from < due.size; from += batchSize) {
+            expireChunk(due.slice(from, Math.min(from + batchSize, due.size)));
+        }
+    }
+
+    // 휠에 없던 만료 건을 (status, transaction_date) 인덱스 범위로 찾아 정리한다.
+    @Scheduled(fixedDelayString = "${transfer.pending.overdue-sweep-interval-millis:60000}")
+    public void expireOverdue() {
+        int batchSize = Math.max(1, properties.getExpireBatchSize());
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(properties.getTtl());
+        while (true) {
+            List<Long> overdue = pendingTransferRepository.findOverdueIds(expiredBefore, batchSize);
+            if (overdue.isEmpty() || expireChunk(overdue) == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 기동 시 PENDING 송금을 휠에 다시 채운다.
+     * (status, transaction_date) 인덱스 범위를 forward-only 로 스트리밍하므로 행 수와 관계없이 메모리는 휠 항목(건당 16 byte)만 쓴다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REHYDRATE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(properties.getRehydrateFetchSize());
+            return ps;
+        }, rs -> {
+            long deadline = rs.getTimestamp(2).getTime() + ttlMillis;
+            synchronized (wheel) {
+                wheel.add(rs.getLong(1), deadline);
+            }
+            count[0]++;
+        });
+        log.info("pending transfers rehydrated: {}", count[0]);
+    }
+
+    // 아직 PENDING 인 것만 잠그고 EXPIRED 로 바꾼 뒤, 보낸 계좌별로 합쳐서 환불한다. 실패하면 다음 tick 에 다시 시도한다.
+    private int expireChunk(List<Long> ids) {
+        try {
+            Integer expired = transactionOperations.execute(status -> {
+                List<Object[]> rows = pendingTransferRepository.lockPending(ids);
+                if (rows.isEmpty()) {
+                    return 0; // 모두 수령/취소됨
+                }
+
+                List<Long> lockedIds = new ArrayList<>(rows.size());
+                Map<Long, Long> refunds = new HashMap<>();
+                List<Transaction> records = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    Long id = ((Number) row[0]).longValue();
+                    Long fromAccountId = ((Number) row[1]).longValue();
+                    Money amount = Money.of((BigDecimal) row[2]);
+                    lockedIds.add(id);
+                    refunds.merge(fromAccountId, amount.longValue(), Long::sum);
+                    records.add(refundRecord(id, fromAccountId, amount, "만료"));
+                }
+                pendingTransferRepository.markExpired(lockedIds);
+                credit(refunds, records);
+                return lockedIds.size();
+            });
+            return expired == null ? 0 : expired;
+        } catch (RuntimeException e) {
+            log.warn("pending transfer expiry failed for {} ids, retry next tick", ids.size(), e);
+            long retryAt = System.currentTimeMillis() + properties.getTickMillis();
+            synchronized (wheel) {
+                for (Long id : ids) {
+                    wheel.add(id, retryAt);
+                }
+            }
+            return 0;
+        }
+    }
+
+    private PendingTransfer getPendingTransfer(Long pendingTransferId) {
+        return pendingTransferRepository.findById(pendingTransferId)
+                .orElseThrow(() -> new PendingTransferNotFoundException("Pending transfer not found: " + pendingTransferId));
+    }
+
+    private void requireOwner(Long accountId, Long userId) {
+        if (!accountRepository.findIdsByUserId(userId).contains(accountId)) {
+            throw new IllegalArgumentException("Account " + accountId + " does not belong to user " + userId);
+        }
+    }
+
+    // PENDING 이고 만료 전일 때만 넘어간다. 이미 수령/취소/만료된 경우는 없는 것으로 본다.
+    private void transition(PendingTransfer pending, TransactionStatus to) {
+        LocalDateTime notBefore = LocalDateTime.now().minus(properties.getTtl());
+        if (pendingTransferRepository.transition(pending.getId(), TransactionStatus.PENDING, to, notBefore) == 0) {
+            throw new PendingTransferNotFoundException("Pending transfer is no longer pending: " + pending.getId());
+        }
+    }
+
+    // 계좌별 입금액을 읽지 않고 더한다 (JDBC batch) + 거래 내역 batch insert
+    private void credit(Map<Long, Long> amountsByAccount, List<Transaction> records) {
+        List<Object[]> params = new ArrayList<>(amountsByAccount.size());
+        amountsByAccount.forEach((accountId, won) -> params.add(new Object[]{won, accountId}));
+        jdbcTemplate.batchUpdate(CREDIT_SQL, params);
+        transactionBatchRepository.insertAll(records);
+        accountSummaryCache.evictAllAfterCommit(amountsByAccount.keySet());
+    }
+
+    private Transaction refundRecord(Long pendingTransferId, Long fromAccountId, Money amount, String reason) {
+        return Transaction.createTransaction(transactionBatchRepository.accountReference(fromAccountId),
+                TransactionType.DEPOSIT, amount, "송금 " + reason + " 환불: #" + pendingTransferId);
+    }
+
+    // 커밋된 송금만 휠에 넣는다. 트랜잭션 밖이면 바로 넣는다.
+    private void scheduleAfterCommit(PendingTransfer pending) {
+        long deadline = Timestamp.valueOf(pending.getTransactionDate()).getTime() + ttlMillis;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (wheel) {
+                wheel.add(pending.getId(), deadline);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (wheel) {
+                    wheel.add(pending.getId(), deadline);
+                }
+            }
+        });
+    }
+
+    // 만료된 id 를 박싱 없이 모으는 버퍼
+    private static final class IdBuffer {
+        private long[] ids = new long[64];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        List<Long> slice(int from, int to) {
+            List<Long> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                chunk.add(ids[i]);
+            }
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mwkim.projecthub.minipay.pending;
+
+import java.util.Arrays;
+
+/**
+ * 계층형 타이밍 휠 (hierarchical timing wheel).
+ *
+ * 만료 시각을 tick 번호로 바꾸고, tick 번호를 6bit 자리(digit) 로 나눠 자리마다 64 칸짜리 휠 하나를 둔다.
+ * 항목은 현재 tick 과 윗자리가 모두 같아지는 가장 낮은 자리의 휠에 들어간다.
+ * 현재 tick 이 그 자리의 칸에 도달하면(아랫자리가 모두 0) 칸의 항목을 한 단계 아래 휠로 내려보내고(cascade),
+ * 0 번째 휠의 칸에 도달한 항목이 만료된다.
+ *
+ * - 등록 O(1), tick 당 비용은 만료/이동하는 항목 수에 비례한다. 남아 있는 항목 전체를 훑지 않는다
+ * - 항목은 객체 없이 (id, 만료 tick) 두 long 으로 칸별 배열에 담는다 (항목당 16 byte)
+ * - 만료 시각보다 일찍 만료되는 일은 없고, 늦어도 1 tick 이내다
+ * - 취소는 지원하지 않는다. 수령/취소된 항목도 만료 시각에 나오며, 호출하는 쪽에서 상태를 보고 걸러낸다
+ *
+ * 스레드 안전하지 않다. 호출하는 쪽에서 동기화한다.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    @FunctionalInterface
+    interface ExpiryConsumer {
+        void accept(long id);
+    }
+
+    private final long tickMillis;
+    private final int levels;
+    private final Bucket[][] wheels;
+    private final Bucket overflow = new Bucket(); // 가장 윗자리 휠의 범위도 넘는 항목
+    private long currentTick; // 다음에 처리할 tick
+    private long size;
+
+    TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels <= 0 || levels * BITS >= 62) {
+            throw new IllegalArgumentException("invalid timing wheel: tick=" + tickMillis + ", levels=" + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheels = new Bucket[levels][WHEEL_SIZE];
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * 항목을 등록한다. 이미 지난 시각이면 다음 advance 에서 바로 만료된다.
+     */
+    void add(long id, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis);
+        if (deadlineMillis % tickMillis != 0) {
+            deadlineTick++; // 올림 : 만료 시각보다 일찍 나오지 않게
+        }
+        place(id, deadlineTick);
+        size++;
+    }
+
+    /**
+     * nowMillis 까지 도달한 tick 을 모두 처리하고, 만료된 항목 id 를 consumer 에 넘긴다.
+     *
+     * @return 만료된 항목 수
+     */
+    long advance(long nowMillis, ExpiryConsumer consumer) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        long expired = 0;
+        while (currentTick <= targetTick) {
+            if ((currentTick & lowMask(levels)) == 0) {
+                cascade(overflow);
+            }
+            // 윗자리부터 내려보내야, 내려온 항목이 같은 tick 에서 다시 아래로 내려간다
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & lowMask(level)) == 0) {
+                    cascade(wheels[level][digit(currentTick, level)]);
+                }
+            }
+
+            Bucket due = wheels[0][digit(currentTick, 0)];
+            for (int i = 0; i < due.count; i++) {
+                consumer.accept(due.entries[i << 1]);
+            }
+            expired += due.count;
+            size -= due.count;
+            due.clear();
+            currentTick++;
+        }
+        return expired;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void cascade(Bucket bucket) {
+        if (bucket.count == 0) {
+            return;
+        }
+        long[] entries = bucket.entries;
+        int count = bucket.count;
+        bucket.detach(); // place 가 같은 칸에 다시 넣을 수 있으므로 배열을 떼어낸 뒤 옮긴다
+        for (int i = 0; i < count; i++) {
+            place(entries[i << 1], entries[(i << 1) + 1]);
+        }
+    }
+
+    private void place(long id, long deadlineTick) {
+        if (deadlineTick < currentTick) {
+            deadlineTick = currentTick;
+        }
+        for (int level = 0; level < levels; level++) {
+            int shift = BITS * (level + 1);
+            if ((deadlineTick >>> shift) == (currentTick >>> shift)) {
+                wheels[level][digit(deadlineTick, level)].add(id, deadlineTick);
+                return;
+            }
+        }
+        overflow.add(id, deadlineTick);
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) ((tick >>> (BITS * level)) & MASK);
+    }
+
+    private static long lowMask(int level) {
+        return (1L << (BITS * level)) - 1;
+    }
+
+    // (id, 만료 tick) 쌍을 이어 붙인 long 배열
+    private static final class Bucket {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] entries = EMPTY;
+        private int count;
+
+        void add(long id, long deadlineTick) {
+            int index = count << 1;
+            if (index + 2 > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(16, entries.length * 2));
+            }
+            entries[index] = id;
+            entries[index + 1] = deadlineTick;
+            count++;
+        }
+
+        void clear() {
+            // 크게 자란 배열은 놓아준다 (한 번 몰렸던 칸이 메모리를 계속 잡고 있지 않게)
+            entries = entries.length > 1024 ? EMPTY : entries;
+            count = 0;
+        }
+
+        void detach() {
+            entries = EMPTY;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    // 입금 : 읽지 않고 슬롯 행 하나에만 더한다. 슬롯이 없으면 0
+    @Modifying
+    @Query(value = "update account_balance_slot set balance = balance + :amount where account_id = :accountId and slot_no = :slotNo",
+            nativeQuery = true)
+    int add(@Param("accountId") Long accountId, @Param("slotNo") int slotNo, @Param("amount") long amount);
+
+    // 아직 계좌 행으로 옮겨지지 않은 금액 (잠금 없음)
+    @Query(value = "select coalesce(sum(balance), 0) from account_balance_slot where account_id = :accountId", nativeQuery = true)
+    BigDecimal sumBalance(@Param("accountId") Long accountId);
+
+    // 정리(sweep)용. 항상 slot_no 오름차순으로 잠근다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountId = :accountId order by s.slotNo")
+    List<AccountBalanceSlot> findAllByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    @Query("select s.slotNo from AccountBalanceSlot s where s.accountId = :accountId")
+    List<Integer> findSlotNos(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,23 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.dto.DailyStat;
+import com.mwkim.projecthub.minipay.entity.AccountDailyStats;
+import com.mwkim.projecthub.minipay.entity.AccountDailyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailyStatsRepository extends JpaRepository<AccountDailyStats, AccountDailyStatsId> {
+
+    // PK (account_id, stat_date, type) 범위 조회
+    @Query("select new com.mwkim.projecthub.minipay.dto.DailyStat(s.statDate, s.type, s.txCount, s.amountSum) " +
+            "from AccountDailyStats s where s.accountId = :accountId and s.statDate between :from and :to " +
+            "order by s.statDate, s.type")
+    List<DailyStat> findDailyStats(@Param("accountId") Long accountId, @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+}
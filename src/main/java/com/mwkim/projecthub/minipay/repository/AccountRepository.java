@@ -1,12 +1,29 @@
 package com.mwkim.projecthub.minipay.repository;
 
 import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Object> findByIdWithPessimisticLock(Long fromAccountId);
+
+    // SELECT ... FOR UPDATE, 항상 id 오름차순으로 잠가서 교착 상태 방지
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // [userId, accountId] 목록. 회원당 여러 개면 id 오름차순
+    @Query("select a.user.id, a.id from Account a where a.user.id in :userIds and a.type = :type order by a.id")
+    List<Object[]> findAccountIdsByUserIds(@Param("userIds") Collection<Long> userIds, @Param("type") AccountType type);
+
+    @Query("select a.id from Account a where a.user.id = :userId order by a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,18 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.InterestAccrualCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InterestAccrualCheckpointRepository extends JpaRepository<InterestAccrualCheckpoint, Long> {
+
+    // 해당 날짜에 이미 끝난 구간의 시작 id
+    @Query("select c.partitionStart from InterestAccrualCheckpoint c where c.accrualDate = :accrualDate")
+    List<Long> findCompletedPartitionStarts(@Param("accrualDate") LocalDate accrualDate);
+}
@@ -0,0 +1,39 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.PendingTransfer;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingTransferRepository extends JpaRepository<PendingTransfer, Long> {
+
+    // 수령 / 취소 : 아직 PENDING 이고 만료 시각 전인 경우에만 바꾼다. 바뀐 행 수로 성공 여부를 판단한다.
+    @Modifying
+    @Query("update PendingTransfer p set p.status = :to " +
+            "where p.id = :id and p.status = :from and p.transactionDate > :notBefore")
+    int transition(@Param("id") Long id, @Param("from") TransactionStatus from, @Param("to") TransactionStatus to,
+                   @Param("notBefore") LocalDateTime notBefore);
+
+    // 만료 대상 중 아직 PENDING 인 것만 잠근다. [id, from_account_id, amount]
+    @Query(value = "SELECT id, from_account_id, amount FROM pending_transfer " +
+            "WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockPending(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update PendingTransfer p set p.status = com.mwkim.projecthub.minipay.enums.TransactionStatus.EXPIRED " +
+            "where p.id in :ids and p.status = com.mwkim.projecthub.minipay.enums.TransactionStatus.PENDING")
+    int markExpired(@Param("ids") Collection<Long> ids);
+
+    // 만료 시각이 지났는데 남아 있는 PENDING (다른 노드가 보낸 뒤 내려간 경우 등). idx_pending_transfer_status_date 범위만 읽는다.
+    @Query(value = "SELECT id FROM pending_transfer WHERE status = 'PENDING' AND transaction_date <= :expiredBefore " +
+            "ORDER BY transaction_date LIMIT :limit", nativeQuery = true)
+    List<Long> findOverdueIds(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("limit") int limit);
+}
@@ -0,0 +1,67 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.Settlement;
+import com.mwkim.projecthub.minipay.entity.SettlementParticipant;
+import com.mwkim.projecthub.minipay.entity.User;
+import com.mwkim.projecthub.minipay.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 정산(프로모션 에어드랍 등)의 참여자를 hibernate JDBC batch 로 흘려서 기록하는 저장소.
+ *
+ * Settlement.participants 컬렉션에 넣지 않고, FLUSH_SIZE 건마다 flush 한 뒤 기록한 행과 회원 프록시를 detach 한다.
+ * 참여자가 백만 명이어도 영속성 컨텍스트에는 최대 FLUSH_SIZE 건만 남는다.
+ */
+@Repository
+public class SettlementParticipantBatchRepository {
+
+    private static final int FLUSH_SIZE = 500; // hibernate.jdbc.batch_size 와 맞춘다
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Writer writer(Settlement settlement) {
+        return new Writer(settlement);
+    }
+
+    public final class Writer {
+        private final Settlement settlement;
+        private final List<SettlementParticipant> pending = new ArrayList<>(FLUSH_SIZE);
+
+        private Writer(Settlement settlement) {
+            this.settlement = settlement;
+        }
+
+        public void append(Long userId, Money amount) {
+            SettlementParticipant participant = SettlementParticipant.createSettlementParticipant(
+                    entityManager.getReference(User.class, userId), amount);
+            participant.addSettlement(settlement);
+            entityManager.persist(participant);
+            pending.add(participant);
+            if (pending.size() == FLUSH_SIZE) {
+                flush();
+            }
+        }
+
+        // 남은 행을 기록한다
+        public void finish() {
+            if (!pending.isEmpty()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            entityManager.flush();
+            for (SettlementParticipant participant : pending) {
+                entityManager.detach(participant);
+                entityManager.detach(participant.getUser());
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.dto.ParticipantShare;
+import com.mwkim.projecthub.minipay.dto.SettlementObligation;
+import com.mwkim.projecthub.minipay.entity.SettlementParticipant;
+import com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SettlementParticipantRepository extends JpaRepository<SettlementParticipant, Long> {
+
+    @Query("select new com.mwkim.projecthub.minipay.dto.ParticipantShare(p.user.id, p.amount) " +
+            "from SettlementParticipant p where p.settlement.id = :settlementId order by p.id")
+    List<ParticipantShare> findShares(@Param("settlementId") Long settlementId);
+
+    @Query("select new com.mwkim.projecthub.minipay.dto.SettlementObligation(p.user.id, p.settlement.requester.id, p.amount) " +
+            "from SettlementParticipant p where p.settlement.id in :settlementIds")
+    List<SettlementObligation> findObligations(@Param("settlementIds") Collection<Long> settlementIds);
+
+    // (settlement_id, user_id) 인덱스로 참여자 상태만 읽는다
+    @Query("select p.status from SettlementParticipant p where p.settlement.id = :settlementId and p.user.id = :userId")
+    List<SettlementParticipantStatus> findStatuses(@Param("settlementId") Long settlementId, @Param("userId") Long userId);
+
+    /**
+     * 참여자 상태를 from -> to 로 바꾼다. 현재 상태가 from 인 행만 바뀌므로(compare-and-set),
+     * 동시에 같은 참여자를 처리해도 반환된 행 수만큼만 인원수를 조정하면 된다.
+     */
+    @Modifying
+    @Query("update SettlementParticipant p set p.status = :to " +
+            "where p.settlement.id = :settlementId and p.user.id = :userId and p.status = :from")
+    int updateStatus(@Param("settlementId") Long settlementId, @Param("userId") Long userId,
+                     @Param("from") SettlementParticipantStatus from, @Param("to") SettlementParticipantStatus to);
+
+    // 회원의 PENDING 참여 행을 잠그고 정산 id 를 돌려준다 (같은 정산에 중복 참여면 중복된 id)
+    @Query(value = "SELECT settlement_id FROM settlement_participant WHERE user_id = :userId AND status = 'PENDING' FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockPendingSettlementIds(@Param("userId") Long userId);
+
+    @Query(value = "SELECT settlement_id FROM settlement_participant " +
+            "WHERE user_id = :userId AND status = 'PENDING' AND settlement_id IN (:settlementIds) FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockPendingSettlementIds(@Param("userId") Long userId, @Param("settlementIds") Collection<Long> settlementIds);
+
+    @Modifying
+    @Query("update SettlementParticipant p set p.status = com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus.APPROVED " +
+            "where p.user.id = :userId and p.status = com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus.PENDING")
+    int approveAllPending(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update SettlementParticipant p set p.status = com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus.APPROVED " +
+            "where p.user.id = :userId and p.status = com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus.PENDING " +
+            "and p.settlement.id in :settlementIds")
+    int approveAllPending(@Param("userId") Long userId, @Param("settlementIds") Collection<Long> settlementIds);
+}
@@ -1,7 +1,74 @@
 package com.mwkim.projecthub.minipay.repository;
 
 import com.mwkim.projecthub.minipay.entity.Settlement;
+import com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface SettlementRepository extends JpaRepository<Settlement, Long> {
+
+    // 참여자 상태 변경분만큼 인원수를 더한다 (음수면 감소). 집계를 읽지 않고 UPDATE 한 번으로 끝난다.
+    // 이미 송금 대기 / 실행된 정산이면 0 -> 호출한 쪽이 예외로 참여자 변경까지 롤백한다
+    @Modifying
+    @Query("update Settlement s set s.pendingCount = s.pendingCount + :pending, " +
+            "s.approvedCount = s.approvedCount + :approved, s.rejectedCount = s.rejectedCount + :rejected " +
+            "where s.id = :settlementId " +
+            "and (s.executionStatus is null or s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.NONE)")
+    int adjustCounts(@Param("settlementId") Long settlementId, @Param("pending") int pending,
+                     @Param("approved") int approved, @Param("rejected") int rejected);
+
+    // 전원 승인된 정산을 송금 대기로 표시한다. 이미 표시됐거나 아직 승인 전이면 0 (정산마다 한 번만 1 을 받는다)
+    @Modifying
+    @Query("update Settlement s set s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.QUEUED " +
+            "where s.id = :settlementId and s.pendingCount = 0 and s.rejectedCount = 0 " +
+            "and (s.executionStatus is null or s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.NONE)")
+    int markQueuedIfFullyApproved(@Param("settlementId") Long settlementId);
+
+    // 실행 상태를 from -> to 로 바꾼다 (compare-and-set). 바뀌지 않으면 다른 워커가 이미 처리한 것
+    @Modifying
+    @Query("update Settlement s set s.executionStatus = :to, s.executionMessage = :message " +
+            "where s.id = :settlementId and s.executionStatus = :from")
+    int transitionExecution(@Param("settlementId") Long settlementId, @Param("from") SettlementExecutionStatus from,
+                            @Param("to") SettlementExecutionStatus to, @Param("message") String message);
+
+    // QUEUED -> COMPLETED. 인원수를 다시 확인해서 큐에 들어간 뒤 승인이 깨진 정산은 실행하지 않는다
+    @Modifying
+    @Query("update Settlement s set s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.COMPLETED " +
+            "where s.id = :settlementId and s.pendingCount = 0 and s.rejectedCount = 0 " +
+            "and s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.QUEUED")
+    int completeIfFullyApproved(@Param("settlementId") Long settlementId);
+
+    @Query("select s.id from Settlement s where s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.QUEUED order by s.id")
+    List<Long> findQueuedIds(Limit limit);
+
+    // 상계 창(window) : 다른 노드가 잡고 있는 정산은 건너뛰고 QUEUED 정산을 잠근다 (MySQL 8 SKIP LOCKED)
+    // 전원 승인 상태가 아닌 QUEUED 정산은 창에 넣지 않는다 (failQueuedNotFullyApproved 가 정리)
+    @Query(value = "SELECT id FROM settlement WHERE execution_status = 'QUEUED' AND pending_count = 0 AND rejected_count = 0 " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockQueuedIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update Settlement s set s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.COMPLETED " +
+            "where s.id in :settlementIds and s.pendingCount = 0 and s.rejectedCount = 0 " +
+            "and s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.QUEUED")
+    int completeQueued(@Param("settlementIds") Collection<Long> settlementIds);
+
+    // 큐에 들어간 뒤 승인이 깨진 정산을 실행하지 않고 FAILED 로 끝낸다
+    @Modifying
+    @Query("update Settlement s set s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.FAILED, " +
+            "s.executionMessage = :message " +
+            "where s.executionStatus = com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus.QUEUED " +
+            "and (s.pendingCount > 0 or s.rejectedCount > 0)")
+    int failQueuedNotFullyApproved(@Param("message") String message);
+
+    @Query("select s.requester.id from Settlement s where s.id = :settlementId")
+    Optional<Long> findRequesterId(@Param("settlementId") Long settlementId);
 }
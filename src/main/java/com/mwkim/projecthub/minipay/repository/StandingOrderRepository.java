@@ -0,0 +1,32 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.StandingOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    // dueBefore 전에 도래한 ACTIVE 주문을 실행 시각 순으로 잠근다. 다른 워커/노드가 잡은 행은 건너뛴다 (MySQL 8 SKIP LOCKED)
+    @Query(value = "SELECT * FROM standing_order WHERE status = 'ACTIVE' AND next_run_at < :dueBefore " +
+            "ORDER BY next_run_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StandingOrder> lockDue(@Param("dueBefore") LocalDateTime dueBefore, @Param("limit") int limit);
+
+    // 롤백된 묶음을 나눠서 다시 실행할 때 쓴다. 그 사이 다른 워커가 잡았거나 이미 처리된 주문은 빠진다
+    @Query(value = "SELECT * FROM standing_order WHERE id IN (:ids) AND status = 'ACTIVE' AND next_run_at < :dueBefore " +
+            "ORDER BY next_run_at, id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StandingOrder> lockDueByIds(@Param("ids") Collection<Long> ids, @Param("dueBefore") LocalDateTime dueBefore);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from StandingOrder o where o.id = :id")
+    Optional<StandingOrder> findByIdForUpdate(@Param("id") Long id);
+}
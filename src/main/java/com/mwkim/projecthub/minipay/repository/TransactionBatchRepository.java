@@ -0,0 +1,85 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.OutboxEvent;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.outbox.OutboxRecorder;
+import com.mwkim.projecthub.minipay.stats.DailyStatsRecorder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거래 내역을 hibernate JDBC batch 로 한 번에 기록하는 저장소.
+ *
+ * Transaction 은 pooled id 를 쓰기 때문에 persist 시점에 INSERT 가 나가지 않고, flush 때 batch_size 단위로 묶여서 나간다.
+ * 기록한 행은 바로 detach 해서 대량 이체에서도 영속성 컨텍스트가 커지지 않는다.
+ *
+ * outbox.enabled 이면 거래 내역마다 outbox 이벤트를 같은 트랜잭션, 같은 flush 에서 함께 기록한다.
+ * 일별 집계(account_daily_stats)도 같은 트랜잭션에서 커밋 직전에 더해진다.
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    private static final int FLUSH_SIZE = 500; // hibernate.jdbc.batch_size 와 맞춘다
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private OutboxRecorder outboxRecorder; // outbox.enabled 일 때만 존재
+
+    @Autowired
+    private DailyStatsRecorder dailyStatsRecorder;
+
+    @Autowired
+    private TransferIdAllocator transferIdAllocator;
+
+    // 단건 기록 : persist 만 하고 INSERT 는 커밋 시점 flush 에서 다른 행과 함께 batch 로 나간다.
+    public void append(Transaction transaction) {
+        entityManager.persist(transaction);
+        dailyStatsRecorder.record(transaction);
+        if (outboxRecorder != null) {
+            outboxRecorder.record(transaction);
+        }
+    }
+
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < transactions.size(); from += FLUSH_SIZE) {
+            List<Transaction> chunk = transactions.subList(from, Math.min(from + FLUSH_SIZE, transactions.size()));
+            List<OutboxEvent> events = outboxRecorder == null ? List.of() : new ArrayList<>(chunk.size());
+            for (Transaction transaction : chunk) {
+                entityManager.persist(transaction);
+                dailyStatsRecorder.record(transaction);
+                if (outboxRecorder != null) {
+                    events.add(outboxRecorder.record(transaction));
+                }
+            }
+            entityManager.flush();
+            for (Transaction transaction : chunk) {
+                entityManager.detach(transaction);
+            }
+            for (OutboxEvent event : events) {
+                entityManager.detach(event);
+            }
+        }
+    }
+
+    // 송금 한 건의 보낸 쪽 / 받은 쪽 행이 함께 쓸 transfer_id. 행을 만들기 전에 받는다.
+    public long nextTransferId() {
+        return transferIdAllocator.next();
+    }
+
+    // 조회 없이 계좌 프록시만 얻는다 (거래 내역의 FK 용)
+    public Account accountReference(Long accountId) {
+        return entityManager.getReference(Account.class, accountId);
+    }
+}
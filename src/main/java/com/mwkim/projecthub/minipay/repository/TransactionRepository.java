@@ -1,9 +1,61 @@
 package com.mwkim.projecthub.minipay.repository;
 
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryItem;
 import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * 계좌 거래 내역을 (transactionDate, id) 기준 최신순 keyset 으로 조회한다.
+     *
+     * 직전 페이지 마지막 행의 (transactionDate, id) 보다 뒤에 있는 행부터 읽기 때문에
+     * OFFSET 처럼 앞 페이지를 다시 스캔하지 않고, idx_transaction_account_date_id 인덱스를 역순으로 타서 깊은 페이지도 비용이 같다.
+     * 첫 페이지는 cursorDate / cursorId 를 null 로, type / status 는 필터가 없으면 null 로 넘긴다.
+     */
+    @Query("select new com.mwkim.projecthub.minipay.dto.TransactionHistoryItem(" +
+            "t.id, t.type, t.amount, t.description, t.transactionDate, t.status, " +
+            "t.direction, t.counterpartyAccountId, t.transferId) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "and (:type is null or t.type = :type) " +
+            "and (:status is null or t.status = :status) " +
+            "and (:cursorDate is null or t.transactionDate < :cursorDate " +
+            "     or (t.transactionDate = :cursorDate and t.id < :cursorId)) " +
+            "order by t.transactionDate desc, t.id desc")
+    List<TransactionHistoryItem> findHistory(@Param("accountId") Long accountId,
+                                             @Param("type") TransactionType type,
+                                             @Param("status") TransactionStatus status,
+                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
+
+    /**
+     * 계좌가 특정 상대 계좌와 주고받은 송금 내역을 findHistory 와 같은 keyset 으로 조회한다.
+     * (account_id, counterparty_account_id, transaction_date, id) 인덱스 범위만 역순으로 읽는다.
+     */
+    @Query("select new com.mwkim.projecthub.minipay.dto.TransactionHistoryItem(" +
+            "t.id, t.type, t.amount, t.description, t.transactionDate, t.status, " +
+            "t.direction, t.counterpartyAccountId, t.transferId) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "and t.counterpartyAccountId = :counterpartyAccountId " +
+            "and (:cursorDate is null or t.transactionDate < :cursorDate " +
+            "     or (t.transactionDate = :cursorDate and t.id < :cursorId)) " +
+            "order by t.transactionDate desc, t.id desc")
+    List<TransactionHistoryItem> findTransfersWith(@Param("accountId") Long accountId,
+                                                   @Param("counterpartyAccountId") Long counterpartyAccountId,
+                                                   @Param("cursorDate") LocalDateTime cursorDate,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Limit limit);
 }
@@ -0,0 +1,75 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import com.mwkim.projecthub.minipay.entity.IdAllocation;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 송금 한 건의 보내는 쪽 / 받는 쪽 거래 내역이 함께 갖는 transfer_id 를 발급한다.
+ *
+ * transfer_id 는 거래 내역 행보다 먼저 정해져야 해서 엔티티 id 생성기를 쓸 수 없다.
+ * 대신 엔티티 id 와 같은 id_block 테이블에서 'transfer' 블록을 별도 트랜잭션으로 받아오고, 블록 안에서는 메모리에서 발급한다.
+ * (hibernate pooled 생성기와 같은 방식. 재시작하면 남은 블록은 버려지므로 id 에 빈 구간이 생길 수 있다)
+ */
+@Repository
+public class TransferIdAllocator {
+
+    static final String KEY = "transfer";
+
+    private static final String LOCK_SQL = "SELECT " + IdAllocation.VALUE_COLUMN + " FROM " + IdAllocation.TABLE +
+            " WHERE " + IdAllocation.PK_COLUMN + " = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE " + IdAllocation.TABLE + " SET " + IdAllocation.VALUE_COLUMN +
+            " = ? WHERE " + IdAllocation.PK_COLUMN + " = ?";
+    private static final String INSERT_SQL = "INSERT INTO " + IdAllocation.TABLE +
+            " (" + IdAllocation.PK_COLUMN + ", " + IdAllocation.VALUE_COLUMN + ") VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+
+    private long next;  // 다음에 발급할 id
+    private long limit; // 현재 블록의 끝 (미포함)
+
+    public TransferIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, transactionManager, IdAllocation.TRANSFER_BLOCK);
+    }
+
+    TransferIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            Long start = requiresNew.execute(status -> reserve());
+            next = start;
+            limit = start + blockSize;
+        }
+        return next++;
+    }
+
+    // 블록 하나를 예약하고 시작 id 를 돌려준다. 호출자의 트랜잭션이 롤백돼도 예약은 유지된다.
+    private long reserve() {
+        List<Long> current = jdbcTemplate.queryForList(LOCK_SQL, Long.class, KEY);
+        if (current.isEmpty()) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, KEY, 1L + blockSize);
+                return 1L;
+            } catch (DuplicateKeyException e) {
+                // 다른 노드가 먼저 행을 만들었다 -> 그 행을 잠그고 이어서 받는다
+                current = jdbcTemplate.queryForList(LOCK_SQL, Long.class, KEY);
+            }
+        }
+        long start = current.get(0);
+        jdbcTemplate.update(UPDATE_SQL, start + blockSize, KEY);
+        return start;
+    }
+}
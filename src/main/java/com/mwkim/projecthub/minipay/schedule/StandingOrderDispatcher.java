@@ -0,0 +1,275 @@
+package com.mwkim.projecthub.minipay.schedule;
+
+import com.mwkim.projecthub.minipay.config.StandingOrderProperties;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.entity.StandingOrder;
+import com.mwkim.projecthub.minipay.enums.StandingOrderStatus;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.repository.StandingOrderRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 도래한 예약 / 자동 이체를 분 단위 버킷으로 묶어 실행한다.
+ *
+ * 1. 주기마다 "현재 분이 끝나기 전" 에 도래한 ACTIVE 주문을 워커 수만큼 나눠서 처리한다.
+ * 2. 워커는 batchSize 개씩 FOR UPDATE SKIP LOCKED 로 잠그고, 한 트랜잭션 안에서 AccountService.transferBatch 로 이체한 뒤
+ *    주문별 결과(다음 회차 / 백오프)를 dirty checking batch update 로 기록한다. 더 잠글 주문이 없을 때까지 반복한다.
+ * 3. 묶음 트랜잭션 전체가 실패하면(잠금 충돌 등) 묶음을 반으로 나눠 다시 실행한다. 한 건으로 좁혀져도 실패하는 주문만 백오프로 미룬다.
+ *
+ * 잠긴 행은 다른 워커나 다른 노드가 건너뛰므로 같은 주문이 같은 회차에 두 번 실행되지 않는다.
+ *
+ * @note 원장 모드(transfer.strategy: ledger)에서는 실행하지 않는다. 원장 이체는 메모리에 바로 반영되어 주문 갱신이 롤백돼도
+ *       되돌릴 수 없으므로, 같은 회차가 다시 실행되면 이중 이체가 된다.
+ *       수령 대기 모드(transfer.strategy: pending)에서도 실행하지 않는다. transferBatch 가 이 모드를 거부한다.
+ */
+@Slf4j
+@Component
+public class StandingOrderDispatcher {
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final StandingOrderProperties properties;
+
+    private final ThreadPoolExecutor workers;
+
+    // @Scheduled 스레드는 다른 주기 작업(복제 지연 측정, outbox relay 등)과 공유한다. 실행은 여기로 넘기고 스케줄러 스레드는 바로 돌려준다.
+    private final ExecutorService coordinator;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    @Autowired(required = false)
+    private PendingTransferEngine pendingTransferEngine;
+
+    public StandingOrderDispatcher(StandingOrderRepository standingOrderRepository, AccountService accountService,
+                                   TransactionTemplate transactionTemplate, StandingOrderProperties properties) {
+        this.standingOrderRepository = standingOrderRepository;
+        this.accountService = accountService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "standing-order-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "standing-order-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void warnIfUnsupportedStrategy() {
+        if (ledgerEngine != null) {
+            log.warn("standing orders are not dispatched: transfers are applied in memory by the ledger (transfer.strategy=ledger)");
+        } else if (pendingTransferEngine != null) {
+            log.warn("standing orders are not dispatched: batch transfers are not supported (transfer.strategy=pending)");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        coordinator.shutdown();
+        workers.shutdown();
+    }
+
+    // 이전 실행이 아직 끝나지 않았으면 이번 주기는 건너뛴다. (노드 간 중복은 SKIP LOCKED 가 막는다)
+    @Scheduled(fixedDelayString = "${transfer.schedule.poll-interval-millis:5000}")
+    public void dispatch() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            coordinator.execute(() -> {
+                try {
+                    int executed = dispatch(LocalDateTime.now());
+                    if (executed > 0) {
+                        log.debug("standing orders executed: {}", executed);
+                    }
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false); // 종료 중
+        }
+    }
+
+    /**
+     * now 가 속한 분까지 도래한 주문을 모두 처리한다.
+     *
+     * @return 처리한 주문 수 (성공 + 실패)
+     */
+    public int dispatch(LocalDateTime now) {
+        if (ledgerEngine != null || pendingTransferEngine != null) {
+            return 0;
+        }
+        LocalDateTime dueBefore = now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        List<Callable<Integer>> tasks = new ArrayList<>(properties.getWorkers());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            tasks.add(() -> drain(dueBefore));
+        }
+
+        List<Future<Integer>> futures;
+        try {
+            futures = workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        // 워커 하나가 실패해도 나머지 워커가 처리한 수는 그대로 더한다
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                total += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("standing order worker failed: {}", e.getCause().getMessage());
+            }
+        }
+        return total;
+    }
+
+    // 잠글 주문이 없을 때까지 묶음을 처리한다. 처리된 주문은 다음 회차나 백오프로 미뤄지므로 반복은 끝난다.
+    private int drain(LocalDateTime dueBefore) {
+        int total = 0;
+        int processed;
+        do {
+            processed = runChunk(dueBefore);
+            total += processed;
+        } while (processed > 0);
+        return total;
+    }
+
+    int runChunk(LocalDateTime dueBefore) {
+        List<Long> lockedIds = new ArrayList<>();
+        try {
+            Integer processed = transactionTemplate.execute(status -> {
+                List<StandingOrder> due = standingOrderRepository.lockDue(dueBefore, properties.getBatchSize());
+                for (StandingOrder order : due) {
+                    lockedIds.add(order.getId());
+                }
+                if (due.isEmpty()) {
+                    return 0;
+                }
+                execute(due);
+                return due.size();
+            });
+            return processed == null ? 0 : processed;
+        } catch (RuntimeException e) {
+            if (lockedIds.isEmpty()) {
+                throw e;
+            }
+            isolate(lockedIds, dueBefore, e);
+            return lockedIds.size();
+        }
+    }
+
+    // 롤백된 묶음을 반으로 나눠 다시 실행한다. 한 건만 남았는데도 실패하면 그 주문만 백오프로 미룬다.
+    private void isolate(List<Long> ids, LocalDateTime dueBefore, RuntimeException cause) {
+        if (ids.size() == 1) {
+            log.info("standing order {} rolled back, backing off: {}", ids.get(0), cause.getMessage());
+            backOff(ids, cause.getMessage());
+            return;
+        }
+        log.debug("standing order chunk of {} rolled back, splitting: {}", ids.size(), cause.getMessage());
+        int mid = ids.size() / 2;
+        retry(ids.subList(0, mid), dueBefore);
+        retry(ids.subList(mid, ids.size()), dueBefore);
+    }
+
+    private void retry(List<Long> ids, LocalDateTime dueBefore) {
+        List<Long> lockedIds = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<StandingOrder> due = standingOrderRepository.lockDueByIds(ids, dueBefore);
+                for (StandingOrder order : due) {
+                    lockedIds.add(order.getId());
+                }
+                if (!due.isEmpty()) {
+                    execute(due);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (lockedIds.isEmpty()) {
+                // 잠그지도 못했으면 주문은 그대로 도래 상태다. 다음 주기에 다시 잡힌다
+                log.warn("standing orders {} could not be locked for retry: {}", ids, e.getMessage());
+                return;
+            }
+            isolate(lockedIds, dueBefore, e);
+        }
+    }
+
+    private void execute(List<StandingOrder> due) {
+        List<TransferCommand> commands = new ArrayList<>(due.size());
+        for (StandingOrder order : due) {
+            commands.add(new TransferCommand(order.getFromAccountId(), order.getToAccountId(), order.getAmount()));
+        }
+
+        List<TransferResult> results = accountService.transferBatch(commands);
+        LocalDateTime now = LocalDateTime.now();
+        for (TransferResult result : results) {
+            StandingOrder order = due.get(result.getIndex());
+            if (result.isSuccess()) {
+                order.succeeded(now);
+            } else {
+                order.failed(result.getMessage(), now, backoff(order.getAttempts() + 1), properties.getMaxAttempts());
+            }
+        }
+        // 변경된 주문은 커밋 시 dirty checking 으로 batch update 된다
+    }
+
+    private void backOff(List<Long> ids, String message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (StandingOrder order : standingOrderRepository.findAllById(ids)) {
+                if (order.getStatus() == StandingOrderStatus.ACTIVE) {
+                    order.failed(message, now, backoff(order.getAttempts() + 1), properties.getMaxAttempts());
+                }
+            }
+        });
+    }
+
+    // attempt 번째 재시도까지의 간격 : base * 2^(attempt-1), 최대 maxBackoff
+    Duration backoff(int attempt) {
+        long base = properties.getBaseBackoffSeconds();
+        long max = properties.getMaxBackoffSeconds();
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long seconds = base > (max >> shift) ? max : base << shift;
+        return Duration.ofSeconds(Math.min(seconds, max));
+    }
+}
@@ -1,24 +1,45 @@
 package com.mwkim.projecthub.minipay.service;
 
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.concurrency.ConditionalUpdateTransferEngine;
+import com.mwkim.projecthub.minipay.concurrency.TransferConcurrencyStrategy;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
 import com.mwkim.projecthub.minipay.entity.Account;
 import com.mwkim.projecthub.minipay.entity.Transaction;
 import com.mwkim.projecthub.minipay.entity.User;
 import com.mwkim.projecthub.minipay.enums.AccountType;
 import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
 import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
-import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
+import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
 import com.mwkim.projecthub.minipay.exception.custom.InsufficientBalanceException;
 import com.mwkim.projecthub.minipay.exception.custom.UserNotFoundException;
+import com.mwkim.projecthub.minipay.groupcommit.GroupCommitTransferPipeline;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
 import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
 import com.mwkim.projecthub.minipay.repository.UserRepository;
-import jakarta.persistence.OptimisticLockException;
+import com.mwkim.projecthub.minipay.subledger.HotAccountLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -30,8 +51,32 @@ public class AccountService {
     private final TransactionService transactionService;
     private final UserService userService;
     private final DailyLimitService dailyLimitService;
+    private final TransferConcurrencyStrategy transferConcurrencyStrategy;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final AccountSummaryCache accountSummaryCache;
 
-    private static final BigDecimal AUTO_CHARGE_UNIT = new BigDecimal("10000"); // 일일 충전 단위
+    private static final Money AUTO_CHARGE_UNIT = Money.of(10_000); // 일일 충전 단위
+    private static final int ACCOUNT_LOAD_CHUNK = 1000; // 일괄 이체 시 IN 절 하나에 넣을 최대 id 수
+
+    // transfer.strategy: ledger 일 때만 주입된다. 없으면 기존 JPA 경로로 이체한다.
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    // transfer.strategy: conditional 일 때만 주입된다. 계좌를 읽지 않고 조건부 UPDATE 로 이체한다.
+    @Autowired(required = false)
+    private ConditionalUpdateTransferEngine conditionalUpdateTransferEngine;
+
+    // transfer.strategy: pending 일 때만 주입된다. 송금액을 잡아두고 받는 사람이 수령할 때 입금한다.
+    @Autowired(required = false)
+    private PendingTransferEngine pendingTransferEngine;
+
+    // transfer.group-commit.enabled: true 일 때만 주입된다. transferAsync 를 묶음 단위 트랜잭션으로 커밋한다.
+    @Autowired(required = false)
+    private GroupCommitTransferPipeline groupCommitTransferPipeline;
+
+    // account.hot.enabled: true 일 때만 주입된다. 지정된 계좌로의 입금은 계좌 행 대신 잔액 슬롯에 더한다.
+    @Autowired(required = false)
+    private HotAccountLedger hotAccountLedger;
 
     public Account createAccount(Long userId, AccountType type, BigDecimal dailyLimitAmount) {
         User user = userService.getUserById(userId);
@@ -39,63 +84,299 @@ public class AccountService {
         // 계좌 생성 로직
         Account account = Account.createAccount(user, type, BigDecimal.ZERO, dailyLimitAmount);
         user.addAccount(account);
+        accountSummaryCache.evictUserAfterCommit(userId);
         return accountRepository.save(account);
     }
 
     // 입금 메소드
+    /**
+     * 이체를 요청하고 결과를 future 로 받는다.
+     *
+     * transfer.group-commit.enabled 이면 그룹 커밋 파이프라인에 넣어서 다른 이체와 트랜잭션 하나로 커밋한다.
+     * 이 경우 호출한 쪽의 트랜잭션에는 참여하지 않는다. 꺼져 있으면 transfer 를 바로 실행하고 완료된 future 를 돌려준다.
+     * 잔액 부족, 한도 초과, 없는 계좌는 예외 대신 FAILED 결과로 끝난다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<TransferResult> transferAsync(Long fromAccountId, Long toAccountId, Money amount) {
+        if (groupCommitTransferPipeline != null) {
+            return groupCommitTransferPipeline.submit(fromAccountId, toAccountId, amount);
+        }
+        TransferCommand command = new TransferCommand(fromAccountId, toAccountId, amount.toBigDecimal());
+        try {
+            transfer(fromAccountId, toAccountId, amount);
+            return CompletableFuture.completedFuture(TransferResult.success(0, command));
+        } catch (AccountNotFoundException | DailyLimitExceedException | InsufficientBalanceException | IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(TransferResult.failed(0, command, e.getMessage()));
+        }
+    }
+
+    // 재시도가 가능하도록 트랜잭션을 직접 열지 않는다. 바깥 트랜잭션이 있으면 참여한다.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        transfer(fromAccountId, toAccountId, Money.of(amount));
+    }
 
-        try {
-            // 출입금할 계좌 조회
-            Account fromAccount = getAccountById(fromAccountId);
-            Account toAccount = getAccountById(toAccountId);
-            log.debug("서비스 호출!!");
-            log.debug("Transfer from {} to {}: {}", fromAccountId, toAccountId, amount);
-
-            // 자동 충전 로직
-            if (fromAccount.getBalance().compareTo(amount) < 0) {
-                BigDecimal chargeAmount = amount.subtract(fromAccount.getBalance())
-                        .divide(AUTO_CHARGE_UNIT, 0, BigDecimal.ROUND_UP) // 올림처리해서 만원 단위로 충전
-                        .multiply(AUTO_CHARGE_UNIT);
-                dailyLimitService.checkAndUpdateDailyLimit(fromAccount, chargeAmount);  // 자동 충전에 대한 한도 체크
-                deposit(fromAccount, chargeAmount); // 보내는 계좌 충전
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        if (ledgerEngine != null) {
+            ledgerEngine.transfer(fromAccountId, toAccountId, amount);
+            return;
+        }
+        if (conditionalUpdateTransferEngine != null) {
+            conditionalUpdateTransferEngine.transfer(fromAccountId, toAccountId, amount);
+            return;
+        }
+        if (pendingTransferEngine != null) {
+            pendingTransferEngine.send(fromAccountId, toAccountId, amount);
+            return;
+        }
+
+        // 받는 계좌가 hot account 면 보내는 계좌만 확보한다. 받는 계좌 행은 읽지도 잠그지도 않는다.
+        if (hotAccountLedger != null && hotAccountLedger.isHot(toAccountId)) {
+            transferConcurrencyStrategy.execute(fromAccountId,
+                    fromAccount -> applyTransfer(fromAccount, null, fromAccountId, toAccountId, amount));
+            return;
+        }
+
+        // 계좌 확보(조회 + 동시성 제어)와 트랜잭션 경계는 transfer.concurrency.mode 전략에 맡긴다.
+        transferConcurrencyStrategy.execute(fromAccountId, toAccountId,
+                (fromAccount, toAccount) -> applyTransfer(fromAccount, toAccount, fromAccountId, toAccountId, amount));
+    }
+
+    // toAccount 가 null 이면 받는 쪽은 hot account 슬롯에 입금한다.
+    private void applyTransfer(Account fromAccount, Account toAccount, Long fromAccountId, Long toAccountId, Money amount) {
+        log.debug("Transfer from {} to {}: {}", fromAccountId, toAccountId, amount);
+        sweepIfShort(fromAccount, amount);
+
+        // 자동 충전 로직
+        if (fromAccount.getBalanceMoney().isLessThan(amount)) {
+            Money chargeAmount = calculateAutoChargeAmount(fromAccount.getBalanceMoney(), amount);
+            dailyLimitService.checkAndUpdateDailyLimit(fromAccount, chargeAmount);  // 자동 충전에 대한 한도 체크
+            deposit(fromAccount, chargeAmount); // 보내는 계좌 충전
+        }
+
+        // 이체 로직
+        dailyLimitService.checkAndUpdateDailyLimit(fromAccount, amount);
+        withdraw(fromAccount, amount); // 보내는 계좌에서 출금
+        long transferId = transactionBatchRepository.nextTransferId();
+        if (toAccount == null) {
+            depositToSlot(toAccountId, amount, fromAccountId, transferId);
+        } else {
+            // 받는 계좌에 입금 : 받은 쪽 행에 보낸 계좌를 남긴다
+            toAccount.updateBalance(toAccount.getBalanceMoney().plus(amount));
+            transactionBatchRepository.append(Transaction.createTransfer(toAccount, TransactionType.DEPOSIT, amount,
+                    TransferDirection.INCOMING, fromAccountId, transferId));
+            accountSummaryCache.evictAfterCommit(toAccountId);
+        }
+
+        // 로그 작성
+        Transaction transaction = Transaction.createTransfer(fromAccount, TransactionType.TRANSFER, amount,
+                TransferDirection.OUTGOING, toAccountId, transferId);
+        transactionBatchRepository.append(transaction);
+        log.debug("Transfer completed. New balance for {}: {}", fromAccountId, fromAccount.getBalanceMoney());
+    }
+
+    // hot account 입금 : 슬롯 하나에만 더하고, 거래 내역은 계좌 프록시로 남긴다.
+    private void depositToSlot(Long accountId, Money amount, Long fromAccountId, long transferId) {
+        hotAccountLedger.credit(accountId, amount);
+        Transaction transaction = Transaction.createTransfer(transactionBatchRepository.accountReference(accountId),
+                TransactionType.DEPOSIT, amount, TransferDirection.INCOMING, fromAccountId, transferId);
+        transactionBatchRepository.append(transaction);
+        accountSummaryCache.evictAfterCommit(accountId);
+    }
+
+    // hot account 에서 출금할 때 정리된 잔액이 모자라면 슬롯 잔액을 먼저 계좌 행으로 옮긴다.
+    private void sweepIfShort(Account account, Money amount) {
+        if (hotAccountLedger != null && hotAccountLedger.isHot(account.getId())
+                && account.getBalanceMoney().isLessThan(amount)) {
+            hotAccountLedger.sweepInto(account);
+        }
+    }
+
+
+    /**
+     * 여러 건의 이체를 하나의 트랜잭션으로 처리한다. (급여 지급 같은 대량 송금용)
+     * 실패한 항목만 FAILED 로 남기고 나머지는 반영한다.
+     */
+    public List<TransferResult> transferBatch(List<TransferCommand> commands) {
+        return transferBatch(commands, false);
+    }
+
+    /**
+     * 여러 건의 이체를 하나의 트랜잭션으로 처리한다.
+     *
+     * 관련된 모든 계좌를 findAllById 로 한 번에 읽고, 메모리에서 순서대로 이체를 적용한 뒤
+     * 잔액은 dirty checking(hibernate batch update)으로, 거래 내역은 JDBC batch insert 로 기록한다.
+     * 각 항목은 검증을 모두 통과한 뒤에만 계좌 상태를 바꾸기 때문에, 실패한 항목이 다른 항목에 영향을 주지 않는다.
+     *
+     * 이체 전략(transfer.strategy)별 동작
+     * - ledger : 항목마다 원장에 위임한다. atomic 은 지원하지 않는다
+     * - conditional : 이 JPA 경로를 그대로 쓴다. 조건부 UPDATE 도 version 을 올리고 일일 한도도 같은 메모리 카운터를 쓰므로 규칙은 단건 이체와 같다
+     * - pending : 즉시 입금이라 수령 대기 규칙을 지킬 수 없어 거부한다. 정산 실행과 자동이체는 이 모드에서 돌지 않는다
+     *
+     * @param commands 이체 요청 목록 (순서대로 적용)
+     * @param atomic   true 면 한 건이라도 실패할 때 전체를 롤백한다
+     * @return 요청 순서와 같은 순서의 항목별 결과
+     * @throws IllegalStateException transfer.strategy 가 pending 인 경우
+     */
+    public List<TransferResult> transferBatch(List<TransferCommand> commands, boolean atomic) {
+        if (ledgerEngine != null) {
+            return transferBatchOnLedger(commands, atomic);
+        }
+        if (pendingTransferEngine != null) {
+            throw new IllegalStateException("Batch transfer is not supported with transfer.strategy=pending");
+        }
+
+        Map<Long, Account> accounts = loadAccounts(commands);
+        List<TransferResult> results = new ArrayList<>(commands.size());
+        List<Transaction> records = new ArrayList<>(commands.size() * 3);
+
+        for (int i = 0; i < commands.size(); i++) {
+            TransferCommand command = commands.get(i);
+            try {
+                applyTransfer(accounts, command, records);
+                results.add(TransferResult.success(i, command));
+            } catch (AccountNotFoundException | DailyLimitExceedException | InsufficientBalanceException | IllegalArgumentException e) {
+                results.add(TransferResult.failed(i, command, e.getMessage()));
+                if (atomic) {
+                    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                    return rollBackAll(commands, i, e.getMessage());
+                }
             }
+        }
+
+        transactionBatchRepository.insertAll(records);
+        accountSummaryCache.evictAllAfterCommit(accounts.keySet());
+        log.debug("Batch transfer completed. {} items, {} transaction rows", commands.size(), records.size());
+        return results;
+    }
+
+    // 관련 계좌를 IN 절 단위로 나눠서 한 번씩만 조회
+    private Map<Long, Account> loadAccounts(List<TransferCommand> commands) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (TransferCommand command : commands) {
+            ids.add(command.getFromAccountId());
+            ids.add(command.getToAccountId());
+        }
+
+        List<Long> idList = new ArrayList<>(ids);
+        Map<Long, Account> accounts = new HashMap<>(idList.size() * 2);
+        for (int from = 0; from < idList.size(); from += ACCOUNT_LOAD_CHUNK) {
+            List<Long> chunk = idList.subList(from, Math.min(from + ACCOUNT_LOAD_CHUNK, idList.size()));
+            for (Account account : accountRepository.findAllById(chunk)) {
+                accounts.put(account.getId(), account);
+            }
+        }
+        return accounts;
+    }
+
+    // 단건 이체와 같은 규칙(자동 충전 + 일일 한도)을 적용하되, 모든 검증이 끝난 뒤에 상태를 바꾼다.
+    private void applyTransfer(Map<Long, Account> accounts, TransferCommand command, List<Transaction> records) {
+        if (command.getAmount() == null || command.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        Money amount = Money.of(command.getAmount());
+        Account fromAccount = requireAccount(accounts, command.getFromAccountId());
+        Account toAccount = requireAccount(accounts, command.getToAccountId());
+        sweepIfShort(fromAccount, amount); // 잔액 합계는 그대로라 검증 전에 옮겨도 된다
+
+        Money chargeAmount = Money.ZERO;
+        if (fromAccount.getBalanceMoney().isLessThan(amount)) {
+            chargeAmount = calculateAutoChargeAmount(fromAccount.getBalanceMoney(), amount);
+        }
+        // 충전 + 이체 금액을 한 번에 확인 -> 초과 시 사용량은 변경되지 않는다.
+        dailyLimitService.checkAndUpdateDailyLimit(fromAccount, chargeAmount.plus(amount));
 
-            // 이체 로직
-            dailyLimitService.checkAndUpdateDailyLimit(fromAccount, amount);
-            withdraw(fromAccount, amount); // 보내는 계좌에서 출금
-            deposit(toAccount, amount);  // 보내는 계좌에서 입금
+        if (chargeAmount.isPositive()) {
+            fromAccount.updateBalance(fromAccount.getBalanceMoney().plus(chargeAmount));
+            records.add(Transaction.createTransaction(fromAccount, TransactionType.DEPOSIT, chargeAmount, "Deposit"));
+        }
+        fromAccount.updateBalance(fromAccount.getBalanceMoney().minus(amount));
+        records.add(Transaction.createTransaction(fromAccount, TransactionType.WITHDRAW, amount, "Withdraw"));
+        long transferId = transactionBatchRepository.nextTransferId();
+        if (hotAccountLedger != null && hotAccountLedger.isHot(toAccount.getId())) {
+            // hot account 는 단건 이체와 같이 슬롯에 입금한다. 계좌 행은 바꾸지 않으므로 UPDATE 도 나가지 않는다.
+            hotAccountLedger.credit(toAccount.getId(), amount);
+            records.add(Transaction.createTransfer(transactionBatchRepository.accountReference(toAccount.getId()),
+                    TransactionType.DEPOSIT, amount, TransferDirection.INCOMING, command.getFromAccountId(), transferId));
+        } else {
+            toAccount.updateBalance(toAccount.getBalanceMoney().plus(amount));
+            records.add(Transaction.createTransfer(toAccount, TransactionType.DEPOSIT, amount,
+                    TransferDirection.INCOMING, command.getFromAccountId(), transferId));
+        }
+        records.add(Transaction.createTransfer(fromAccount, TransactionType.TRANSFER, amount,
+                TransferDirection.OUTGOING, command.getToAccountId(), transferId));
+    }
 
-            // 로그 작성
-            Transaction transaction = Transaction.createTransaction(fromAccount, TransactionType.TRANSFER,
-                    amount, "송금: " + fromAccountId + "->" + toAccountId);
-            fromAccount.addTransaction(transaction);
-            log.debug("Transfer completed. New balance for {}: {}", fromAccountId, fromAccount.getBalance());
-        } catch (OptimisticLockingFailureException e) { // 낙관적 락 발생 시
-            throw new CollisionException("trasfer collison");
+    private Account requireAccount(Map<Long, Account> accounts, Long accountId) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found with id: " + accountId);
         }
+        return account;
+    }
 
+    private List<TransferResult> rollBackAll(List<TransferCommand> commands, int failedIndex, String message) {
+        List<TransferResult> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            results.add(i == failedIndex
+                    ? TransferResult.failed(i, commands.get(i), message)
+                    : TransferResult.rolledBack(i, commands.get(i)));
+        }
+        return results;
+    }
 
+    // 원장 모드에서는 항목마다 원장에 위임한다. 원장은 이미 적용된 이체를 되돌릴 수 없어 atomic 을 지원하지 않는다.
+    private List<TransferResult> transferBatchOnLedger(List<TransferCommand> commands, boolean atomic) {
+        if (atomic) {
+            throw new IllegalStateException("Atomic batch transfer is not supported with transfer.strategy=ledger");
+        }
+        List<TransferResult> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            TransferCommand command = commands.get(i);
+            try {
+                ledgerEngine.transfer(command.getFromAccountId(), command.getToAccountId(), Money.of(command.getAmount()));
+                results.add(TransferResult.success(i, command));
+            } catch (AccountNotFoundException | DailyLimitExceedException | InsufficientBalanceException e) {
+                results.add(TransferResult.failed(i, command, e.getMessage()));
+            }
+        }
+        return results;
     }
 
+    // 부족한 금액을 올림처리해서 만원 단위로 충전
+    public static Money calculateAutoChargeAmount(Money balance, Money amount) {
+        return amount.minus(balance).roundUpTo(AUTO_CHARGE_UNIT);
+    }
 
     public void deposit(Account account, BigDecimal amount) {
-        account.updateBalance(account.getBalance().add(amount));
+        deposit(account, Money.of(amount));
+    }
+
+    public void deposit(Account account, Money amount) {
+        account.updateBalance(account.getBalanceMoney().plus(amount));
         Transaction transaction = Transaction.createTransaction(account,TransactionType.DEPOSIT, amount, "Deposit");
-        account.addTransaction(transaction);
+        transactionBatchRepository.append(transaction);
+        accountSummaryCache.evictAfterCommit(account.getId());
     }
     // 출금 메소드
 
     public void withdraw(Account account, BigDecimal amount) {
+        withdraw(account, Money.of(amount));
+    }
+
+    public void withdraw(Account account, Money amount) {
+        sweepIfShort(account, amount);
         // 현재 계좌가 충분한지 확인
-        if (account.getBalance().compareTo(amount) < 0) {
+        if (account.getBalanceMoney().isLessThan(amount)) {
             throw new InsufficientBalanceException("Insufficient balance");
         }
 
         // 계좌 차감
-        account.updateBalance(account.getBalance().subtract(amount));
+        account.updateBalance(account.getBalanceMoney().minus(amount));
         Transaction transaction = Transaction.createTransaction(account, TransactionType.WITHDRAW, amount, "Withdraw");
-        account.addTransaction(transaction);
+        transactionBatchRepository.append(transaction);
+        accountSummaryCache.evictAfterCommit(account.getId());
     }
 
 
@@ -104,4 +385,12 @@ public class AccountService {
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + accountId));
     }
 
+    // 잔액 / 계좌 정보 조회. 캐시에 있으면 트랜잭션(커넥션) 없이 바로 돌려준다.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AccountSummary getAccountSummary(Long accountId) {
+        return accountSummaryCache.get(accountId, id -> hotAccountLedger == null
+                ? AccountSummary.from(getAccountById(id))
+                : hotAccountLedger.summarize(getAccountById(id)));
+    }
+
 }
@@ -0,0 +1,36 @@
+package com.mwkim.projecthub.minipay.service;
+
+import com.mwkim.projecthub.minipay.dto.DailyStatsSummary;
+import com.mwkim.projecthub.minipay.repository.AccountDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountStatsService {
+
+    private final AccountDailyStatsRepository accountDailyStatsRepository;
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    // 기간 집계 : transaction 테이블을 GROUP BY 하지 않고, 일별 집계 행(일 수 * 종류 수)만 읽는다.
+    public DailyStatsSummary getDailyStats(Long accountId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days");
+        }
+        return new DailyStatsSummary(accountId, from, to, accountDailyStatsRepository.findDailyStats(accountId, from, to));
+    }
+
+    public DailyStatsSummary getMonthlyStats(Long accountId, YearMonth month) {
+        return getDailyStats(accountId, month.atDay(1), month.atEndOfMonth());
+    }
+}
@@ -3,35 +3,74 @@ package com.mwkim.projecthub.minipay.service;
 
 import com.mwkim.projecthub.minipay.entity.Account;
 import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
+import com.mwkim.projecthub.minipay.limit.DailyUsage;
+import com.mwkim.projecthub.minipay.limit.DailyUsageStore;
+import com.mwkim.projecthub.minipay.money.Money;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 @Service
+@RequiredArgsConstructor
 public class DailyLimitService {
 
-    private AccountService accountService;
+    private final DailyUsageStore dailyUsageStore;
 
-    private static final BigDecimal DAILY_LIMIT = new BigDecimal("3000000");
+    public static final Money DAILY_LIMIT = Money.of(3_000_000);
 
-    public void checkAndUpdateDailyLimit(Account account, BigDecimal amount) {
-        LocalDateTime now = LocalDateTime.now();
+    public void checkAndUpdateDailyLimit(Account account, Money amount) {
+        long won = amount.longValue();
 
-        // 날짜가 바꼈다면, 일일한도 갱신
-        if (account.getLastWithdrawalReset().toLocalDate().isBefore(now.toLocalDate())) {
-            account.updateDailyUseAmount(BigDecimal.ZERO);
-            account.updateLastWithdrawalReset(now);
+        // 한도 확인 + 누적을 메모리 카운터에서 CAS 한 번으로 처리 (날짜가 바뀌었다면 0 부터 다시 누적)
+        boolean added = dailyUsageStore.tryAdd(account.getId(), won, DAILY_LIMIT.longValue(),
+                account.getDailyUseMoney().longValue(), account.getLastWithdrawalReset().toLocalDate());
+        if (!added) {
+            throw new DailyLimitExceedException("Daily deposit limit exceeded");
         }
 
-        // 일일한도가 초과되었는지 확인
-        if (account.getDailyUseAmount().add(amount).compareTo(DAILY_LIMIT) > 0) {
+        long epochDay = dailyUsageStore.currentEpochDay();
+        releaseOnRollback(account.getId(), won, epochDay);
+
+        // write-behind : 엔티티에만 반영하고, 이체 트랜잭션이 커밋될 때 함께 기록된다.
+        account.updateDailyUseAmount(Money.of(dailyUsageStore.usage(account.getId())));
+        if (account.getLastWithdrawalReset().toLocalDate().toEpochDay() != epochDay) {
+            account.updateLastWithdrawalReset(dailyUsageStore.startOfToday());
+        }
+    }
+
+    /**
+     * 엔티티 없이 계좌 id 로 한도를 확인하고 누적한다. (transfer.strategy: conditional)
+     * 규칙은 checkAndUpdateDailyLimit 과 같고, DB 에 기록된 사용량은 이 노드에 카운터가 없을 때만 읽는다.
+     *
+     * @param persisted DB 에 기록된 사용량 조회
+     * @return 누적 후 오늘 사용량 (write-behind 로 함께 기록할 값)
+     */
+    public long checkAndAddUsage(Long accountId, Money amount, Supplier<DailyUsage> persisted) {
+        long won = amount.longValue();
+        DailyUsage seed = dailyUsageStore.isTracked(accountId) ? DailyUsage.NONE : persisted.get();
+        if (!dailyUsageStore.tryAdd(accountId, won, DAILY_LIMIT.longValue(), seed.amount(), seed.date())) {
             throw new DailyLimitExceedException("Daily deposit limit exceeded");
         }
+        releaseOnRollback(accountId, won, dailyUsageStore.currentEpochDay());
+        return dailyUsageStore.usage(accountId);
+    }
 
-        // 일일 사용량 증가
-        account.updateDailyUseAmount(account.getDailyUseAmount().add(amount));
+    // 트랜잭션이 롤백되면 메모리 카운터에 더한 사용량도 되돌린다.
+    private void releaseOnRollback(Long accountId, long won, long epochDay) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    dailyUsageStore.release(accountId, won, epochDay);
+                }
+            }
+        });
     }
 
 
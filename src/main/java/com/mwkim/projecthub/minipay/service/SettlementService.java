@@ -3,21 +3,27 @@ package com.mwkim.projecthub.minipay.service;
 import com.mwkim.projecthub.minipay.entity.Settlement;
 import com.mwkim.projecthub.minipay.entity.SettlementParticipant;
 import com.mwkim.projecthub.minipay.entity.User;
+import com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus;
 import com.mwkim.projecthub.minipay.enums.SettlementType;
 import com.mwkim.projecthub.minipay.exception.custom.ParticipantNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.SettlementAlreadyExecutedException;
 import com.mwkim.projecthub.minipay.exception.custom.SettlementNotFoundException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantBatchRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantRepository;
 import com.mwkim.projecthub.minipay.repository.SettlementRepository;
+import com.mwkim.projecthub.minipay.settlement.SettlementExecutor;
+import com.mwkim.projecthub.minipay.settlement.ShareAllocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -26,126 +32,147 @@ public class SettlementService {
 
     private final SettlementRepository settlementRepository;
     private final UserService userService;
+    private final SettlementParticipantRepository settlementParticipantRepository;
+    private final SettlementExecutor settlementExecutor;
+    private final ShareAllocator shareAllocator;
+    private final SettlementParticipantBatchRepository settlementParticipantBatchRepository;
+
+    private static final int STREAMING_PARTICIPANT_THRESHOLD = 10_000; // 이 인원 이상이면 참여자를 컬렉션 없이 흘려서 기록
 
 
     // 정산 생성
     public Settlement createSettlement(Long requesterId, BigDecimal totalAmount, SettlementType type, List<Long> participantIds) {
         User requester = userService.getUserById(requesterId);
-        Settlement settlement = Settlement.createSettlement(requester, totalAmount, type);
-
-        // 참여하는 모든 참여자들의 아이디 조회
-        List<User> participants = participantIds.stream()
-                .map(userService::getUserById)
-                .collect(Collectors.toList());
+        Money total = Money.of(totalAmount);
+        Settlement settlement = Settlement.createSettlement(requester, total, type);
 
-        // shares : 각 정산 금액이 리스트마다 들어감.
-        // calculateShares := 정산 금액 계산
-        List<BigDecimal> shares = calculateShares(totalAmount, participants.size(), type);
+        // 참여자 존재 여부는 id 만 한 번에 확인하고, 없는 id 는 모아서 한 번에 알려준다.
+        List<Long> missingIds = userService.findMissingUserIds(participantIds);
+        if (!missingIds.isEmpty()) {
+            throw new ParticipantNotFoundException("Participants not found with ids: " + missingIds, missingIds);
+        }
 
-        for (int i = 0; i < participants.size(); i++) {
-            SettlementParticipant participant = SettlementParticipant.createSettlementParticipant(participants.get(i), shares.get(i));
-            settlement.addParticipant(participant);
+        int participantCount = participantIds.size();
+        if (participantCount >= STREAMING_PARTICIPANT_THRESHOLD) {
+            return createLargeSettlement(settlement, total, type, participantIds);
         }
 
+        // 몫은 리스트로 모으지 않고 계산되는 대로 참여자로 만든다.
+        // 참여자는 FK 만 필요하므로 User 를 읽지 않고 프록시로 연결한다.
+        shareAllocator.allocate(total.longValue(), participantCount, type, (i, share) ->
+                settlement.addParticipant(SettlementParticipant.createSettlementParticipant(
+                        userService.getUserReference(participantIds.get(i)), Money.of(share))));
+
+        // 참여자는 cascade 로 함께 저장된다. pooled id 라 flush 시점에 hibernate.jdbc.batch_size 단위 batch insert 로 나간다.
         return settlementRepository.save(settlement);
     }
 
-    /**
-     * 정산 금액을 계산하는 메소드
-     * @param totalAmount 총 금액
-     * @param participantCount 참가자 수
-     * @param type 정산 유형 (EQUAL 또는 RANDOM)
-     * @return 각 참가자의 정산 금액 리스트
-     */
-    private List<BigDecimal> calculateShares(BigDecimal totalAmount, int participantCount, SettlementType type) {
-        List<BigDecimal> shares = new ArrayList<>();
-
-        switch (type) {
-            case EQUAL:
-                shares = calculateEqualShares(totalAmount, participantCount);
-                break;
-            case RANDOM:
-                shares = calculateRandomShares(totalAmount, participantCount);
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported settlement type: " + type);
-        }
+    // 대량 정산 : 정산을 먼저 저장하고, 참여자는 컬렉션에 담지 않고 batch 단위로 흘려서 기록한다. (반환된 정산의 participants 는 비어 있다)
+    private Settlement createLargeSettlement(Settlement settlement, Money total, SettlementType type, List<Long> participantIds) {
+        settlement.addPendingParticipants(participantIds.size());
+        Settlement saved = settlementRepository.save(settlement);
 
-        return shares;
+        SettlementParticipantBatchRepository.Writer writer = settlementParticipantBatchRepository.writer(saved);
+        shareAllocator.allocate(total.longValue(), participantIds.size(), type,
+                (i, share) -> writer.append(participantIds.get(i), Money.of(share)));
+        writer.finish();
+        return saved;
+    }
+
+    // 정산 승인
+    public void approveSettlement(Long participantId, Long settlementId) {
+        changeParticipantStatus(settlementId, participantId, SettlementParticipantStatus.APPROVED);
     }
 
-    private List<BigDecimal> calculateEqualShares(BigDecimal totalAmount, int participantCount) {
-        List<BigDecimal> shares = new ArrayList<>();
-        // 총 정산 금액 / 인원수 -> 소수점은 버림처리 -> 1000 / 3 = 333.333  ---> 333
-        BigDecimal share = totalAmount.divide(BigDecimal.valueOf(participantCount), 0, RoundingMode.DOWN);
+    // 정산 거절
+    public void rejectSettlement(Long participantId, Long settlementId) {
+        changeParticipantStatus(settlementId, participantId, SettlementParticipantStatus.REJECTED);
+    }
 
-        // 마지막 참가자를 제외한 모든 참가자에게 기본 금액 할당
-        for (int i = 0; i < participantCount - 1; i++) { // -1을 하는 이유는 정산금액 보장을 위함(아래 더 설명)
-            shares.add(share);
+    /**
+     * 회원이 참여한 PENDING 정산을 한 번에 승인한다.
+     *
+     * 대상 참여 행을 먼저 잠그고(FOR UPDATE) UPDATE 한 번으로 승인한 뒤, 정산별 인원수를 조정한다.
+     * 잠금 순서는 단건 승인과 같다 (참여자 -> 정산).
+     *
+     * @param settlementIds 승인할 정산 id. 비어있거나 null 이면 PENDING 인 정산 전체
+     * @return 승인된 참여 행 수
+     */
+    public int approveAllPending(Long userId, Collection<Long> settlementIds) {
+        boolean all = settlementIds == null || settlementIds.isEmpty();
+        List<Long> locked = all
+                ? settlementParticipantRepository.lockPendingSettlementIds(userId)
+                : settlementParticipantRepository.lockPendingSettlementIds(userId, settlementIds);
+        if (locked.isEmpty()) {
+            return 0;
         }
 
-        // 마지막 참가자에게 남은 금액 전체 할당
-        // 1000 - 666 = 334 (이렇게 하면, 정산 금액을 보장할 수 있다.)
-        BigDecimal lastShare = totalAmount.subtract(share.multiply(BigDecimal.valueOf(participantCount - 1)));
-        shares.add(lastShare);
+        int approved = all
+                ? settlementParticipantRepository.approveAllPending(userId)
+                : settlementParticipantRepository.approveAllPending(userId, settlementIds);
 
-        return shares;
+        Map<Long, Integer> perSettlement = new HashMap<>();
+        for (Long settlementId : locked) {
+            perSettlement.merge(settlementId, 1, Integer::sum);
+        }
+        perSettlement.forEach((settlementId, count) -> {
+            requireNotExecuted(settlementId, settlementRepository.adjustCounts(settlementId, -count, count, 0));
+            settlementExecutor.requestIfReady(settlementId);
+        });
+        return approved;
     }
 
-    private List<BigDecimal> calculateRandomShares(BigDecimal totalAmount, int participantCount) {
-        List<BigDecimal> shares = new ArrayList<>();
-        Random random = new Random();
-
-        BigDecimal totalDistributed = BigDecimal.ZERO;
-
-        for (int i = 0; i < participantCount - 1; i++) {
-            double randomFactor = random.nextDouble();
-            BigDecimal share = totalAmount.multiply(BigDecimal.valueOf(randomFactor))
-                    .setScale(0, RoundingMode.DOWN);
+    // 정산 진행 상태 : 참여자를 읽지 않고 인원수 컬럼만 본다.
+    @Transactional(readOnly = true)
+    public boolean isSettlementCompleted(Long settlementId) {
+        return settlementRepository.findById(settlementId)
+                .orElseThrow(() -> new SettlementNotFoundException("Settlement not found"))
+                .isCompleted();
+    }
 
-            // 최소 1원 보장
-            if (share.compareTo(BigDecimal.ONE) < 0) {
-                share = BigDecimal.ONE;
+    /**
+     * (settlement_id, user_id) 로 참여자 상태를 직접 바꾸고, 바뀐 행 수만큼 정산의 인원수를 옮긴다.
+     * 정산 전체나 참여자 목록을 읽지 않으므로 그룹 크기와 무관하고, 같은 정산의 다른 참여자와는 정산 행 UPDATE 에서만 잠깐 겹친다.
+     */
+    private void changeParticipantStatus(Long settlementId, Long userId, SettlementParticipantStatus to) {
+        List<SettlementParticipantStatus> statuses = settlementParticipantRepository.findStatuses(settlementId, userId);
+        if (statuses.isEmpty()) {
+            if (!settlementRepository.existsById(settlementId)) {
+                throw new SettlementNotFoundException("Settlement not found");
             }
-
-            shares.add(share);
-            totalDistributed = totalDistributed.add(share);
+            throw new ParticipantNotFoundException("Participant not found");
         }
 
-        // 마지막 참가자에게 남은 금액 할당
-        BigDecimal lastShare = totalAmount.subtract(totalDistributed);
-        shares.add(lastShare);
-
-        return shares;
+        for (SettlementParticipantStatus from : EnumSet.copyOf(statuses)) {
+            if (from == to) {
+                continue;
+            }
+            int changed = settlementParticipantRepository.updateStatus(settlementId, userId, from, to);
+            if (changed > 0) {
+                requireNotExecuted(settlementId, settlementRepository.adjustCounts(settlementId,
+                        delta(SettlementParticipantStatus.PENDING, from, to, changed),
+                        delta(SettlementParticipantStatus.APPROVED, from, to, changed),
+                        delta(SettlementParticipantStatus.REJECTED, from, to, changed)));
+            }
+        }
+        if (to == SettlementParticipantStatus.APPROVED) {
+            // 마지막 승인이면 송금 실행을 예약한다 (커밋 후 워커에서 실행)
+            settlementExecutor.requestIfReady(settlementId);
+        }
     }
 
-    // 정산 승인
-    public void approveSettlement(Long participantId, Long settlementId) {
-        Settlement settlement = settlementRepository.findById(settlementId)
-                .orElseThrow(() -> new SettlementNotFoundException("Settlement not found"));
-
-        SettlementParticipant participant = settlement.getParticipants().stream()
-                .filter(p -> p.getUser().getId().equals(participantId))
-                .findFirst()
-                .orElseThrow(() -> new ParticipantNotFoundException("Participant not found"));
-
-        participant.approve();
-        settlementRepository.save(settlement);
+    // 송금 대기(QUEUED) 이후에는 인원수가 바뀌지 않는다 -> 참여자 변경까지 롤백
+    private static void requireNotExecuted(Long settlementId, int adjusted) {
+        if (adjusted == 0) {
+            throw new SettlementAlreadyExecutedException("Settlement is already queued or executed: " + settlementId);
+        }
     }
 
-    // 정산 거절
-    public void rejectSettlement(Long participantId, Long settlementId) {
-        Settlement settlement = settlementRepository.findById(settlementId)
-                .orElseThrow(() -> new SettlementNotFoundException("Settlement not found"));
-
-        SettlementParticipant participant = settlement.getParticipants().stream()
-                .filter(p -> p.getUser().getId().equals(participantId))
-                .findFirst()
-                .orElseThrow(() -> new ParticipantNotFoundException("Participant not found"));
-
-        participant.reject();
-        settlementRepository.save(settlement);
+    private static int delta(SettlementParticipantStatus counter, SettlementParticipantStatus from,
+                             SettlementParticipantStatus to, int changed) {
+        if (counter == from) {
+            return -changed;
+        }
+        return counter == to ? changed : 0;
     }
-
-
 }
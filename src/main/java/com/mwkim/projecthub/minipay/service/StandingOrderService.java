@@ -0,0 +1,61 @@
+package com.mwkim.projecthub.minipay.service;
+
+import com.mwkim.projecthub.minipay.dto.StandingOrderRequest;
+import com.mwkim.projecthub.minipay.entity.StandingOrder;
+import com.mwkim.projecthub.minipay.enums.StandingOrderStatus;
+import com.mwkim.projecthub.minipay.exception.custom.StandingOrderNotFoundException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.StandingOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StandingOrderService {
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final AccountRepository accountRepository;
+
+    // 예약 / 자동 이체 등록. 보내는 계좌는 등록하는 회원의 계좌여야 한다.
+    public StandingOrder register(Long userId, StandingOrderRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (request.getRecurrence() == null || request.getFirstRunAt() == null) {
+            throw new IllegalArgumentException("Recurrence and first run time are required");
+        }
+        if (request.getFromAccountId() == null || request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new IllegalArgumentException("Invalid transfer accounts");
+        }
+        if (request.getFirstRunAt().truncatedTo(ChronoUnit.MINUTES).isBefore(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES))) {
+            throw new IllegalArgumentException("First run time must not be in the past");
+        }
+        requireOwner(request.getFromAccountId(), userId);
+
+        return standingOrderRepository.save(StandingOrder.createStandingOrder(userId, request.getFromAccountId(),
+                request.getToAccountId(), Money.of(request.getAmount()), request.getRecurrence(), request.getFirstRunAt()));
+    }
+
+    // 해지. 실행 중인 묶음이 잠근 주문이면 그 묶음이 끝날 때까지 기다린다.
+    public void cancel(Long userId, Long standingOrderId) {
+        StandingOrder order = standingOrderRepository.findByIdForUpdate(standingOrderId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new StandingOrderNotFoundException("Standing order not found: " + standingOrderId));
+        if (order.getStatus() != StandingOrderStatus.ACTIVE) {
+            throw new StandingOrderNotFoundException("Standing order is no longer active: " + standingOrderId);
+        }
+        order.cancel();
+    }
+
+    private void requireOwner(Long accountId, Long userId) {
+        if (!accountRepository.findIdsByUserId(userId).contains(accountId)) {
+            throw new IllegalArgumentException("Account " + accountId + " does not belong to user " + userId);
+        }
+    }
+}
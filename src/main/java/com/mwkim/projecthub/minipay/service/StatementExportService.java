@@ -0,0 +1,231 @@
+package com.mwkim.projecthub.minipay.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mwkim.projecthub.minipay.config.StatementExportProperties;
+import com.mwkim.projecthub.minipay.enums.StatementFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 계좌 거래 내역서를 CSV / NDJSON 으로 스트리밍한다.
+ *
+ * 엔티티를 거치지 않고 forward-only ResultSet 을 한 행씩 읽어서 바로 응답 스트림에 쓴다.
+ * 영속성 컨텍스트에 아무것도 쌓이지 않고 JDBC 드라이버도 fetch size 만큼만 들고 있기 때문에,
+ * 내역이 수백만 건이어도 힙 사용량은 일정하다.
+ *
+ * 주의: MySQL 스트리밍 중에는 해당 커넥션으로 다른 쿼리를 실행할 수 없다. 그래서 트랜잭션에 참여하지 않고 전용 커넥션으로 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementExportService {
+
+    private static final String CSV_HEADER =
+            "id,transaction_date,type,status,amount,description,direction,counterparty_account_id,transfer_id\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final StatementExportProperties properties;
+
+    /**
+     * @param from 시작 시각 (포함, null 이면 처음부터)
+     * @param to   끝 시각 (미포함, null 이면 끝까지)
+     * @param gzip true 면 gzip 으로 압축해서 쓴다
+     */
+    public void export(Long accountId, LocalDateTime from, LocalDateTime to, StatementFormat format,
+                       boolean gzip, OutputStream out) throws IOException {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        OutputStream target = gzip
+                ? new GZIPOutputStream(out, properties.getBufferSize())
+                : new BufferedOutputStream(out, properties.getBufferSize());
+        RowWriter writer = format == StatementFormat.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+
+        long rows;
+        try {
+            writer.begin();
+            rows = streamRows(accountId, from, to, writer);
+            writer.end();
+        } finally {
+            target.close(); // gzip trailer 까지 기록
+        }
+        log.debug("Statement export for account {} completed. {} rows", accountId, rows);
+    }
+
+    private long streamRows(Long accountId, LocalDateTime from, LocalDateTime to, RowWriter writer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, transaction_date, type, status, amount, description, direction, counterparty_account_id, transfer_id " +
+                "FROM transaction WHERE account_id = ?");
+        List<Object> args = new ArrayList<>(3);
+        args.add(accountId);
+        if (from != null) {
+            sql.append(" AND transaction_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND transaction_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY transaction_date, id"); // idx_transaction_account_date_id 순서 그대로 읽는다
+
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(properties.getFetchSize());
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                // 클라이언트가 연결을 끊은 경우 등 -> 쿼리를 중단한다
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void end() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            Timestamp date = rs.getTimestamp(2);
+            writer.write(date == null ? "" : date.toLocalDateTime().toString());
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(3)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(4)));
+            writer.write(',');
+            writer.write(rs.getBigDecimal(5).toPlainString());
+            writer.write(',');
+            writeEscaped(rs.getString(6));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(7)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getObject(8, Long.class)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getObject(9, Long.class)));
+            writer.write('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180 : 구분자, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+
+        private static String nullToEmpty(Long value) {
+            return value == null ? "" : value.toString();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final OutputStream out;
+        private JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // 객체 사이 구분자는 아래에서 직접 쓰는 줄바꿈
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            Timestamp date = rs.getTimestamp(2);
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong(1));
+            generator.writeStringField("transactionDate", date == null ? null : date.toLocalDateTime().toString());
+            generator.writeStringField("type", rs.getString(3));
+            generator.writeStringField("status", rs.getString(4));
+            generator.writeNumberField("amount", rs.getBigDecimal(5));
+            generator.writeStringField("description", rs.getString(6));
+            generator.writeStringField("direction", rs.getString(7));
+            writeNullableNumber("counterpartyAccountId", rs.getObject(8, Long.class));
+            writeNullableNumber("transferId", rs.getObject(9, Long.class));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+
+        private void writeNullableNumber(String field, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.mwkim.projecthub.minipay.service;
 
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryItem;
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryPage;
 import com.mwkim.projecthub.minipay.entity.Account;
 import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
 import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.money.Money;
 import com.mwkim.projecthub.minipay.repository.AccountRepository;
 import com.mwkim.projecthub.minipay.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Transactional
@@ -20,12 +27,63 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
 
     public Transaction createTransaction(Account account, TransactionType type, BigDecimal amount, String description) {
-        Transaction transaction = Transaction.createTransaction(account, type, amount, description);
+        Transaction transaction = Transaction.createTransaction(account, type, Money.of(amount), description);
         return transactionRepository.save(transaction);
     }
 
+    /**
+     * 거래 내역을 keyset 방식으로 한 페이지 조회한다.
+     * size + 1 건을 읽어서 다음 페이지 존재 여부를 판단하고, 마지막 행의 (transactionDate, id) 를 다음 커서로 돌려준다.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getTransactionHistory(Long accountId, TransactionType type, TransactionStatus status,
+                                                        LocalDateTime cursorDate, Long cursorId, int size) {
+        requireCursorPair(cursorDate, cursorId);
+        int pageSize = pageSize(size);
+
+        List<TransactionHistoryItem> rows = transactionRepository.findHistory(
+                accountId, type, status, cursorDate, cursorId, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * 계좌가 상대 계좌와 주고받은 송금 내역 (보낸 쪽 / 받은 쪽 모두). 페이지 규칙은 getTransactionHistory 와 같다.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getTransfersWith(Long accountId, Long counterpartyAccountId,
+                                                   LocalDateTime cursorDate, Long cursorId, int size) {
+        requireCursorPair(cursorDate, cursorId);
+        int pageSize = pageSize(size);
+
+        List<TransactionHistoryItem> rows = transactionRepository.findTransfersWith(
+                accountId, counterpartyAccountId, cursorDate, cursorId, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    private static void requireCursorPair(LocalDateTime cursorDate, Long cursorId) {
+        if ((cursorDate == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("cursorDate and cursorId must be given together");
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    // size + 1 건 중 마지막 한 건은 다음 페이지 존재 여부 확인용
+    private static TransactionHistoryPage toPage(List<TransactionHistoryItem> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TransactionHistoryPage(rows, false, null, null);
+        }
+        List<TransactionHistoryItem> items = rows.subList(0, pageSize);
+        TransactionHistoryItem last = items.get(pageSize - 1);
+        return new TransactionHistoryPage(items, true, last.getTransactionDate(), last.getId());
+    }
+
 
 
 }
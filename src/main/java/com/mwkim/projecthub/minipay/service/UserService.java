@@ -1,5 +1,7 @@
 package com.mwkim.projecthub.minipay.service;
 
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
 import com.mwkim.projecthub.minipay.entity.Account;
 import com.mwkim.projecthub.minipay.entity.User;
 import com.mwkim.projecthub.minipay.enums.AccountType;
@@ -7,11 +9,21 @@ import com.mwkim.projecthub.minipay.exception.custom.UserAlreadyExistsException;
 import com.mwkim.projecthub.minipay.exception.custom.UserNotFoundException;
 import com.mwkim.projecthub.minipay.repository.AccountRepository;
 import com.mwkim.projecthub.minipay.repository.UserRepository;
+import com.mwkim.projecthub.minipay.subledger.HotAccountLedger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +31,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final AccountSummaryCache accountSummaryCache;
+
+    private static final int ID_CHECK_CHUNK = 1000;
+
+    // account.hot.enabled: true 일 때만 주입된다. hot account 잔액은 슬롯 잔액까지 합산해서 보여준다.
+    @Autowired(required = false)
+    private HotAccountLedger hotAccountLedger;
 
     // id로 회원 조히
     public User getUserById(Long userId) {
@@ -26,10 +45,58 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
     }
 
-    // 회원 계좌 조회
-    public List<Account> getUserAccounts(Long userId) {
-        User user = getUserById(userId);
-        return user.getAccounts();
+    /**
+     * 주어진 id 중 존재하지 않는 회원 id 를 모두 돌려준다. (중복 제거, 요청 순서 유지)
+     * IN 절 하나에 최대 ID_CHECK_CHUNK 개씩 id 만 조회한다.
+     */
+    public List<Long> findMissingUserIds(Collection<Long> userIds) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Set<Long> existing = new HashSet<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += ID_CHECK_CHUNK) {
+            existing.addAll(userRepository.findExistingIds(distinct.subList(from, Math.min(from + ID_CHECK_CHUNK, distinct.size()))));
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : distinct) {
+            if (!existing.contains(userId)) {
+                missing.add(userId);
+            }
+        }
+        return missing;
+    }
+
+    // 조회 없이 FK 용 프록시만 얻는다. 존재 여부는 findMissingUserIds 로 먼저 확인한다.
+    public User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    // 회원 계좌 조회 : 계좌 id 목록과 계좌 요약을 각각 캐시에서 읽고, 없는 것만 DB 에서 한 번에 읽는다.
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getUserAccounts(Long userId) {
+        List<Long> accountIds = accountSummaryCache.getUserAccountIds(userId, this::loadAccountIds);
+        Map<Long, AccountSummary> summaries = accountSummaryCache.getAll(accountIds, this::loadSummaries);
+
+        List<AccountSummary> accounts = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            AccountSummary summary = summaries.get(accountId);
+            if (summary != null) {
+                accounts.add(summary);
+            }
+        }
+        return accounts;
+    }
+
+    private List<Long> loadAccountIds(Long userId) {
+        getUserById(userId); // 없는 회원이면 UserNotFoundException
+        return accountRepository.findIdsByUserId(userId);
+    }
+
+    private Map<Long, AccountSummary> loadSummaries(Collection<Long> accountIds) {
+        Map<Long, AccountSummary> summaries = new HashMap<>(accountIds.size() * 2);
+        for (Account account : accountRepository.findAllById(accountIds)) {
+            summaries.put(account.getId(), hotAccountLedger == null ? AccountSummary.from(account) : hotAccountLedger.summarize(account));
+        }
+        return summaries;
     }
 
 
@@ -0,0 +1,338 @@
+package com.mwkim.projecthub.minipay.settlement;
+
+import com.mwkim.projecthub.minipay.config.SettlementExecutionProperties;
+import com.mwkim.projecthub.minipay.dto.ParticipantShare;
+import com.mwkim.projecthub.minipay.dto.SettlementObligation;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.netting.NetTransfer;
+import com.mwkim.projecthub.minipay.netting.NettingEngine;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 전원 승인된 정산의 송금(참여자 -> 요청자)을 요청 스레드 밖에서 실행한다.
+ *
+ * 1. 마지막 승인이 일어난 트랜잭션에서 정산을 QUEUED 로 표시하고, 커밋 후 워커 풀에 넘긴다.
+ * 2. 워커는 한 트랜잭션 안에서 QUEUED -> COMPLETED 로 먼저 바꾼 뒤(정산 행 잠금), 모든 송금을 AccountService.transferBatch(atomic) 한 번으로 실행한다.
+ *    자동 충전과 일일 한도는 단건 이체와 같은 규칙으로 적용되고, 한 건이라도 실패하면 전체가 롤백된 뒤 FAILED 로 기록된다.
+ * 3. 워커 큐가 가득 차면 요청 스레드는 기다리지 않는다. 정산은 QUEUED 로 남고 sweeper 가 주기적으로 다시 가져간다.
+ *
+ * 상태 전이가 compare-and-set 이라 같은 정산이 여러 번 제출돼도(재시작, 다른 노드, sweeper) 송금은 한 번만 일어난다.
+ * QUEUED 이후에는 승인/거절을 받지 않고(SettlementRepository.adjustCounts), QUEUED -> COMPLETED 전이도 인원수를 다시 확인한다.
+ *
+ * settlement.execution.netting 이 켜져 있으면 정산별로 제출하지 않고, sweep 주기마다 QUEUED 정산을 창 단위로 모아
+ * {@link NettingEngine} 으로 상계한 순액 송금만 실행한다. 창 전체가 실패하면 정산별 실행으로 되돌려서 실패한 정산만 FAILED 가 된다.
+ */
+@Slf4j
+@Component
+public class SettlementExecutor {
+
+    private static final int ACCOUNT_LOOKUP_CHUNK = 1000;
+    private static final int MAX_MESSAGE_LENGTH = 255;
+    private static final String NOT_FULLY_APPROVED = "Settlement is no longer fully approved";
+
+    private final SettlementRepository settlementRepository;
+    private final SettlementParticipantRepository settlementParticipantRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final SettlementExecutionProperties properties;
+
+    private final ThreadPoolExecutor workers;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet(); // 이 노드에서 제출된 정산 (중복 제출 방지)
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    @Autowired(required = false)
+    private PendingTransferEngine pendingTransferEngine;
+
+    public SettlementExecutor(SettlementRepository settlementRepository,
+                              SettlementParticipantRepository settlementParticipantRepository,
+                              AccountRepository accountRepository, AccountService accountService,
+                              TransactionTemplate transactionTemplate, SettlementExecutionProperties properties) {
+        this.settlementRepository = settlementRepository;
+        this.settlementParticipantRepository = settlementParticipantRepository;
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "settlement-executor-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 송금은 transferBatch(atomic) 이고 원장과 수령 대기 모드는 이를 지원하지 않으므로, 모든 정산이 FAILED 로 끝나기 전에 시작을 막는다.
+    @PostConstruct
+    void checkTransferStrategy() {
+        String strategy = ledgerEngine != null ? "ledger" : pendingTransferEngine != null ? "pending" : null;
+        if (properties.isEnabled() && strategy != null) {
+            throw new IllegalStateException("settlement.execution.enabled=true cannot be combined with transfer.strategy=" + strategy);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdown();
+    }
+
+    /**
+     * 승인 트랜잭션 안에서 호출한다. 정산이 전원 승인 상태가 됐으면 QUEUED 로 표시하고, 커밋 후 실행을 예약한다.
+     */
+    public void requestIfReady(Long settlementId) {
+        if (settlementRepository.markQueuedIfFullyApproved(settlementId) == 0 || properties.isNetting() || !properties.isEnabled()) {
+            return; // 상계 모드에서는 다음 sweep 에서 창 단위로 실행된다. 실행이 꺼져 있으면 QUEUED 로만 남는다
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(settlementId);
+                }
+            });
+        } else {
+            submit(settlementId);
+        }
+    }
+
+    // 큐가 가득 찼거나 재시작 등으로 남은 QUEUED 정산을 다시 제출한다.
+    @Scheduled(fixedDelayString = "${settlement.execution.sweep-interval-millis:5000}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.isNetting()) {
+            executeNettingWindow();
+            return;
+        }
+        int room = workers.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        for (Long settlementId : settlementRepository.findQueuedIds(Limit.of(room))) {
+            if (!submit(settlementId)) {
+                return;
+            }
+        }
+    }
+
+    // 워커 큐에 넣는다. 가득 차면 false (정산은 QUEUED 로 남는다)
+    boolean submit(Long settlementId) {
+        if (!inFlight.add(settlementId)) {
+            return true;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    execute(settlementId);
+                } finally {
+                    inFlight.remove(settlementId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(settlementId);
+            log.info("settlement executor queue is full, settlement {} stays QUEUED for the next sweep", settlementId);
+            return false;
+        }
+    }
+
+    void execute(Long settlementId) {
+        try {
+            Boolean executed = transactionTemplate.execute(status -> transferAll(settlementId));
+            if (Boolean.TRUE.equals(executed)) {
+                log.debug("settlement {} executed", settlementId);
+            }
+        } catch (OptimisticLockingFailureException | PessimisticLockingFailureException | CollisionException e) {
+            // 일시적인 충돌 -> 롤백되어 QUEUED 로 남고 다음 sweep 에서 다시 실행된다
+            log.info("settlement {} execution collided, will retry: {}", settlementId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("settlement {} execution failed: {}", settlementId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> settlementRepository.transitionExecution(settlementId,
+                    SettlementExecutionStatus.QUEUED, SettlementExecutionStatus.FAILED, truncate(e.getMessage())));
+        }
+    }
+
+    // 실행했으면 true, 이미 다른 곳에서 처리됐으면 false
+    private boolean transferAll(Long settlementId) {
+        // 먼저 상태를 바꿔서 정산 행을 잠근다. 같은 정산을 동시에 실행하려는 쪽은 여기서 기다렸다가 0 을 받는다.
+        // 인원수도 다시 확인한다. 큐에 들어간 뒤 승인이 깨졌으면(아직 QUEUED) 송금하지 않고 FAILED 로 끝낸다.
+        if (settlementRepository.completeIfFullyApproved(settlementId) == 0) {
+            settlementRepository.transitionExecution(settlementId, SettlementExecutionStatus.QUEUED,
+                    SettlementExecutionStatus.FAILED, NOT_FULLY_APPROVED);
+            return false;
+        }
+
+        Long requesterId = settlementRepository.findRequesterId(settlementId)
+                .orElseThrow(() -> new IllegalStateException("Settlement not found: " + settlementId));
+        List<ParticipantShare> shares = settlementParticipantRepository.findShares(settlementId);
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        userIds.add(requesterId);
+        for (ParticipantShare share : shares) {
+            userIds.add(share.getUserId());
+        }
+        Map<Long, Long> mainAccounts = findMainAccounts(userIds);
+
+        Long requesterAccountId = mainAccounts.get(requesterId);
+        if (requesterAccountId == null) {
+            throw new IllegalStateException("Main account not found for requester " + requesterId);
+        }
+
+        List<TransferCommand> commands = new ArrayList<>(shares.size());
+        List<Long> missing = new ArrayList<>();
+        for (ParticipantShare share : shares) {
+            if (share.getUserId().equals(requesterId)) {
+                continue; // 요청자 본인 몫은 옮길 필요가 없다
+            }
+            Long accountId = mainAccounts.get(share.getUserId());
+            if (accountId == null) {
+                missing.add(share.getUserId());
+                continue;
+            }
+            commands.add(new TransferCommand(accountId, requesterAccountId, share.getAmount().toBigDecimal()));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Main account not found for participants " + missing);
+        }
+
+        requireAllSucceeded(accountService.transferBatch(commands, true));
+        return true;
+    }
+
+    // transferBatch(atomic) 가 실패하면 이미 rollback-only 로 표시되어 있다 -> 예외로 끝내서 호출한 쪽이 실패로 처리하게 한다
+    private static void requireAllSucceeded(List<TransferResult> results) {
+        for (TransferResult result : results) {
+            if (!result.isSuccess() && result.getMessage() != null) {
+                throw new IllegalStateException("Transfer failed for account " + result.getCommand().getFromAccountId()
+                        + ": " + result.getMessage());
+            }
+        }
+    }
+
+    /**
+     * QUEUED 정산을 최대 nettingWindowSize 개 잠그고, 참여자 채무를 상계해서 순액 송금만 한 번의 atomic 일괄 이체로 실행한다.
+     * 실패하면 전체가 롤백되고(정산은 QUEUED 로 남음), 각 정산을 개별 실행으로 넘긴다.
+     */
+    void executeNettingWindow() {
+        List<Long> window = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                settlementRepository.failQueuedNotFullyApproved(NOT_FULLY_APPROVED);
+                window.addAll(settlementRepository.lockQueuedIds(properties.getNettingWindowSize()));
+                if (!window.isEmpty()) {
+                    // 잠근 행이라 인원수가 바뀔 수 없다. 어긋나면 창 전체를 롤백하고 정산별 실행으로 넘긴다
+                    if (settlementRepository.completeQueued(window) != window.size()) {
+                        throw new IllegalStateException("Netting window changed while locked");
+                    }
+                    transferNetted(window);
+                }
+            });
+            if (!window.isEmpty()) {
+                log.debug("netted {} settlements", window.size());
+            }
+        } catch (OptimisticLockingFailureException | PessimisticLockingFailureException | CollisionException e) {
+            log.info("netting window collided, will retry: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("netting window of {} settlements failed, executing them one by one: {}", window.size(), e.getMessage());
+            for (Long settlementId : window) {
+                if (!submit(settlementId)) {
+                    return; // 나머지는 다음 sweep 에서
+                }
+            }
+        }
+    }
+
+    private void transferNetted(List<Long> settlementIds) {
+        NettingEngine engine = new NettingEngine(settlementIds.size() * 4);
+        for (int from = 0; from < settlementIds.size(); from += ACCOUNT_LOOKUP_CHUNK) {
+            List<Long> chunk = settlementIds.subList(from, Math.min(from + ACCOUNT_LOOKUP_CHUNK, settlementIds.size()));
+            for (SettlementObligation obligation : settlementParticipantRepository.findObligations(chunk)) {
+                engine.add(obligation.getDebtorUserId(), obligation.getCreditorUserId(), obligation.getAmount().longValue());
+            }
+        }
+
+        List<NetTransfer> netTransfers = engine.settle();
+        if (netTransfers.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (NetTransfer transfer : netTransfers) {
+            userIds.add(transfer.fromUserId());
+            userIds.add(transfer.toUserId());
+        }
+        Map<Long, Long> mainAccounts = findMainAccounts(userIds);
+
+        List<TransferCommand> commands = new ArrayList<>(netTransfers.size());
+        for (NetTransfer transfer : netTransfers) {
+            Long from = mainAccounts.get(transfer.fromUserId());
+            Long to = mainAccounts.get(transfer.toUserId());
+            if (from == null || to == null) {
+                throw new IllegalStateException("Main account not found for user "
+                        + (from == null ? transfer.fromUserId() : transfer.toUserId()));
+            }
+            commands.add(new TransferCommand(from, to, Money.of(transfer.amount()).toBigDecimal()));
+        }
+        log.debug("netting: {} obligations -> {} transfers", engine.obligationCount(), commands.size());
+        requireAllSucceeded(accountService.transferBatch(commands, true));
+    }
+
+    private Map<Long, Long> findMainAccounts(Set<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, Long> accounts = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += ACCOUNT_LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ACCOUNT_LOOKUP_CHUNK, ids.size()));
+            for (Object[] row : accountRepository.findAccountIdsByUserIds(chunk, AccountType.MAIN)) {
+                accounts.putIfAbsent((Long) row[0], (Long) row[1]);
+            }
+        }
+        return accounts;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
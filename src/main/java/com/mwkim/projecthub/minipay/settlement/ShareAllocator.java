@@ -0,0 +1,76 @@
+package com.mwkim.projecthub.minipay.settlement;
+
+import com.mwkim.projecthub.minipay.enums.SettlementType;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * 정산 금액을 참여자별 몫(원 단위 long)으로 나눈다.
+ *
+ * 몫은 리스트로 모으지 않고 순서대로 {@link ShareConsumer} 에 흘려보낸다 (한 번 순회, 추가 메모리 O(1)).
+ * 모든 몫은 1원 이상이고, 합은 항상 정확히 total 이다. 그래서 total 은 참여자 수 이상이어야 한다.
+ *
+ * - EQUAL  : total / n (내림), 나머지는 마지막 참여자에게
+ * - RANDOM : 균등 Dirichlet(1, ..., 1) 분배. 각 참여자에게 1원씩 먼저 떼어두고, 남은 금액을 stick-breaking 으로 나눈다.
+ *            i 번째 몫의 비율은 남은 막대에서 Beta(1, 남은 인원 - 1) 만큼이고, 이는 1 - U^(1 / (남은 인원 - 1)) 로 뽑는다.
+ *            이전 몫을 남은 금액에서 떼어가므로 마지막 몫이 음수가 될 수 없다.
+ */
+@Component
+public class ShareAllocator {
+
+    private final SplittableRandom seed = new SplittableRandom();
+
+    @FunctionalInterface
+    public interface ShareConsumer {
+        void accept(int index, long share);
+    }
+
+    public void allocate(long total, int participantCount, SettlementType type, ShareConsumer consumer) {
+        switch (type) {
+            case EQUAL -> allocateEqual(total, participantCount, consumer);
+            case RANDOM -> allocateRandom(total, participantCount, nextRandom(), consumer);
+            default -> throw new IllegalArgumentException("Unsupported settlement type: " + type);
+        }
+    }
+
+    static void allocateEqual(long total, int participantCount, ShareConsumer consumer) {
+        validate(total, participantCount);
+        // 총 정산 금액 / 인원수 -> 소수점은 버림처리 -> 1000 / 3 = 333.333  ---> 333
+        long share = total / participantCount;
+        for (int i = 0; i < participantCount - 1; i++) {
+            consumer.accept(i, share);
+        }
+        // 마지막 참가자에게 남은 금액 전체 할당 : 1000 - 666 = 334
+        consumer.accept(participantCount - 1, total - share * (participantCount - 1));
+    }
+
+    static void allocateRandom(long total, int participantCount, SplittableRandom random, ShareConsumer consumer) {
+        validate(total, participantCount);
+        long remaining = total - participantCount; // 1원씩 떼어둔 뒤 나눌 금액
+        for (int i = 0; i < participantCount - 1; i++) {
+            int othersLeft = participantCount - i - 1;
+            double fraction = 1.0 - Math.pow(random.nextDouble(), 1.0 / othersLeft); // Beta(1, othersLeft)
+            long extra = Math.min(remaining, (long) (remaining * fraction));
+            remaining -= extra;
+            consumer.accept(i, 1 + extra);
+        }
+        consumer.accept(participantCount - 1, 1 + remaining);
+    }
+
+    // SplittableRandom 은 스레드 안전하지 않아서, 호출마다 독립된 스트림을 split 해서 쓴다.
+    private SplittableRandom nextRandom() {
+        synchronized (seed) {
+            return seed.split();
+        }
+    }
+
+    private static void validate(long total, int participantCount) {
+        if (participantCount <= 0) {
+            throw new IllegalArgumentException("Settlement needs at least one participant");
+        }
+        if (total < participantCount) {
+            throw new IllegalArgumentException("Total amount must be at least 1 won per participant");
+        }
+    }
+}
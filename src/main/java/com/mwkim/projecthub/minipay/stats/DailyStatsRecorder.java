@@ -0,0 +1,106 @@
+package com.mwkim.projecthub.minipay.stats;
+
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 거래 내역이 기록될 때 account_daily_stats 에 (건수, 합계) 를 더한다. (TransactionBatchRepository 가 호출)
+ *
+ * 트랜잭션 안에서는 바로 쓰지 않고 (계좌, 날짜, 종류) 별 증분을 모아 두었다가, 커밋 직전(beforeCommit)에
+ * 키 순서로 정렬된 upsert 한 batch 로 쓴다. 같은 키는 한 번만 쓰이고, 여러 트랜잭션이 같은 집계 행들을 항상 같은 순서로 잠그므로
+ * 집계 행끼리 교착되지 않는다. 롤백되면 증분도 버려진다.
+ */
+@Component
+public class DailyStatsRecorder {
+
+    // MySQL 8.0.19+ : VALUES() 대신 행 별칭으로 증분을 참조한다
+    private static final String UPSERT_SQL = "INSERT INTO account_daily_stats (account_id, stat_date, type, tx_count, amount_sum) " +
+            "VALUES (?, ?, ?, ?, ?) AS delta ON DUPLICATE KEY UPDATE " +
+            "tx_count = account_daily_stats.tx_count + delta.tx_count, " +
+            "amount_sum = account_daily_stats.amount_sum + delta.amount_sum";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DailyStatsRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(Transaction transaction) {
+        record(transaction.getAccount().getId(), transaction.getTransactionDate().toLocalDate(), transaction.getType(),
+                transaction.getAmountMoney().longValue());
+    }
+
+    public void record(Long accountId, LocalDate day, TransactionType type, long amount) {
+        StatKey key = new StatKey(accountId, day, type);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            upsert(Map.of(key, new long[]{1, amount}));
+            return;
+        }
+
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(key, amount);
+    }
+
+    void upsert(Map<StatKey, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<StatKey, long[]>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey().accountId());
+            ps.setDate(2, Date.valueOf(row.getKey().day()));
+            ps.setString(3, row.getKey().type().name());
+            ps.setLong(4, row.getValue()[0]);
+            ps.setLong(5, row.getValue()[1]);
+        });
+    }
+
+    record StatKey(long accountId, LocalDate day, TransactionType type) implements Comparable<StatKey> {
+        @Override
+        public int compareTo(StatKey other) {
+            int compared = Long.compare(accountId, other.accountId);
+            if (compared == 0) {
+                compared = day.compareTo(other.day);
+            }
+            return compared != 0 ? compared : type.compareTo(other.type);
+        }
+    }
+
+    // 트랜잭션 하나의 증분. PK 순서로 쓰기 위해 TreeMap 에 모은다.
+    private final class PendingDeltas implements TransactionSynchronization {
+        private final Map<StatKey, long[]> deltas = new TreeMap<>();
+
+        void add(StatKey key, long amount) {
+            long[] delta = deltas.computeIfAbsent(key, ignored -> new long[2]);
+            delta[0]++;
+            delta[1] += amount;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            upsert(deltas);
+            deltas.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DailyStatsRecorder.this);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.mwkim.projecthub.minipay.subledger;
+
+import com.mwkim.projecthub.minipay.concurrency.ConditionalUpdateTransferEngine;
+import com.mwkim.projecthub.minipay.config.HotAccountProperties;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.AccountBalanceSlot;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.repository.AccountBalanceSlotRepository;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 입금이 몰리는 계좌(hot account)의 잔액을 N 개의 슬롯으로 나눠 받는다.
+ *
+ * 일반 계좌는 입금마다 계좌 행 하나를 갱신하므로 같은 계좌로의 입금이 모두 그 행에서 줄을 선다.
+ * hot account 로 지정된 계좌는 입금을 임의의 슬롯 하나에 더하기만 하고 계좌 행은 읽지도 잠그지도 않는다.
+ * 그래서 한 계좌로의 동시 입금 처리량이 슬롯 수만큼 늘어난다.
+ *
+ * - 잔액 = account.balance(정리된 잔액) + 슬롯 잔액 합
+ * - 출금 : 정리된 잔액이 부족하면 슬롯을 모두 잠그고 계좌 행으로 옮긴 뒤(sweep) 평소처럼 출금한다
+ * - 정리 : 주기적으로 같은 sweep 을 돌려 슬롯에 쌓인 금액을 계좌 행으로 모은다
+ *
+ * 잠금 순서는 항상 계좌 행 -> 슬롯(slot_no 오름차순) 이다.
+ *
+ * 단건 이체(transfer)와 일괄 이체(transferBatch)가 모두 이 규칙을 따른다. 그룹 커밋, 정산 실행, 자동이체는 transferBatch 를 거치므로 함께 적용된다.
+ *
+ * @note transfer.strategy 가 ledger, conditional, pending 이면 이체가 AccountService 의 JPA 경로를 거치지 않는다.
+ *       이 엔진들은 슬롯을 보지 못해서 정리되지 않은 입금이 있는 hot account 의 출금을 잔액 부족으로 거절하고,
+ *       원장은 정리 작업이 옮긴 금액을 메모리에 반영하지도 못한다. 그래서 함께 켤 수 없고 시작할 때 거부한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.hot.enabled", havingValue = "true")
+public class HotAccountLedger {
+
+    private final AccountBalanceSlotRepository slotRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionOperations transactionOperations;
+    private final Set<Long> hotAccountIds;
+    private final int slots;
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    @Autowired(required = false)
+    private ConditionalUpdateTransferEngine conditionalUpdateTransferEngine;
+
+    @Autowired(required = false)
+    private PendingTransferEngine pendingTransferEngine;
+
+    public HotAccountLedger(AccountBalanceSlotRepository slotRepository,
+                            AccountRepository accountRepository,
+                            TransactionOperations transactionOperations,
+                            HotAccountProperties properties) {
+        this.slotRepository = slotRepository;
+        this.accountRepository = accountRepository;
+        this.transactionOperations = transactionOperations;
+        this.hotAccountIds = Set.copyOf(properties.getAccountIds());
+        this.slots = Math.max(1, properties.getSlots());
+    }
+
+    @PostConstruct
+    void checkTransferStrategy() {
+        if (ledgerEngine != null) {
+            throw new IllegalStateException("account.hot.enabled=true cannot be combined with transfer.strategy=ledger");
+        }
+        if (conditionalUpdateTransferEngine != null) {
+            throw new IllegalStateException("account.hot.enabled=true cannot be combined with transfer.strategy=conditional");
+        }
+        if (pendingTransferEngine != null) {
+            throw new IllegalStateException("account.hot.enabled=true cannot be combined with transfer.strategy=pending");
+        }
+    }
+
+    public boolean isHot(Long accountId) {
+        return hotAccountIds.contains(accountId);
+    }
+
+    /**
+     * 임의의 슬롯 하나에 입금한다. 호출한 트랜잭션 안에서 실행된다.
+     *
+     * @throws AccountNotFoundException 계좌가 없는 경우
+     * @throws IllegalStateException    계좌는 있는데 슬롯 행이 아직 만들어지지 않은 경우
+     */
+    public void credit(Long accountId, Money amount) {
+        int slotNo = ThreadLocalRandom.current().nextInt(slots);
+        if (slotRepository.add(accountId, slotNo, amount.longValue()) == 0) {
+            // 입금 경로는 받는 계좌 행을 읽지 않으므로, 없는 계좌는 여기서 처음 드러난다
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found with id: " + accountId);
+            }
+            throw new IllegalStateException("Balance slots are not initialized for hot account: " + accountId);
+        }
+    }
+
+    // 슬롯에 모인 금액을 계좌 행으로 옮긴다. 호출자는 계좌 행을 확보(FOR UPDATE 또는 @Version)한 상태여야 한다.
+    public Money sweepInto(Account account) {
+        long swept = 0;
+        for (AccountBalanceSlot slot : slotRepository.findAllByAccountIdForUpdate(account.getId())) {
+            swept += slot.drain().longValue();
+        }
+        if (swept != 0) {
+            account.updateBalance(account.getBalanceMoney().plus(Money.of(swept)));
+        }
+        return Money.of(swept);
+    }
+
+    // 정리된 잔액 + 슬롯 잔액 합
+    public Money balanceOf(Account account) {
+        if (!isHot(account.getId())) {
+            return account.getBalanceMoney();
+        }
+        return account.getBalanceMoney().plus(Money.of(slotRepository.sumBalance(account.getId())));
+    }
+
+    public AccountSummary summarize(Account account) {
+        if (!isHot(account.getId())) {
+            return AccountSummary.from(account);
+        }
+        return AccountSummary.from(account, balanceOf(account).toBigDecimal());
+    }
+
+    // 주기적 정리 : 계좌마다 짧은 트랜잭션 하나 (계좌 행 잠금 -> 슬롯 잠금 -> 합산 -> 0 으로)
+    @Scheduled(fixedDelayString = "${account.hot.consolidate-interval-millis:1000}")
+    public void consolidate() {
+        for (Long accountId : hotAccountIds) {
+            try {
+                Money swept = transactionOperations.execute(status -> {
+                    List<Account> locked = accountRepository.findAllByIdForUpdate(List.of(accountId));
+                    return locked.isEmpty() ? Money.ZERO : sweepInto(locked.get(0));
+                });
+                if (swept != null && swept.isPositive()) {
+                    log.debug("hot account {} consolidated: {}", accountId, swept);
+                }
+            } catch (RuntimeException e) {
+                log.warn("hot account {} consolidation failed, retry next round", accountId, e);
+            }
+        }
+    }
+
+    // 설정된 슬롯 수만큼 슬롯 행을 만든다. 슬롯 수를 줄여도 남은 슬롯의 잔액은 sweep 과 잔액 합계에 그대로 포함된다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSlots() {
+        for (Long accountId : hotAccountIds) {
+            transactionOperations.executeWithoutResult(status -> {
+                if (!accountRepository.existsById(accountId)) {
+                    log.warn("hot account {} does not exist, skipped", accountId);
+                    return;
+                }
+                Set<Integer> existing = new HashSet<>(slotRepository.findSlotNos(accountId));
+                for (int slotNo = 0; slotNo < slots; slotNo++) {
+                    if (!existing.contains(slotNo)) {
+                        slotRepository.save(AccountBalanceSlot.createSlot(accountId, slotNo));
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.mwkim.projecthub.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 이체 / 업로드 경로의 회원별 요청 한도를 DispatcherServlet 앞에서 검사한다.
+ *
+ * 한도를 넘은 요청은 429 + Retry-After(초) 로 바로 돌려보낸다. 컨트롤러, DB 는 물론 multipart 본문도 읽지 않는다.
+ *
+ * 회원 키 : 경로의 {userId} -> 인증된 principal -> 클라이언트 IP 순. 쿼리 문자열이나 헤더는 클라이언트가 마음대로 바꿀 수 있으므로 쓰지 않는다.
+ * 회원 키와 별개로 클라이언트 IP bucket (endpoint.ipBudget, 없으면 같은 한도) 도 항상 차감한다.
+ * 경로의 userId 를 바꿔가며 보내도 한 IP 가 쓸 수 있는 양은 IP 한도를 넘지 못한다.
+ *
+ * 지표 : ratelimit.rejected{budget}
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final List<RateLimitProperties.Endpoint> endpoints;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Counter> rejected = new HashMap<>();
+    private final LongSupplier clock;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.rateLimiter = new RateLimiter(properties);
+        this.endpoints = List.copyOf(properties.getEndpoints());
+        this.clock = clock;
+        for (RateLimitProperties.Endpoint endpoint : endpoints) {
+            // 회원 한도와 IP 한도를 모두 확인한다
+            for (String name : new String[]{endpoint.getBudget(), ipBudgetOf(endpoint)}) {
+                RateLimitProperties.Budget budget = properties.getBudgets().get(name);
+                if (budget == null) {
+                    throw new IllegalStateException("Unknown rate limit budget '" + name + "' for " + endpoint.getPattern());
+                }
+                if (endpoint.getCost() > budget.getCapacity()) {
+                    throw new IllegalStateException("Cost of " + endpoint.getPattern() + " exceeds capacity of budget " + name);
+                }
+                rejected.computeIfAbsent(name,
+                        ignored -> Counter.builder("ratelimit.rejected").tag("budget", name).register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimitProperties.Endpoint endpoint = match(request.getMethod(), path);
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // IP bucket 을 먼저 차감한다. 회원 bucket 에서 거절되면 IP 쪽 토큰은 돌려주지 않는다 (보수적으로 센다)
+        long nowNanos = clock.getAsLong();
+        String ipKey = "ip:" + request.getRemoteAddr();
+        String rejectedBudget = ipBudgetOf(endpoint);
+        long waitNanos = rateLimiter.tryAcquire(rejectedBudget, ipKey, endpoint.getCost(), nowNanos);
+        String key = resolveKey(request, endpoint, path);
+        // 회원 키가 없는 요청도 회원 한도를 IP 키로 센다. IP 한도를 따로 두지 않았으면 같은 bucket 이라 한 번만 센다
+        if (waitNanos == 0 && !(key.equals(ipKey) && rejectedBudget.equals(endpoint.getBudget()))) {
+            rejectedBudget = endpoint.getBudget();
+            waitNanos = rateLimiter.tryAcquire(rejectedBudget, key, endpoint.getCost(), nowNanos);
+        }
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(rejectedBudget).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"message\":\"Too many requests\"}");
+    }
+
+    private RateLimitProperties.Endpoint match(String method, String path) {
+        for (RateLimitProperties.Endpoint endpoint : endpoints) {
+            if ((endpoint.getMethods().isEmpty() || endpoint.getMethods().contains(method))
+                    && pathMatcher.match(endpoint.getPattern(), path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String resolveKey(HttpServletRequest request, RateLimitProperties.Endpoint endpoint, String path) {
+        String userId = pathMatcher.extractUriTemplateVariables(endpoint.getPattern(), path).get("userId");
+        if (userId == null && request.getUserPrincipal() != null) {
+            userId = request.getUserPrincipal().getName();
+        }
+        return userId == null ? "ip:" + request.getRemoteAddr() : "user:" + userId;
+    }
+
+    private static String ipBudgetOf(RateLimitProperties.Endpoint endpoint) {
+        return endpoint.getIpBudget() == null ? endpoint.getBudget() : endpoint.getIpBudget();
+    }
+}
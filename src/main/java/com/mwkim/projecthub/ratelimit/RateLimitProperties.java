@@ -0,0 +1,61 @@
+package com.mwkim.projecthub.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    회원별 요청 한도 (token bucket) 설정
+    - enabled : true 면 endpoints 에 걸리는 요청을 DispatcherServlet 앞에서 검사한다
+    - maxKeys : 메모리에 둘 bucket 의 최대 수. 넘으면 오래 안 쓴 것부터 버린다
+    - idleEvictSeconds : 이 시간 동안 안 쓴 bucket 은 버린다 (그 사이 가득 찼을 것이므로 새로 만든 것과 같다)
+    - budgets : 이름별 한도. capacity 는 한 번에 몰아 쓸 수 있는 양, refillPerSecond 는 초당 채워지는 양
+    - endpoints : 한도를 적용할 경로. pattern 은 Ant 패턴이고 {userId} 가 있으면 그 값을 회원 키로 쓴다 (없으면 principal, 그것도 없으면 IP)
+                  methods 를 비우면 모든 메서드, cost 는 요청 한 번에 쓰는 양
+                  ipBudget 은 회원 키와 별개로 항상 차감하는 클라이언트 IP 별 한도. 비우면 budget 과 같은 한도를 쓴다
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    private long maxKeys = 100_000;
+
+    private long idleEvictSeconds = 600;
+
+    private Map<String, Budget> budgets = new LinkedHashMap<>();
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Budget {
+
+        private int capacity = 10;
+
+        private double refillPerSecond = 1;
+
+    }
+
+    @Getter @Setter
+    public static class Endpoint {
+
+        private String pattern;
+
+        private List<String> methods = new ArrayList<>();
+
+        private String budget;
+
+        private int cost = 1;
+
+        private String ipBudget;
+
+    }
+}
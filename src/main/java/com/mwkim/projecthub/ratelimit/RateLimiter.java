@@ -0,0 +1,45 @@
+package com.mwkim.projecthub.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * (한도 이름, 회원 키) 별 token bucket 을 크기 제한이 있는 Caffeine 맵에 둔다.
+ *
+ * 버려진 bucket 은 다음 요청에서 가득 찬 상태로 다시 만들어진다. idleEvictSeconds 가 가장 느린 한도의 충전 시간보다 길면
+ * 버려지는 bucket 은 이미 가득 차 있으므로 한도가 느슨해지지 않는다. (maxKeys 를 넘겨 밀려난 경우만 예외)
+ */
+public class RateLimiter {
+
+    private final Map<String, RateLimitProperties.Budget> budgets;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.budgets = Map.copyOf(properties.getBudgets());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(Duration.ofSeconds(properties.getIdleEvictSeconds()))
+                .build();
+    }
+
+    /**
+     * @return 0 이면 허용, 양수면 거절이고 기다려야 하는 시간 (나노초)
+     */
+    public long tryAcquire(String budget, String key, int cost, long nowNanos) {
+        RateLimitProperties.Budget limit = budgets.get(budget);
+        if (limit == null) {
+            throw new IllegalStateException("Unknown rate limit budget: " + budget);
+        }
+        TokenBucket bucket = buckets.get(budget + ':' + key,
+                ignored -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), nowNanos));
+        return bucket.tryConsume(cost, nowNanos);
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
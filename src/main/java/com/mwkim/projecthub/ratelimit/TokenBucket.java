@@ -0,0 +1,46 @@
+package com.mwkim.projecthub.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없는 token bucket.
+ *
+ * 남은 토큰 수와 마지막 충전 시각을 따로 들지 않고, "bucket 이 다시 가득 차는 시각" 하나만 AtomicLong 에 둔다. (GCRA)
+ * 토큰 n 개를 쓰면 그 시각이 n * 간격 만큼 뒤로 밀리고, 밀린 시각이 (지금 + capacity * 간격) 을 넘으면 거절한다.
+ * 갱신은 CAS 한 번이라 같은 회원의 동시 요청도 락 없이 처리된다.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos; // 토큰 하나가 채워지는 시간
+    private final long burstNanos;    // capacity 개가 채워지는 시간
+    private final AtomicLong fullAt;  // bucket 이 가득 차는 시각 (nanoTime 기준)
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 토큰 cost 개를 쓴다.
+     *
+     * @return 0 이면 허용, 양수면 거절이고 다시 시도할 수 있을 때까지 기다려야 하는 시간 (나노초)
+     */
+    public long tryConsume(int cost, long nowNanos) {
+        long need = intervalNanos * cost;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + need;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.mwkim.projecthub.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 H2 두 개를 primary / replica 로 두고 라우팅을 확인한다.
+ * 두 DB 사이에 복제는 없으므로, heartbeat 복제는 테스트가 직접 흉내낸다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor monitor;
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate jdbc : new JdbcTemplate[]{primaryJdbc, replicaJdbc}) {
+            jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+            jdbc.execute("CREATE TABLE replication_heartbeat (id INT NOT NULL PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+
+        ReplicaDataSources dataSources = new ReplicaDataSources(primary, Map.of("replica-1", replica));
+        monitor = new ReplicaLagMonitor(dataSources, 2000, new SimpleMeterRegistry(), now::get);
+        tracker = new ReadYourWritesTracker(60_000);
+        DataSource routed = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(dataSources, monitor, tracker));
+
+        routedJdbc = new JdbcTemplate(routed);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.clear();
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("측정 전이나 heartbeat 가 없는 replica 에는 보내지 않는다")
+    void readOnly_GoesToPrimaryUntilReplicaMeasured() {
+        assertThat(readNode()).isEqualTo("primary");
+
+        monitor.check(); // replica 에는 아직 heartbeat 가 복제되지 않았다
+        assertThat(monitor.isHealthy("replica-1")).isFalse();
+        assertThat(readNode()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("지연이 허용치 이하인 replica 로 읽기 전용 트랜잭션을 보낸다")
+    void readOnly_GoesToHealthyReplica() {
+        monitor.check();
+        replicate(500);
+        monitor.check();
+
+        assertThat(monitor.lagMillis("replica-1")).isEqualTo(500);
+        assertThat(readNode()).isEqualTo("replica");
+        assertThat(readWrite.execute(status -> node())).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary"); // 트랜잭션 밖
+    }
+
+    @Test
+    @DisplayName("replica 가 허용치보다 뒤처지면 primary 로 되돌린다")
+    void readOnly_FallsBackWhenReplicaLags() {
+        monitor.check();
+        replicate(5000);
+        monitor.check();
+
+        assertThat(monitor.isHealthy("replica-1")).isFalse();
+        assertThat(readNode()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("측정이 멈추면 마지막 측정값을 계속 믿지 않고 primary 로 되돌린다")
+    void readOnly_FallsBackWhenMeasurementIsStale() {
+        monitor.check();
+        replicate(500);
+        monitor.check();
+        assertThat(readNode()).isEqualTo("replica");
+
+        now.addAndGet(2000); // check 가 돌지 않은 채 시간이 흐른다
+        assertThat(monitor.lagMillis("replica-1")).isEqualTo(2500);
+        assertThat(monitor.isHealthy("replica-1")).isFalse();
+        assertThat(readNode()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("자기 쓰기를 커밋한 회원의 읽기는 primary 로, 다른 회원은 replica 로 간다")
+    void readYourWrites_StickyAfterOwnCommit() {
+        monitor.check();
+        replicate(0);
+        monitor.check();
+
+        tracker.bind("user:1");
+        assertThat(readNode()).isEqualTo("replica");
+        readWrite.executeWithoutResult(status -> routedJdbc.update("INSERT INTO node VALUES ('written')"));
+        assertThat(readNode()).isEqualTo("primary");
+
+        tracker.bind("user:2");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("롤백된 쓰기는 read-your-writes 대상이 아니다")
+    void readYourWrites_IgnoresRollback() {
+        monitor.check();
+        replicate(0);
+        monitor.check();
+
+        tracker.bind("user:1");
+        readWrite.executeWithoutResult(status -> {
+            routedJdbc.update("INSERT INTO node VALUES ('written')");
+            status.setRollbackOnly();
+        });
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("primary 읽기 구간의 읽기 전용 트랜잭션은 replica 가 건강해도 primary 로 간다")
+    void primaryReadHint_OverridesReplica() {
+        monitor.check();
+        replicate(0);
+        monitor.check();
+
+        assertThat(PrimaryReadHint.call(this::readNode)).isEqualTo("primary");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    private String readNode() {
+        return readOnly.execute(status -> node());
+    }
+
+    private String node() {
+        return routedJdbc.queryForObject("SELECT name FROM node ORDER BY name LIMIT 1", String.class);
+    }
+
+    // primary 의 heartbeat 를 replica 로 복제하고, 그 뒤 lagMillis 만큼 시간이 흐른다
+    private void replicate(long lagMillis) {
+        Long beat = primaryJdbc.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+        replicaJdbc.update("MERGE INTO replication_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)", beat);
+        now.addAndGet(lagMillis);
+    }
+}
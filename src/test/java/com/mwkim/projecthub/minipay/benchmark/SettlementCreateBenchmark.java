@@ -0,0 +1,93 @@
+package com.mwkim.projecthub.minipay.benchmark;
+
+import com.mwkim.projecthub.minipay.entity.User;
+import com.mwkim.projecthub.minipay.enums.SettlementType;
+import com.mwkim.projecthub.minipay.repository.UserRepository;
+import com.mwkim.projecthub.minipay.service.SettlementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 그룹 크기별 정산 생성(createSettlement) 지연 시간을 측정한다.
+ *
+ * 참여자 확인은 id 조회 한 번(IN 절 1000개 단위), 참여자 INSERT 는 batch 로 나가기 때문에
+ * 그룹 크기가 커져도 왕복 횟수는 크기 / batch_size 수준으로만 늘어난다.
+ *
+ * MySQL 이 필요하므로 일반 test 에서는 제외되고, ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class SettlementCreateBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementCreateBenchmark.class);
+
+    private static final int[] GROUP_SIZES = {10, 100, 1_000, 5_000, 10_000};
+    private static final int RUNS = 5;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long requesterId;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        int maxGroup = GROUP_SIZES[GROUP_SIZES.length - 1];
+        List<User> users = new ArrayList<>(maxGroup + 1);
+        for (int i = 0; i <= maxGroup; i++) {
+            users.add(User.createUser("settle-bench-" + i));
+        }
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+
+        userIds.clear();
+        requesterId = users.get(0).getId();
+        for (int i = 1; i <= maxGroup; i++) {
+            userIds.add(users.get(i).getId());
+        }
+    }
+
+    @Test
+    void latencyByGroupSize() {
+        // JIT 워밍업
+        measure(100);
+
+        StringBuilder table = new StringBuilder("\ngroup size | median ms | per participant us\n");
+        for (int size : GROUP_SIZES) {
+            double medianMillis = measure(size);
+            table.append(String.format("%10d | %9.1f | %18.1f%n", size, medianMillis, medianMillis * 1000 / size));
+        }
+        log.info(table.toString());
+    }
+
+    // RUNS 번 생성해서 중앙값(ms)을 돌려준다
+    private double measure(int groupSize) {
+        List<Long> participantIds = userIds.subList(0, groupSize);
+        BigDecimal total = BigDecimal.valueOf(groupSize * 10_000L);
+
+        double[] samples = new double[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long started = System.nanoTime();
+            settlementService.createSettlement(requesterId, total, SettlementType.EQUAL, participantIds);
+            samples[run] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
@@ -0,0 +1,108 @@
+package com.mwkim.projecthub.minipay.benchmark;
+
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.User;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import com.mwkim.projecthub.minipay.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 10k 건 이체 워크로드에서 transaction 행 INSERT 처리량(rows/sec)을 비교한다.
+ *
+ * - batch=1   : IDENTITY 전략과 같은 조건 (행마다 INSERT 왕복 1회)
+ * - batch=500 : pooled id + hibernate.jdbc.batch_size
+ *
+ * MySQL 이 필요하므로 일반 test 에서는 제외되고, ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransferInsertBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferInsertBenchmark.class);
+
+    private static final int TRANSFERS = 10_000;
+    private static final int ACCOUNTS = 200;
+    private static final int CHUNK = 1_000; // 트랜잭션 하나에 담을 이체 수
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        accountIds.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User user = userService.registerUser(-1L - i, "bench-" + i);
+            Account account = accountService.createAccount(user.getId(), AccountType.MAIN, new BigDecimal("3000000"));
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    void insertThroughput() {
+        // JIT 워밍업
+        run(1);
+        run(500);
+
+        double unbatched = run(1);
+        double batched = run(500);
+        log.info("transaction rows/sec  batch=1: {}  batch=500: {}  (x{})",
+                String.format("%.0f", unbatched), String.format("%.0f", batched), String.format("%.1f", batched / unbatched));
+    }
+
+    // 10k 이체를 CHUNK 단위 트랜잭션으로 실행하고 transaction 행 INSERT 처리량을 돌려준다.
+    private double run(int jdbcBatchSize) {
+        List<TransferCommand> commands = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            Long from = accountIds.get(i % ACCOUNTS);
+            Long to = accountIds.get((i + 1) % ACCOUNTS);
+            commands.add(new TransferCommand(from, to, new BigDecimal("100")));
+        }
+
+        long before = countTransactionRows();
+        long started = System.nanoTime();
+        for (int from = 0; from < TRANSFERS; from += CHUNK) {
+            List<TransferCommand> chunk = commands.subList(from, Math.min(from + CHUNK, TRANSFERS));
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                accountService.transferBatch(chunk);
+            });
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        return (countTransactionRows() - before) / seconds;
+    }
+
+    private long countTransactionRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class);
+    }
+}
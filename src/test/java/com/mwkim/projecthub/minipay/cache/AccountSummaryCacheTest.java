@@ -0,0 +1,108 @@
+package com.mwkim.projecthub.minipay.cache;
+
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountSummaryCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountSummaryCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountSummaryCache(new AccountCacheProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("커밋 전에는 무효화하지 않고, afterCommit 에서 지운다")
+    void evictAfterCommit() {
+        cache.get(1L, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(1L);
+        cache.get(1L, this::load);
+        assertThat(loads).hasValue(1); // 아직 커밋 전 -> 기존 값
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(1L, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("롤백되면 캐시를 유지한다")
+    void keepOnRollback() {
+        cache.get(1L, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("적중/실패 수를 metric 으로 남긴다")
+    void hitMissMetrics() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "account.summary").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "account.summary").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("묶음 로딩 중에 무효화된 계좌는 캐시에 남기지 않는다")
+    void getAll_DropsEntriesInvalidatedWhileLoading() {
+        Map<Long, AccountSummary> first = cache.getAll(List.of(1L, 2L), ids -> {
+            cache.evictAfterCommit(1L); // 로더가 옛 잔액을 읽은 뒤 다른 트랜잭션이 커밋하고 무효화
+            return loadAll(ids);
+        });
+        assertThat(first).containsOnlyKeys(1L, 2L);
+
+        cache.getAll(List.of(1L, 2L), this::loadAll);
+
+        assertThat(loads).hasValue(3); // 1L 만 다시 읽는다
+    }
+
+    private Map<Long, AccountSummary> loadAll(Collection<Long> accountIds) {
+        Map<Long, AccountSummary> summaries = new HashMap<>();
+        accountIds.forEach(accountId -> summaries.put(accountId, load(accountId)));
+        return summaries;
+    }
+
+    private AccountSummary load(Long accountId) {
+        loads.incrementAndGet();
+        return new AccountSummary(accountId, 1L, AccountType.MAIN, BigDecimal.TEN, null, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
+import com.mwkim.projecthub.minipay.limit.DailyUsage;
+import com.mwkim.projecthub.minipay.limit.DailyUsageStore;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import com.mwkim.projecthub.minipay.service.DailyLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalUpdateTransferEngineTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionBatchRepository transactionBatchRepository;
+    private DailyUsageStore dailyUsageStore;
+    private ConditionalUpdateTransferEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionBatchRepository = mock(TransactionBatchRepository.class);
+        dailyUsageStore = new DailyUsageStore();
+        engine = new ConditionalUpdateTransferEngine(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                new DailyLimitService(dailyUsageStore), dailyUsageStore, transactionBatchRepository,
+                new AccountSummaryCache(new AccountCacheProperties(), new SimpleMeterRegistry()));
+
+        // DB 에 기록된 일일 사용량 : 0
+        when(jdbcTemplate.query(startsWith("SELECT daily_use_amount"), any(RowMapper.class), eq(1L)))
+                .thenReturn(List.of(new DailyUsage(0, LocalDate.now())));
+    }
+
+    @Test
+    @DisplayName("잔액이 충분하면 계좌를 읽지 않고 차감 UPDATE 와 입금 UPDATE 만 실행")
+    void transfer_SufficientBalance() {
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance - ?"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance + ?, version"), any(Object[].class))).thenReturn(1);
+
+        engine.transfer(1L, 2L, Money.of(10_000));
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(BigDecimal.class), any(Object[].class));
+        assertThat(insertedTypes()).containsExactly(TransactionType.WITHDRAW, TransactionType.DEPOSIT, TransactionType.TRANSFER);
+        assertThat(dailyUsageStore.usage(1L)).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("잔액이 부족하면 행을 잠그고 만원 단위로 충전한 뒤 충전 + 출금을 한 번에 반영")
+    void transfer_InsufficientBalance_AutoCharge() {
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance - ?"), any(Object[].class))).thenReturn(0);
+        when(jdbcTemplate.queryForList(startsWith("SELECT balance"), eq(BigDecimal.class), eq(1L)))
+                .thenReturn(List.of(new BigDecimal("2000")));
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance + ?, daily_use_amount"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance + ?, version"), any(Object[].class))).thenReturn(1);
+
+        engine.transfer(1L, 2L, Money.of(15_000));
+
+        // 부족분 13,000 -> 20,000 충전, 잔액 변화 = +20,000 - 15,000
+        verify(jdbcTemplate).update(startsWith("UPDATE account SET balance = balance + ?, daily_use_amount"),
+                eq(5_000L), eq(35_000L), any(), eq(1L));
+        assertThat(insertedTypes()).containsExactly(TransactionType.DEPOSIT, TransactionType.WITHDRAW,
+                TransactionType.DEPOSIT, TransactionType.TRANSFER);
+        assertThat(dailyUsageStore.usage(1L)).isEqualTo(35_000);
+    }
+
+    @Test
+    @DisplayName("받는 계좌 id 가 더 작으면 입금 UPDATE 를 먼저 실행해 행 잠금 순서를 id 오름차순으로 맞춘다")
+    @SuppressWarnings("unchecked")
+    void transfer_LocksInAccountIdOrder() {
+        when(jdbcTemplate.query(startsWith("SELECT daily_use_amount"), any(RowMapper.class), eq(2L)))
+                .thenReturn(List.of(new DailyUsage(0, LocalDate.now())));
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance - ?"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance + ?, version"), any(Object[].class))).thenReturn(1);
+
+        engine.transfer(2L, 1L, Money.of(10_000));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE account SET balance = balance + ?, version"), eq(10_000L), eq(1L));
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE account SET balance = balance - ?"),
+                eq(10_000L), anyLong(), any(), eq(2L), eq(10_000L));
+        assertThat(insertedTypes()).containsExactly(TransactionType.WITHDRAW, TransactionType.DEPOSIT, TransactionType.TRANSFER);
+    }
+
+    @Test
+    @DisplayName("일일 한도를 넘으면 UPDATE 없이 거절")
+    void transfer_DailyLimitExceeded() {
+        assertThatThrownBy(() -> engine.transfer(1L, 2L, Money.of(3_500_000)))
+                .isInstanceOf(DailyLimitExceedException.class);
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        assertThat(dailyUsageStore.usage(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("받는 계좌가 없으면 예외 (트랜잭션과 함께 출금도 롤백)")
+    void transfer_MissingTarget() {
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance - ?"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE account SET balance = balance + ?, version"), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> engine.transfer(1L, 99L, Money.of(10_000)))
+                .isInstanceOf(AccountNotFoundException.class);
+        verify(transactionBatchRepository, never()).insertAll(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionType> insertedTypes() {
+        ArgumentCaptor<List<Transaction>> rows = ArgumentCaptor.forClass(List.class);
+        verify(transactionBatchRepository).insertAll(rows.capture());
+        return rows.getValue().stream().map(Transaction::getType).toList();
+    }
+}
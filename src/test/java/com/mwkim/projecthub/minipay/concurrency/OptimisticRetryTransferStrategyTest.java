@@ -0,0 +1,71 @@
+package com.mwkim.projecthub.minipay.concurrency;
+
+import com.mwkim.projecthub.minipay.config.TransferConcurrencyProperties;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.exception.custom.CollisionException;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class OptimisticRetryTransferStrategyTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private OptimisticRetryTransferStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        TransferConcurrencyProperties properties = new TransferConcurrencyProperties();
+        properties.setMaxAttempts(3);
+        properties.setBaseBackoffMillis(1);
+        properties.setMaxBackoffMillis(2);
+        strategy = new OptimisticRetryTransferStrategy(accountRepository, TransactionOperations.withoutTransaction(), properties);
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(Account.builder().id(1L).type(AccountType.MAIN).balance(BigDecimal.TEN).build()));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(Account.builder().id(2L).type(AccountType.MAIN).balance(BigDecimal.ZERO).build()));
+    }
+
+    @Test
+    @DisplayName("버전 충돌 시 계좌를 다시 읽고 재시도")
+    void execute_RetriesOnCollision() {
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .doNothing()
+                .when(accountRepository).flush();
+
+        AtomicInteger calls = new AtomicInteger();
+        strategy.execute(1L, 2L, (from, to) -> calls.incrementAndGet());
+
+        assertThat(calls.get()).isEqualTo(2);
+        verify(accountRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 모두 쓰면 CollisionException")
+    void execute_GivesUpAfterMaxAttempts() {
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .when(accountRepository).flush();
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> strategy.execute(1L, 2L, (from, to) -> calls.incrementAndGet()))
+                .isInstanceOf(CollisionException.class);
+
+        assertThat(calls.get()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mwkim.projecthub.minipay.groupcommit;
+
+import com.mwkim.projecthub.minipay.config.GroupCommitProperties;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.enums.TransferResultStatus;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GroupCommitTransferPipelineTest {
+
+    private static final long POISONED_ACCOUNT = 13L;
+
+    private AccountService accountService;
+    private GroupCommitTransferPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        accountService = mock(AccountService.class);
+        // POISONED_ACCOUNT 가 포함된 묶음은 커밋 단계에서 실패한다고 가정
+        when(accountService.transferBatch(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            List<TransferResult> results = new ArrayList<>();
+            for (int i = 0; i < commands.size(); i++) {
+                if (commands.get(i).getToAccountId() == POISONED_ACCOUNT) {
+                    throw new CannotAcquireLockException("deadlock");
+                }
+                results.add(TransferResult.success(i, commands.get(i)));
+            }
+            return results;
+        });
+
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setMaxBatchSize(64);
+        properties.setMaxWaitMicros(TimeUnit.MILLISECONDS.toMicros(50));
+        pipeline = new GroupCommitTransferPipeline(accountService, properties);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 이체는 몇 개의 트랜잭션으로 묶여 커밋된다")
+    void coalescesTransfers() {
+        List<CompletableFuture<TransferResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 128; i++) {
+            futures.add(pipeline.submit(1L, 2L, Money.of(100)));
+        }
+
+        assertThat(futures).allSatisfy(future ->
+                assertThat(future.join().getStatus()).isEqualTo(TransferResultStatus.SUCCESS));
+        verify(accountService, atMost(8)).transferBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("커밋 실패는 문제가 된 이체만 FAILED 로 남기고 나머지는 반영한다")
+    void isolatesFailingTransfer() {
+        List<CompletableFuture<TransferResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            long to = i == 5 ? POISONED_ACCOUNT : 2L;
+            futures.add(pipeline.submit(1L, to, Money.of(100)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            TransferResult result = futures.get(i).join();
+            assertThat(result.getStatus())
+                    .isEqualTo(i == 5 ? TransferResultStatus.FAILED : TransferResultStatus.SUCCESS);
+        }
+    }
+
+    @Test
+    @DisplayName("중지된 파이프라인은 새 이체를 거절한다")
+    void rejectsAfterStop() {
+        pipeline.stop();
+
+        CompletableFuture<TransferResult> future = pipeline.submit(1L, 2L, Money.of(100));
+
+        assertThat(future).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("JPA 일괄 이체를 거치지 않는 이체 전략과 함께 켜면 시작할 때 거부한다")
+    void rejectNonJpaStrategies() {
+        ReflectionTestUtils.setField(pipeline, "pendingTransferEngine", mock(PendingTransferEngine.class));
+
+        assertThatThrownBy(() -> pipeline.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=pending");
+    }
+}
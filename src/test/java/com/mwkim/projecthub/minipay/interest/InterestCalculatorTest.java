@@ -0,0 +1,58 @@
+package com.mwkim.projecthub.minipay.interest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InterestCalculatorTest {
+
+    @Test
+    @DisplayName("원 미만 이자는 carry 로 넘겨서 1년 동안 잃지 않는다")
+    void accrueDaily_CarriesFraction() {
+        long balance = 1_000_000;
+        int rateBps = 350; // 연 3.5% -> 1년 이자 35,000원
+        long carry = 0;
+        long total = 0;
+        for (int day = 0; day < 365; day++) {
+            InterestCalculator.Accrual accrual = InterestCalculator.accrueDaily(balance, rateBps, carry);
+            total += accrual.interest();
+            carry = accrual.carry();
+            assertThat(carry).isBetween(0L, InterestCalculator.DAILY_DENOMINATOR - 1);
+        }
+        assertThat(total).isEqualTo(35_000);
+        assertThat(carry).isZero();
+    }
+
+    @Test
+    @DisplayName("하루 이자가 1원이 안 되는 소액도 쌓이면 적립된다")
+    void accrueDaily_SmallBalance() {
+        InterestCalculator.Accrual first = InterestCalculator.accrueDaily(10_000, 150, 0);
+        assertThat(first.interest()).isZero();
+        assertThat(first.carry()).isEqualTo(1_500_000);
+
+        InterestCalculator.Accrual third = InterestCalculator.accrueDaily(10_000, 150,
+                InterestCalculator.accrueDaily(10_000, 150, first.carry()).carry());
+        assertThat(third.interest()).isEqualTo(1);
+        assertThat(third.carry()).isEqualTo(4_500_000 - InterestCalculator.DAILY_DENOMINATOR);
+    }
+
+    @Test
+    @DisplayName("잔액 * 이율이 long 을 넘어도 정확히 계산한다")
+    void accrueDaily_LargeBalance() {
+        long balance = Long.MAX_VALUE / 100;
+        InterestCalculator.Accrual accrual = InterestCalculator.accrueDaily(balance, 350, 0);
+        BigInteger numerator = BigInteger.valueOf(balance).multiply(BigInteger.valueOf(350));
+        assertThat(accrual.interest()).isEqualTo(numerator.divide(BigInteger.valueOf(InterestCalculator.DAILY_DENOMINATOR)).longValue());
+    }
+
+    @Test
+    @DisplayName("잔액이 없으면 이자도 없고 carry 는 그대로다")
+    void accrueDaily_ZeroBalance() {
+        InterestCalculator.Accrual accrual = InterestCalculator.accrueDaily(0, 350, 123);
+        assertThat(accrual.interest()).isZero();
+        assertThat(accrual.carry()).isEqualTo(123);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerAccountTest {
+
+    private LedgerAccount ledgerAccount(String balance, long dailyUse, LocalDateTime reset) {
+        Account account = Account.builder()
+                .id(1L)
+                .type(AccountType.MAIN)
+                .balance(new BigDecimal(balance))
+                .build();
+        account.updateDailyUseAmount(Money.of(dailyUse));
+        account.updateLastWithdrawalReset(reset);
+        return LedgerAccount.from(account);
+    }
+
+    @Test
+    @DisplayName("스냅샷은 직전 스냅샷 이후의 증감분만 담는다")
+    void snapshot_Delta() {
+        LocalDateTime now = LocalDateTime.now();
+        LedgerAccount account = ledgerAccount("100000", 5000, now);
+
+        account.debit(Money.of(3000));
+        account.addDailyUse(Money.of(3000));
+        LedgerSnapshot first = account.snapshot();
+
+        account.credit(Money.of(1000));
+        LedgerSnapshot second = account.snapshot();
+
+        assertThat(first.balanceDelta()).isEqualTo(Money.of(-3000));
+        assertThat(first.dailyUseDelta()).isEqualTo(Money.of(3000));
+        assertThat(second.balanceDelta()).isEqualTo(Money.of(1000));
+        assertThat(second.dailyUseDelta()).isEqualTo(Money.ZERO);
+
+        LedgerSnapshot merged = first.merge(second);
+        assertThat(merged.balanceDelta()).isEqualTo(Money.of(-2000));
+        assertThat(merged.dailyUseDelta()).isEqualTo(Money.of(3000));
+    }
+
+    @Test
+    @DisplayName("날짜가 바뀌면 일일 사용량 변경분은 초기화 이후 사용량 전체다")
+    void snapshot_Rollover() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        LedgerAccount account = ledgerAccount("100000", 5000, yesterday);
+
+        account.debit(Money.of(1000));
+        account.addDailyUse(Money.of(1000));
+        LedgerSnapshot before = account.snapshot();
+
+        account.rolloverIfNeeded(LocalDateTime.now());
+        account.debit(Money.of(2000));
+        account.addDailyUse(Money.of(2000));
+        LedgerSnapshot after = account.snapshot();
+
+        assertThat(after.dailyUseDelta()).isEqualTo(Money.of(2000));
+        assertThat(after.lastWithdrawalReset()).isAfter(yesterday);
+
+        LedgerSnapshot merged = before.merge(after);
+        assertThat(merged.balanceDelta()).isEqualTo(Money.of(-3000));
+        assertThat(merged.dailyUseDelta()).isEqualTo(Money.of(2000));
+        assertThat(merged.lastWithdrawalReset()).isEqualTo(after.lastWithdrawalReset());
+    }
+}
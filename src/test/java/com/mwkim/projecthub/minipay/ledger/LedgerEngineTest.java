@@ -0,0 +1,153 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.config.LedgerProperties;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class LedgerEngineTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(accountRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, "3000000")));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(account(2L, "0")));
+        when(accountRepository.findById(3L)).thenReturn(Optional.of(account(3L, "0")));
+
+        LedgerProperties properties = new LedgerProperties();
+        properties.setPartitions(2); // 1L, 3L 은 같은 파티션, 2L 은 다른 파티션
+        ledgerEngine = new LedgerEngine(properties, accountRepository, transactionBatchRepository, jdbcTemplate, transactionTemplate,
+                new AccountSummaryCache(new AccountCacheProperties(), new SimpleMeterRegistry()));
+        ledgerEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEngine.stop();
+    }
+
+    private Account account(Long id, String balance) {
+        return Account.builder()
+                .id(id)
+                .type(AccountType.MAIN)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    @Test
+    @DisplayName("다른 파티션 계좌로 이체")
+    void transfer_CrossPartition() {
+        ledgerEngine.transfer(1L, 2L, Money.of(1000000));
+
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(2000000));
+        assertThat(ledgerEngine.getBalance(2L)).isEqualTo(Money.of(1000000));
+    }
+
+    @Test
+    @DisplayName("같은 파티션 계좌로 이체 시 잔액 부족분은 만원 단위로 자동 충전")
+    void transfer_SamePartition_AutoCharge() {
+        ledgerEngine.transfer(3L, 1L, Money.of(1000));
+
+        assertThat(ledgerEngine.getBalance(3L)).isEqualTo(Money.of(9000));
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(3001000));
+    }
+
+    @Test
+    @DisplayName("일일 한도 초과 시 잔액은 변경되지 않는다")
+    void transfer_DailyLimitExceeded() {
+        assertThatThrownBy(() -> ledgerEngine.transfer(1L, 2L, Money.of(3000001)))
+                .isInstanceOf(DailyLimitExceedException.class);
+
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(3000000));
+        assertThat(ledgerEngine.getBalance(2L)).isEqualTo(Money.of(0));
+    }
+
+    @Test
+    @DisplayName("받는 계좌가 없으면 출금하지 않는다")
+    void transfer_UnknownReceiver() {
+        assertThatThrownBy(() -> ledgerEngine.transfer(1L, 4L, Money.of(1000)))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(3000000));
+    }
+
+    @Test
+    @DisplayName("다른 파티션 입금이 실패하면 보내는 계좌에 보상 입금한다")
+    void transfer_CrossPartition_CreditFailed_Refunded() {
+        when(accountRepository.findById(6L)).thenReturn(Optional.of(account(6L, String.valueOf(Long.MAX_VALUE))));
+
+        assertThatThrownBy(() -> ledgerEngine.transfer(1L, 6L, Money.of(1000)))
+                .isInstanceOf(ArithmeticException.class);
+
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(3000000));
+        assertThat(ledgerEngine.getBalance(6L)).isEqualTo(Money.of(Long.MAX_VALUE));
+        // 환불로 일일 사용량도 되돌아가서 한도만큼 다시 보낼 수 있다
+        ledgerEngine.transfer(1L, 2L, Money.of(3000000));
+        assertThat(ledgerEngine.getBalance(2L)).isEqualTo(Money.of(3000000));
+    }
+
+    @Test
+    @DisplayName("동시 이체도 락 없이 순서대로 적용된다")
+    void transfer_Concurrent() throws InterruptedException {
+        int numberOfThreads = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(numberOfThreads);
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            executorService.submit(() -> {
+                try {
+                    ledgerEngine.transfer(1L, 2L, Money.of(100));
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(ledgerEngine.getBalance(1L)).isEqualTo(Money.of(2990000));
+        assertThat(ledgerEngine.getBalance(2L)).isEqualTo(Money.of(10000));
+    }
+}
@@ -0,0 +1,48 @@
+package com.mwkim.projecthub.minipay.ledger;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class LedgerProjectorTest {
+
+    private final TransactionBatchRepository transactionBatchRepository = mock(TransactionBatchRepository.class);
+
+    private final LedgerProjector projector = new LedgerProjector(mock(JdbcTemplate.class), transactionBatchRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new AccountSummaryCache(new AccountCacheProperties(), new SimpleMeterRegistry()), 100);
+
+    @Test
+    @DisplayName("거래 내역은 flush 시각이 아니라 원장에 반영된 시각으로 기록한다")
+    @SuppressWarnings("unchecked")
+    void flush_StampsOccurredAt() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusDays(1).withHour(23).withMinute(59);
+        LedgerSnapshot snapshot = new LedgerSnapshot(1L, Money.of(-1000), Money.of(1000), requestedAt);
+
+        projector.flush(List.of(new LedgerProjector.Change(snapshot, List.of(
+                new LedgerEntry(1L, TransactionType.WITHDRAW, Money.of(1000), "Withdraw", requestedAt),
+                LedgerEntry.transfer(1L, TransactionType.TRANSFER, Money.of(1000), TransferDirection.OUTGOING, 2L, 7L, requestedAt)))));
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionBatchRepository).insertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Transaction::getTransactionDate).containsOnly(requestedAt);
+    }
+}
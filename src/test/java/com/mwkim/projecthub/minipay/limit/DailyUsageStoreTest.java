@@ -0,0 +1,150 @@
+package com.mwkim.projecthub.minipay.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyUsageStoreTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    private static final long LIMIT = 3_000_000;
+
+    private MutableClock clock;
+    private DailyUsageStore store;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(LocalDate.of(2024, 7, 1).atTime(23, 0).atZone(ZONE).toInstant());
+        store = new DailyUsageStore(clock);
+        today = LocalDate.of(2024, 7, 1);
+    }
+
+    @Test
+    @DisplayName("한도 안에서는 누적되고, 넘으면 변경 없이 거절")
+    void tryAdd_EnforcesLimit() {
+        assertThat(store.tryAdd(1L, 2_000_000, LIMIT, 0, today)).isTrue();
+        assertThat(store.tryAdd(1L, 1_500_000, LIMIT, 0, today)).isFalse();
+        assertThat(store.usage(1L)).isEqualTo(2_000_000);
+
+        assertThat(store.tryAdd(1L, 1_000_000, LIMIT, 0, today)).isTrue();
+        assertThat(store.usage(1L)).isEqualTo(LIMIT);
+    }
+
+    @Test
+    @DisplayName("DB 에 기록된 오늘 사용량에서 이어서 누적")
+    void tryAdd_SeedsFromPersistedUsage() {
+        assertThat(store.tryAdd(1L, 1_000_000, LIMIT, 2_500_000, today)).isFalse();
+        assertThat(store.tryAdd(1L, 500_000, LIMIT, 2_500_000, today)).isTrue();
+        assertThat(store.usage(1L)).isEqualTo(LIMIT);
+    }
+
+    @Test
+    @DisplayName("어제 기록된 사용량은 무시")
+    void tryAdd_IgnoresStaleSeed() {
+        assertThat(store.tryAdd(1L, 1_000_000, LIMIT, 2_500_000, today.minusDays(1))).isTrue();
+        assertThat(store.usage(1L)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    @DisplayName("자정이 지나면 다음 호출에서 사용량이 초기화")
+    void tryAdd_RollsOverAtMidnight() {
+        store.tryAdd(1L, LIMIT, LIMIT, 0, today);
+        assertThat(store.tryAdd(1L, 1, LIMIT, 0, today)).isFalse();
+
+        clock.advance(Duration.ofHours(1)); // 다음날 00:00
+
+        assertThat(store.usage(1L)).isZero();
+        assertThat(store.tryAdd(1L, 1, LIMIT, 0, today)).isTrue();
+        assertThat(store.currentEpochDay()).isEqualTo(today.plusDays(1).toEpochDay());
+    }
+
+    @Test
+    @DisplayName("이틀 동안 거래가 없는 계좌의 카운터는 지우고, 다음 거래 때 DB 값으로 다시 만든다")
+    void counters_ExpireWhenIdle() {
+        store.tryAdd(1L, 1_000_000, LIMIT, 0, today);
+        store.tryAdd(2L, 1_000_000, LIMIT, 0, today);
+
+        clock.advance(Duration.ofDays(1));
+        store.tryAdd(2L, 1_000, LIMIT, 0, today);
+        clock.advance(Duration.ofDays(1).plusMinutes(1));
+
+        assertThat(store.isTracked(1L)).isFalse();
+        assertThat(store.isTracked(2L)).isTrue();
+        assertThat(store.tryAdd(1L, LIMIT, LIMIT, 0, today.plusDays(2))).isTrue();
+    }
+
+    @Test
+    @DisplayName("롤백된 사용량은 되돌린다")
+    void release_RevertsUsage() {
+        store.tryAdd(1L, 1_000_000, LIMIT, 0, today);
+        store.release(1L, 400_000, store.currentEpochDay());
+
+        assertThat(store.usage(1L)).isEqualTo(600_000);
+    }
+
+    @Test
+    @DisplayName("동시에 누적해도 한도를 넘지 않는다")
+    void tryAdd_Concurrent() throws InterruptedException {
+        int requests = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicInteger accepted = new AtomicInteger();
+
+        for (int i = 0; i < requests; i++) {
+            executorService.submit(() -> {
+                try {
+                    if (store.tryAdd(1L, 10_000, LIMIT, 0, today)) {
+                        accepted.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(accepted.get()).isEqualTo(300);
+        assertThat(store.usage(1L)).isEqualTo(LIMIT);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mwkim.projecthub.minipay.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("만원 단위 올림")
+    void roundUpTo() {
+        Money unit = Money.of(10_000);
+
+        assertThat(Money.of(1).roundUpTo(unit)).isEqualTo(Money.of(10_000));
+        assertThat(Money.of(10_000).roundUpTo(unit)).isEqualTo(Money.of(10_000));
+        assertThat(Money.of(500_001).roundUpTo(unit)).isEqualTo(Money.of(510_000));
+    }
+
+    @Test
+    @DisplayName("나눗셈은 원 단위 내림")
+    void dividedBy() {
+        assertThat(Money.of(1000).dividedBy(3)).isEqualTo(Money.of(333));
+    }
+
+    @Test
+    @DisplayName("overflow 는 ArithmeticException")
+    void overflow() {
+        assertThatThrownBy(() -> Money.of(Long.MAX_VALUE).plus(Money.of(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(Long.MAX_VALUE / 2 + 1).times(2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("DECIMAL 컬럼 값과 변환")
+    void bigDecimalConversion() {
+        assertThat(Money.of(new BigDecimal("3000000.00"))).isEqualTo(Money.of(3_000_000));
+        assertThat(Money.of(3_000_000).toBigDecimal()).isEqualTo(new BigDecimal("3000000"));
+    }
+
+    @Test
+    @DisplayName("소수점 아래 금액이나 long 범위를 넘는 금액은 IllegalArgumentException (400)")
+    void bigDecimalConversion_Invalid() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.5")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10.5");
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1E+30")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("DB 에서 읽은 값이 원 단위가 아니면 400 이 아니라 IllegalStateException")
+    void converter_InvalidStoredValue() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("1000.00"))).isEqualTo(Money.of(1000));
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(new BigDecimal("10.5")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("10.5");
+    }
+}
@@ -0,0 +1,83 @@
+package com.mwkim.projecthub.minipay.netting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NettingEngineTest {
+
+    @Test
+    @DisplayName("순환 채무는 모두 상계되어 송금이 없다")
+    void cycleCancelsOut() {
+        NettingEngine engine = new NettingEngine();
+        engine.add(1, 2, 10_000);
+        engine.add(2, 3, 10_000);
+        engine.add(3, 1, 10_000);
+
+        assertThat(engine.settle()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A->B, B->C 는 A->C 한 건으로 줄어든다")
+    void chainCollapses() {
+        NettingEngine engine = new NettingEngine();
+        engine.add(1, 2, 5_000);
+        engine.add(2, 3, 5_000);
+
+        assertThat(engine.settle()).containsExactly(new NetTransfer(1, 3, 5_000));
+    }
+
+    @Test
+    @DisplayName("자기 자신에게 주는 채무와 0원은 무시한다")
+    void ignoresSelfAndZero() {
+        NettingEngine engine = new NettingEngine();
+        engine.add(1, 1, 5_000);
+        engine.add(1, 2, 0);
+
+        assertThat(engine.obligationCount()).isZero();
+        assertThat(engine.settle()).isEmpty();
+        assertThatThrownBy(() -> engine.add(1, 2, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("20만 건 채무 : 순포지션이 보존되고 송금 수는 사용자 수 - 1 이하")
+    void largeWindowPreservesPositions() {
+        int users = 2_000;
+        int obligations = 200_000;
+        SplittableRandom random = new SplittableRandom(42);
+
+        NettingEngine engine = new NettingEngine(users);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < obligations; i++) {
+            long debtor = random.nextInt(users) + 1;
+            long creditor = random.nextInt(users) + 1;
+            long amount = random.nextLong(1, 1_000_000);
+            engine.add(debtor, creditor, amount);
+            if (debtor != creditor) {
+                expected.merge(debtor, -amount, Long::sum);
+                expected.merge(creditor, amount, Long::sum);
+            }
+        }
+
+        List<NetTransfer> transfers = engine.settle();
+
+        Map<Long, Long> actual = new HashMap<>();
+        for (NetTransfer transfer : transfers) {
+            assertThat(transfer.amount()).isPositive();
+            actual.merge(transfer.fromUserId(), -transfer.amount(), Long::sum);
+            actual.merge(transfer.toUserId(), transfer.amount(), Long::sum);
+        }
+        expected.values().removeIf(v -> v == 0);
+        actual.values().removeIf(v -> v == 0);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(transfers.size()).isLessThan(expected.size());
+        expected.forEach((user, position) -> assertThat(engine.positionOf(user)).isEqualTo(position));
+    }
+}
@@ -0,0 +1,53 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mwkim.projecthub.minipay.config.OutboxProperties;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.enums.TransferDirection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileLogOutboxSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("배치마다 이벤트를 한 줄씩 파일 끝에 덧붙인다")
+    void publish_AppendsNdjson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        OutboxProperties properties = new OutboxProperties();
+        properties.setFileLogPath(dir.resolve("events/ledger.ndjson").toString());
+        properties.setFileLogFsync(true);
+
+        FileLogOutboxSink sink = new FileLogOutboxSink(objectMapper, properties);
+        sink.open();
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        sink.publish(List.of(new LedgerEvent(1, 11, 10, TransactionType.WITHDRAW, 500, "Withdraw", null, null, null, now),
+                new LedgerEvent(2, 12, 20, TransactionType.DEPOSIT, 500, null, TransferDirection.INCOMING, 10L, 7L, now)));
+        sink.close();
+
+        // 다시 열어도 이어서 쓴다
+        sink.open();
+        sink.publish(List.of(new LedgerEvent(3, 13, 10, TransactionType.TRANSFER, 500, null, TransferDirection.OUTGOING, 20L, 7L, now)));
+        sink.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("events/ledger.ndjson"));
+        assertThat(lines).hasSize(3);
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        assertThat(last.get("transactionId").asLong()).isEqualTo(13);
+        assertThat(last.get("type").asText()).isEqualTo("TRANSFER");
+        assertThat(last.get("direction").asText()).isEqualTo("OUTGOING");
+        assertThat(last.get("counterpartyAccountId").asLong()).isEqualTo(20);
+        assertThat(last.get("transferId").asLong()).isEqualTo(objectMapper.readTree(lines.get(1)).get("transferId").asLong());
+    }
+}
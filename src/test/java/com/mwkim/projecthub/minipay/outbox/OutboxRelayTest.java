@@ -0,0 +1,117 @@
+package com.mwkim.projecthub.minipay.outbox;
+
+import com.mwkim.projecthub.minipay.config.OutboxProperties;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxSink firstSink;
+
+    @Mock
+    private OutboxSink secondSink;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxProperties properties;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        relay = new OutboxRelay(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                List.of(firstSink, secondSink), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @DisplayName("잠근 배치를 모든 sink 에 전달한 뒤 지우고, 빈 배치가 나올 때까지 반복한다")
+    void relay_DeliversAndDeletes() {
+        List<LedgerEvent> full = List.of(event(1), event(2));
+        List<LedgerEvent> partial = List.of(event(3));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenReturn((List) full, (List) partial);
+
+        assertThat(relay.relay()).isEqualTo(3);
+
+        verify(firstSink).publish(full);
+        verify(secondSink).publish(full);
+        verify(secondSink).publish(partial);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("DELETE"), anyList(), anyInt(), any());
+        assertThat(meterRegistry.get("outbox.dispatched").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @DisplayName("sink 가 실패하면 이벤트를 지우지 않는다 (다음 주기에 다시 전달)")
+    void relayBatch_KeepsEventsWhenSinkFails() {
+        List<LedgerEvent> events = List.of(event(1));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenReturn((List) events);
+        doThrow(new IllegalStateException("broker down")).when(secondSink).publish(events);
+
+        assertThatThrownBy(() -> relay.relayBatch()).isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any());
+        assertThat(relay.relay()).isZero();
+    }
+
+    @Test
+    @DisplayName("lag 은 가장 오래된 미전달 이벤트의 나이다")
+    void updateLag_OldestEventAge() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Timestamp.class)))
+                .thenReturn(List.of(Timestamp.valueOf(LocalDateTime.now().minusSeconds(30))), List.of());
+
+        relay.updateLag();
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isBetween(29.0, 31.0);
+
+        relay.updateLag();
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @DisplayName("backlog 를 비우는 중에도 배치마다 lag 을 다시 계산한다")
+    void relay_RefreshesLagPerBatch() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenReturn((List) List.of(event(1), event(2)), (List) List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(Timestamp.class)))
+                .thenReturn(List.of(Timestamp.valueOf(LocalDateTime.now().minusSeconds(10))));
+
+        relay.relay();
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Timestamp.class));
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isBetween(9.0, 11.0);
+    }
+
+    private static LedgerEvent event(long id) {
+        return new LedgerEvent(id, 100 + id, 10L, TransactionType.DEPOSIT, 1000, "Deposit", null, null, null,
+                LocalDateTime.now());
+    }
+}
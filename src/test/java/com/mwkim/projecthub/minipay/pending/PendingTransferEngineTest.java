@@ -0,0 +1,109 @@
+package com.mwkim.projecthub.minipay.pending;
+
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.concurrency.TransferConcurrencyStrategy;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.config.PendingTransferProperties;
+import com.mwkim.projecthub.minipay.entity.PendingTransfer;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.exception.custom.PendingTransferNotFoundException;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.PendingTransferRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
+import com.mwkim.projecthub.minipay.service.DailyLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PendingTransferEngineTest {
+
+    private PendingTransferRepository pendingTransferRepository;
+    private AccountRepository accountRepository;
+    private JdbcTemplate jdbcTemplate;
+    private PendingTransferEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        pendingTransferRepository = mock(PendingTransferRepository.class);
+        accountRepository = mock(AccountRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        PendingTransferProperties properties = new PendingTransferProperties();
+        properties.setTtl(Duration.ofMillis(1)); // 보내자마자 만료 대상
+        properties.setTickMillis(1);
+        engine = new PendingTransferEngine(pendingTransferRepository, accountRepository,
+                mock(TransferConcurrencyStrategy.class), mock(DailyLimitService.class), mock(TransactionBatchRepository.class),
+                new AccountSummaryCache(new AccountCacheProperties(), new SimpleMeterRegistry()),
+                jdbcTemplate, TransactionOperations.withoutTransaction(), properties);
+    }
+
+    @Test
+    @DisplayName("만료 : PENDING 으로 남은 것만 EXPIRED 로 바꾸고 보낸 계좌별로 합쳐서 환불")
+    @SuppressWarnings("unchecked")
+    void expireRefundsPerAccount() throws Exception {
+        addToWheel(1L, 2L, 3L);
+        // 3번은 이미 수령되어 잠기지 않음
+        when(pendingTransferRepository.lockPending(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, 10L, new BigDecimal("1000")},
+                new Object[]{2L, 10L, new BigDecimal("500")}));
+        Thread.sleep(5);
+
+        engine.expireDue();
+
+        verify(pendingTransferRepository).markExpired(List.of(1L, 2L));
+        ArgumentCaptor<List<Object[]>> params = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE account SET balance = balance + ?"), params.capture());
+        assertThat(params.getValue()).hasSize(1);
+        assertThat(params.getValue().get(0)).containsExactly(1500L, 10L);
+    }
+
+    @Test
+    @DisplayName("받는 계좌 주인이 아니면 수령할 수 없다")
+    void claimByOtherUser() {
+        PendingTransfer pending = PendingTransfer.createPendingTransfer(10L, 20L, Money.of(1000), 7L);
+        when(pendingTransferRepository.findById(1L)).thenReturn(Optional.of(pending));
+        when(accountRepository.findIdsByUserId(99L)).thenReturn(List.of(30L));
+
+        assertThatThrownBy(() -> engine.claim(1L, 99L)).isInstanceOf(IllegalArgumentException.class);
+        verify(pendingTransferRepository, never()).transition(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("이미 수령/만료된 송금은 다시 수령할 수 없다")
+    void claimTwice() {
+        PendingTransfer pending = PendingTransfer.createPendingTransfer(10L, 20L, Money.of(1000), 7L);
+        when(pendingTransferRepository.findById(1L)).thenReturn(Optional.of(pending));
+        when(accountRepository.findIdsByUserId(2L)).thenReturn(List.of(20L));
+        when(pendingTransferRepository.transition(any(), eq(TransactionStatus.PENDING), eq(TransactionStatus.COMPLETED), any()))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> engine.claim(1L, 2L)).isInstanceOf(PendingTransferNotFoundException.class);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    // 기동 시 재적재와 같은 경로로 휠에 넣는다 (만료 시각 = 지금)
+    private void addToWheel(Long... ids) {
+        TimingWheel wheel = (TimingWheel) ReflectionTestUtils.getField(engine, "wheel");
+        synchronized (wheel) {
+            for (Long id : ids) {
+                wheel.add(id, System.currentTimeMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mwkim.projecthub.minipay.pending;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_720_000_000_500L;
+
+    @Test
+    @DisplayName("만료 시각 전에는 나오지 않고, 지나면 한 tick 안에 나온다")
+    void expiresOnTime() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, START);
+        wheel.add(1L, START + 2_500);
+        List<Long> expired = new ArrayList<>();
+
+        wheel.advance(START + 2_499, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 3_500, expired::add);
+        assertThat(expired).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("이미 지난 시각으로 등록하면 다음 advance 에서 바로 만료")
+    void pastDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, START);
+        wheel.add(7L, START - 60_000);
+        List<Long> expired = new ArrayList<>();
+
+        wheel.advance(START, expired::add);
+
+        assertThat(expired).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("72시간에 걸친 대량 항목도 모두 제때 만료 (상위 휠 -> 하위 휠 cascade)")
+    void cascadesAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, START);
+        SplittableRandom random = new SplittableRandom(42);
+        int entries = 200_000;
+        long ttl = 72L * 3600 * 1000;
+        long[] deadlines = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            deadlines[i] = START + random.nextLong(ttl + 1);
+            wheel.add(i, deadlines[i]);
+        }
+        // 휠 범위(64^4 tick)를 넘는 항목
+        long far = START + 300L * 24 * 3600 * 1000;
+        wheel.add(entries, far);
+
+        long step = 10 * 60 * 1000; // 10분씩 진행
+        int[] seen = {0};
+        boolean[] onTime = {true};
+        for (long now = START + step; now <= START + ttl + step; now += step) {
+            long current = now;
+            wheel.advance(now, id -> {
+                long deadline = deadlines[(int) id];
+                onTime[0] &= deadline <= current && deadline > current - step - TICK;
+                seen[0]++;
+            });
+        }
+
+        assertThat(seen[0]).isEqualTo(entries);
+        assertThat(onTime[0]).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<Long> late = new ArrayList<>();
+        wheel.advance(far - 1, late::add);
+        assertThat(late).isEmpty();
+        wheel.advance(far, late::add);
+        assertThat(late).containsExactly((long) entries);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mwkim.projecthub.minipay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 H2 의 id_block 테이블로 블록 예약을 확인한다.
+ */
+class TransferIdAllocatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:transfer-id;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE id_block (entity VARCHAR(64) NOT NULL PRIMARY KEY, next_val BIGINT)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE id_block");
+    }
+
+    @Test
+    @DisplayName("첫 블록은 행을 만들고, 블록 안에서는 DB 를 다시 읽지 않고 이어서 발급한다")
+    void next_WithinBlock() {
+        TransferIdAllocator allocator = new TransferIdAllocator(jdbcTemplate, transactionManager, 3);
+
+        assertThat(allocator.next()).isEqualTo(1L);
+        assertThat(allocator.next()).isEqualTo(2L);
+        assertThat(allocator.next()).isEqualTo(3L);
+        assertThat(nextVal()).isEqualTo(4L);
+
+        assertThat(allocator.next()).isEqualTo(4L); // 다음 블록
+        assertThat(nextVal()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("다른 노드는 겹치지 않는 블록을 받는다")
+    void next_TwoNodes() {
+        TransferIdAllocator a = new TransferIdAllocator(jdbcTemplate, transactionManager, 10);
+        TransferIdAllocator b = new TransferIdAllocator(jdbcTemplate, transactionManager, 10);
+
+        assertThat(a.next()).isEqualTo(1L);
+        assertThat(b.next()).isEqualTo(11L);
+        assertThat(a.next()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("호출한 트랜잭션이 롤백돼도 예약한 블록은 남는다")
+    void next_SurvivesRollback() {
+        TransferIdAllocator allocator = new TransferIdAllocator(jdbcTemplate, transactionManager, 10);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            allocator.next();
+            status.setRollbackOnly();
+        });
+
+        assertThat(nextVal()).isEqualTo(11L);
+        assertThat(new TransferIdAllocator(jdbcTemplate, transactionManager, 10).next()).isEqualTo(11L);
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM id_block WHERE entity = 'transfer'", Long.class);
+    }
+}
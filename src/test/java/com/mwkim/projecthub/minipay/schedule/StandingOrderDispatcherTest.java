@@ -0,0 +1,220 @@
+package com.mwkim.projecthub.minipay.schedule;
+
+import com.mwkim.projecthub.minipay.config.StandingOrderProperties;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.StandingOrder;
+import com.mwkim.projecthub.minipay.enums.RecurrenceType;
+import com.mwkim.projecthub.minipay.enums.StandingOrderStatus;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.StandingOrderRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StandingOrderDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 31, 9, 0, 30);
+
+    @Mock
+    private StandingOrderRepository standingOrderRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    private StandingOrderProperties properties;
+    private StandingOrderDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new StandingOrderProperties();
+        properties.setWorkers(1);
+        dispatcher = new StandingOrderDispatcher(standingOrderRepository, accountService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    @DisplayName("같은 분에 도래한 주문을 한 번의 일괄 이체로 실행하고, 결과에 따라 다음 회차 / 백오프로 넘긴다")
+    void runChunk_ExecutesBucketInOneBatch() {
+        StandingOrder monthly = order(1L, RecurrenceType.MONTHLY, NOW.minusMonths(1));
+        StandingOrder once = order(2L, RecurrenceType.ONCE, NOW);
+        LocalDateTime dueBefore = NOW.withSecond(0).plusMinutes(1);
+        when(standingOrderRepository.lockDue(dueBefore, properties.getBatchSize())).thenReturn(List.of(monthly, once));
+        when(accountService.transferBatch(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            return List.of(TransferResult.success(0, commands.get(0)),
+                    TransferResult.failed(1, commands.get(1), "Insufficient balance"));
+        });
+
+        assertThat(dispatcher.runChunk(dueBefore)).isEqualTo(2);
+
+        verify(accountService, times(1)).transferBatch(anyList());
+        assertThat(monthly.getRunCount()).isEqualTo(1);
+        assertThat(monthly.getNextRunAt()).isAfter(LocalDateTime.now());
+        assertThat(once.getStatus()).isEqualTo(StandingOrderStatus.ACTIVE);
+        assertThat(once.getAttempts()).isEqualTo(1);
+        assertThat(once.getLastError()).isEqualTo("Insufficient balance");
+        assertThat(once.getNextRunAt()).isAfter(NOW);
+    }
+
+    @Test
+    @DisplayName("묶음 트랜잭션 전체가 실패하면 잠갔던 주문을 백오프로 미룬다")
+    void runChunk_BacksOffWhenChunkRollsBack() {
+        StandingOrder order = order(1L, RecurrenceType.DAILY, NOW);
+        LocalDateTime dueBefore = NOW.withSecond(0).plusMinutes(1);
+        when(standingOrderRepository.lockDue(any(), anyInt())).thenReturn(List.of(order));
+        when(accountService.transferBatch(anyList())).thenThrow(new PessimisticLockingFailureException("lock wait timeout"));
+        when(standingOrderRepository.findAllById(List.of(1L))).thenReturn(List.of(order));
+
+        assertThat(dispatcher.runChunk(dueBefore)).isEqualTo(1);
+
+        assertThat(order.getAttempts()).isEqualTo(1);
+        assertThat(order.getRunCount()).isZero();
+        assertThat(order.getLastError()).isEqualTo("lock wait timeout");
+    }
+
+    @Test
+    @DisplayName("묶음이 롤백되면 나눠서 다시 실행하고, 혼자서도 실패하는 주문만 백오프로 미룬다")
+    void runChunk_IsolatesFailingOrder() {
+        StandingOrder healthy = order(1L, RecurrenceType.ONCE, NOW);
+        StandingOrder conflicting = order(2L, RecurrenceType.ONCE, NOW);
+        StandingOrder another = order(3L, RecurrenceType.ONCE, NOW);
+        List<StandingOrder> all = List.of(healthy, conflicting, another);
+        LocalDateTime dueBefore = NOW.withSecond(0).plusMinutes(1);
+        when(standingOrderRepository.lockDue(any(), anyInt())).thenReturn(all);
+        when(standingOrderRepository.lockDueByIds(anyCollection(), eq(dueBefore))).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return all.stream().filter(order -> ids.contains(order.getId())).toList();
+        });
+        when(standingOrderRepository.findAllById(List.of(2L))).thenReturn(List.of(conflicting));
+        ReflectionTestUtils.setField(conflicting, "amount", Money.of(2000));
+        when(accountService.transferBatch(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            List<TransferResult> results = new ArrayList<>();
+            for (int i = 0; i < commands.size(); i++) {
+                if (commands.get(i).getAmount().compareTo(new BigDecimal("2000")) == 0) {
+                    throw new ObjectOptimisticLockingFailureException(Account.class, 20L);
+                }
+                results.add(TransferResult.success(i, commands.get(i)));
+            }
+            return results;
+        });
+
+        assertThat(dispatcher.runChunk(dueBefore)).isEqualTo(3);
+
+        assertThat(healthy.getStatus()).isEqualTo(StandingOrderStatus.COMPLETED);
+        assertThat(healthy.getAttempts()).isZero();
+        assertThat(another.getStatus()).isEqualTo(StandingOrderStatus.COMPLETED);
+        assertThat(another.getAttempts()).isZero();
+        assertThat(conflicting.getStatus()).isEqualTo(StandingOrderStatus.ACTIVE);
+        assertThat(conflicting.getAttempts()).isEqualTo(1);
+        verify(standingOrderRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("원장 모드에서는 이중 이체를 막기 위해 예약 이체를 실행하지 않는다")
+    void dispatch_SkippedInLedgerMode() {
+        ReflectionTestUtils.setField(dispatcher, "ledgerEngine", mock(LedgerEngine.class));
+
+        assertThat(dispatcher.dispatch(NOW)).isZero();
+
+        verify(standingOrderRepository, never()).lockDue(any(), anyInt());
+        verify(accountService, never()).transferBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("수령 대기 모드에서는 일괄 이체를 쓸 수 없어 예약 이체를 실행하지 않는다")
+    void dispatch_SkippedInPendingMode() {
+        ReflectionTestUtils.setField(dispatcher, "pendingTransferEngine", mock(PendingTransferEngine.class));
+
+        assertThat(dispatcher.dispatch(NOW)).isZero();
+
+        verify(standingOrderRepository, never()).lockDue(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("더 잠글 주문이 없을 때까지 묶음을 반복한다")
+    void dispatch_DrainsUntilEmpty() {
+        StandingOrder first = order(1L, RecurrenceType.ONCE, NOW);
+        StandingOrder second = order(2L, RecurrenceType.ONCE, NOW);
+        when(standingOrderRepository.lockDue(any(), anyInt())).thenReturn(List.of(first), List.of(second), List.of());
+        when(accountService.transferBatch(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            return List.of(TransferResult.success(0, commands.get(0)));
+        });
+
+        assertThat(dispatcher.dispatch(NOW)).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(StandingOrderStatus.COMPLETED);
+        assertThat(second.getStatus()).isEqualTo(StandingOrderStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("백오프는 두 배씩 늘고 최대값을 넘지 않는다")
+    void backoff_Exponential() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(dispatcher.backoff(10)).isEqualTo(Duration.ofSeconds(3600));
+        assertThat(dispatcher.backoff(100)).isEqualTo(Duration.ofSeconds(3600));
+    }
+
+    @Test
+    @DisplayName("매월 주문은 첫 실행일 기준으로 회차를 계산해 말일에서 밀리지 않는다")
+    void monthly_DoesNotDrift() {
+        LocalDateTime first = LocalDateTime.of(2024, 1, 31, 9, 0);
+        assertThat(RecurrenceType.MONTHLY.occurrence(first, 1)).isEqualTo(LocalDateTime.of(2024, 2, 29, 9, 0));
+        assertThat(RecurrenceType.MONTHLY.occurrence(first, 2)).isEqualTo(LocalDateTime.of(2024, 3, 31, 9, 0));
+    }
+
+    @Test
+    @DisplayName("반복 주문은 재시도를 다 써도 멈추지 않고 다음 회차로 넘어간다")
+    void recurring_SkipsOccurrenceAfterMaxAttempts() {
+        StandingOrder order = order(1L, RecurrenceType.DAILY, NOW);
+        for (int i = 0; i < properties.getMaxAttempts(); i++) {
+            order.failed("fail", NOW, Duration.ofMinutes(1), properties.getMaxAttempts());
+        }
+        assertThat(order.getStatus()).isEqualTo(StandingOrderStatus.ACTIVE);
+        assertThat(order.getAttempts()).isZero();
+        assertThat(order.getNextRunAt()).isEqualTo(NOW.withSecond(0).plusDays(1));
+
+        StandingOrder once = order(2L, RecurrenceType.ONCE, NOW);
+        for (int i = 0; i < properties.getMaxAttempts(); i++) {
+            once.failed("fail", NOW, Duration.ofMinutes(1), properties.getMaxAttempts());
+        }
+        assertThat(once.getStatus()).isEqualTo(StandingOrderStatus.FAILED);
+    }
+
+    private static StandingOrder order(Long id, RecurrenceType recurrence, LocalDateTime firstRunAt) {
+        StandingOrder order = StandingOrder.createStandingOrder(100L, 10L, 20L, Money.of(1000), recurrence, firstRunAt);
+        ReflectionTestUtils.setField(order, "id", id);
+        return order;
+    }
+}
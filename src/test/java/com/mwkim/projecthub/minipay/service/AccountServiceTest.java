@@ -1,19 +1,40 @@
 package com.mwkim.projecthub.minipay.service;
 
+import com.mwkim.projecthub.minipay.cache.AccountSummaryCache;
+import com.mwkim.projecthub.minipay.concurrency.OptimisticRetryTransferStrategy;
+import com.mwkim.projecthub.minipay.config.AccountCacheProperties;
+import com.mwkim.projecthub.minipay.config.GroupCommitProperties;
+import com.mwkim.projecthub.minipay.config.HotAccountProperties;
+import com.mwkim.projecthub.minipay.config.TransferConcurrencyProperties;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
 import com.mwkim.projecthub.minipay.entity.Account;
 import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.TransferResultStatus;
 import com.mwkim.projecthub.minipay.exception.custom.DailyLimitExceedException;
+import com.mwkim.projecthub.minipay.groupcommit.GroupCommitTransferPipeline;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.repository.AccountBalanceSlotRepository;
 import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionBatchRepository;
 import com.mwkim.projecthub.minipay.repository.TransactionRepository;
+import com.mwkim.projecthub.minipay.subledger.HotAccountLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -23,7 +44,6 @@ import static org.mockito.Mockito.*;
 
 public class AccountServiceTest {
 
-    @InjectMocks
     private AccountService accountService;
 
     @Mock
@@ -35,6 +55,9 @@ public class AccountServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionBatchRepository transactionBatchRepository;
+
 
     private Account mainAccount;
     private Account savingsAccount;
@@ -44,6 +67,10 @@ public class AccountServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        OptimisticRetryTransferStrategy transferStrategy = new OptimisticRetryTransferStrategy(
+                accountRepository, TransactionOperations.withoutTransaction(), new TransferConcurrencyProperties());
+        accountService = new AccountService(accountRepository, null, null, dailyLimitService, transferStrategy, transactionBatchRepository,
+                new AccountSummaryCache(new AccountCacheProperties(), new SimpleMeterRegistry()));
 
         mainAccount = Account.builder()
                 .id(1L)
@@ -62,7 +89,7 @@ public class AccountServiceTest {
         when(accountRepository.findById(2L)).thenReturn(Optional.of(savingsAccount));
 
         // DailyLimitService의 기본 동작 설정
-        doNothing().when(dailyLimitService).checkAndUpdateDailyLimit(any(Account.class), any(BigDecimal.class));
+        doNothing().when(dailyLimitService).checkAndUpdateDailyLimit(any(Account.class), any(Money.class));
     }
 
     @Test
@@ -74,7 +101,7 @@ public class AccountServiceTest {
 
         assertThat(mainAccount.getBalance()).isEqualTo(new BigDecimal("2000000"));
         assertThat(savingsAccount.getBalance()).isEqualTo(new BigDecimal("1000000"));
-        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(eq(mainAccount), eq(transferAmount));
+        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(eq(mainAccount), eq(Money.of(transferAmount)));
     }
 
     @Test
@@ -107,6 +134,16 @@ public class AccountServiceTest {
         assertThat(savingsAccount.getBalance()).isEqualTo(BigDecimal.ZERO);
     }
 
+    @Test
+    @DisplayName("원 단위 아래 소수점이 있는 금액은 400 으로 거절")
+    void transfer_FractionalAmount() {
+        assertThatThrownBy(() -> accountService.transfer(mainAccount.getId(), savingsAccount.getId(), new BigDecimal("1000.5")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(mainAccount.getBalance()).isEqualTo(new BigDecimal("3000000"));
+        verify(transactionBatchRepository, never()).append(any());
+    }
+
     @Test
     @DisplayName("여러 번의 이체 시도에서 일일 한도 적용")
     void transfer_MultipleTransactions_DailyLimitCheck() {
@@ -124,15 +161,149 @@ public class AccountServiceTest {
 
         // 두 번째 이체 (실패해야 함 - 일일 한도 초과)
         doThrow(new DailyLimitExceedException("Daily deposit limit exceeded"))
-                .when(dailyLimitService).checkAndUpdateDailyLimit(mainAccount, transferAmount2);
+                .when(dailyLimitService).checkAndUpdateDailyLimit(mainAccount, Money.of(transferAmount2));
 
         assertThrows(DailyLimitExceedException.class,
                 () -> accountService.transfer(fromAccountId, toAccountId, transferAmount2));
 
         // Verify
-        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(mainAccount, transferAmount1);
-        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(mainAccount, transferAmount2);
+        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(mainAccount, Money.of(transferAmount1));
+        verify(dailyLimitService, times(1)).checkAndUpdateDailyLimit(mainAccount, Money.of(transferAmount2));
         verify(accountRepository, times(2)).findById(fromAccountId);
         verify(accountRepository, times(2)).findById(toAccountId);
     }
+
+    @Test
+    @DisplayName("이체 내역은 계좌 컬렉션을 거치지 않고 바로 기록")
+    void transfer_AppendsTransactionRows() {
+        accountService.transfer(mainAccount.getId(), savingsAccount.getId(), new BigDecimal("1000000"));
+
+        // 출금 + 입금 + 송금 기록
+        verify(transactionBatchRepository, times(3)).append(any());
+        verify(transactionBatchRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("잔액 조회는 캐시를 쓰고, 이체 후에는 다시 읽는다")
+    void getAccountSummary_CachedUntilTransfer() {
+        assertThat(accountService.getAccountSummary(1L).getBalance()).isEqualByComparingTo("3000000");
+        assertThat(accountService.getAccountSummary(1L).getBalance()).isEqualByComparingTo("3000000");
+        verify(accountRepository, times(1)).findById(1L);
+
+        accountService.transfer(1L, 2L, new BigDecimal("1000000"));
+
+        assertThat(accountService.getAccountSummary(1L).getBalance()).isEqualByComparingTo("2000000");
+    }
+
+    @Test
+    @DisplayName("일괄 이체 - 실패한 항목만 제외하고 반영")
+    void transferBatch_PartialFailure() {
+        when(accountRepository.findAllById(any())).thenReturn(List.of(mainAccount, savingsAccount));
+        // 두 번째 이체 : 잔액 200만원에서 500만원 이체 -> 300만원 자동 충전 + 500만원 = 800만원 한도 확인
+        doThrow(new DailyLimitExceedException("Daily limit exceeded"))
+                .when(dailyLimitService).checkAndUpdateDailyLimit(mainAccount, Money.of(8_000_000));
+
+        List<TransferResult> results = accountService.transferBatch(List.of(
+                new TransferCommand(1L, 2L, new BigDecimal("1000000")),
+                new TransferCommand(1L, 2L, new BigDecimal("5000000")), // 한도 초과
+                new TransferCommand(1L, 99L, new BigDecimal("1000")),   // 없는 계좌
+                new TransferCommand(1L, 2L, new BigDecimal("500000"))));
+
+        assertThat(results).extracting(TransferResult::getStatus).containsExactly(
+                TransferResultStatus.SUCCESS, TransferResultStatus.FAILED,
+                TransferResultStatus.FAILED, TransferResultStatus.SUCCESS);
+        assertThat(mainAccount.getBalance()).isEqualByComparingTo("1500000");
+        assertThat(savingsAccount.getBalance()).isEqualByComparingTo("1500000");
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(transactionBatchRepository, times(1)).insertAll(argThat(rows -> rows.size() == 6));
+    }
+
+    @Test
+    @DisplayName("수령 대기 모드에서는 일괄 이체를 거부한다")
+    void transferBatch_RejectedInPendingMode() {
+        ReflectionTestUtils.setField(accountService, "pendingTransferEngine", mock(PendingTransferEngine.class));
+
+        assertThatThrownBy(() -> accountService.transferBatch(List.of(new TransferCommand(1L, 2L, new BigDecimal("1000")))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=pending");
+        verify(accountRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("hot account 로의 이체는 받는 계좌 행을 읽지 않고 슬롯에 입금")
+    void transfer_ToHotAccount_CreditsSlot() {
+        AccountBalanceSlotRepository slotRepository = mock(AccountBalanceSlotRepository.class);
+        when(slotRepository.add(eq(2L), anyInt(), eq(1_000_000L))).thenReturn(1);
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setAccountIds(Set.of(2L));
+        ReflectionTestUtils.setField(accountService, "hotAccountLedger",
+                new HotAccountLedger(slotRepository, accountRepository, TransactionOperations.withoutTransaction(), properties));
+
+        accountService.transfer(1L, 2L, new BigDecimal("1000000"));
+
+        assertThat(mainAccount.getBalance()).isEqualByComparingTo("2000000");
+        assertThat(savingsAccount.getBalance()).isEqualByComparingTo("0"); // 계좌 행은 그대로
+        verify(slotRepository).add(eq(2L), anyInt(), eq(1_000_000L));
+        verify(accountRepository, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("일괄 이체도 hot account 로의 입금은 계좌 행 대신 슬롯에 더한다")
+    void transferBatch_ToHotAccount_CreditsSlot() {
+        when(accountRepository.findAllById(any())).thenReturn(List.of(mainAccount, savingsAccount));
+        AccountBalanceSlotRepository slotRepository = mock(AccountBalanceSlotRepository.class);
+        when(slotRepository.add(eq(2L), anyInt(), eq(1_000_000L))).thenReturn(1);
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setAccountIds(Set.of(2L));
+        ReflectionTestUtils.setField(accountService, "hotAccountLedger",
+                new HotAccountLedger(slotRepository, accountRepository, TransactionOperations.withoutTransaction(), properties));
+
+        List<TransferResult> results = accountService.transferBatch(List.of(new TransferCommand(1L, 2L, new BigDecimal("1000000"))));
+
+        assertThat(results).extracting(TransferResult::getStatus).containsExactly(TransferResultStatus.SUCCESS);
+        assertThat(mainAccount.getBalance()).isEqualByComparingTo("2000000");
+        assertThat(savingsAccount.getBalance()).isEqualByComparingTo("0"); // 계좌 행은 그대로
+        verify(slotRepository).add(eq(2L), anyInt(), eq(1_000_000L));
+    }
+
+    @Test
+    @DisplayName("그룹 커밋이 켜져 있으면 transferAsync 로 들어온 이체를 트랜잭션 하나로 묶어서 커밋")
+    void transferAsync_GroupCommit() {
+        when(accountRepository.findAllById(any())).thenReturn(List.of(mainAccount, savingsAccount));
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setMaxBatchSize(3);
+        properties.setMaxWaitMicros(TimeUnit.SECONDS.toMicros(5)); // 세 건이 모일 때까지 기다린다
+        GroupCommitTransferPipeline pipeline = new GroupCommitTransferPipeline(accountService, properties);
+        ReflectionTestUtils.setField(accountService, "groupCommitTransferPipeline", pipeline);
+        pipeline.start();
+        try {
+            List<CompletableFuture<TransferResult>> futures = List.of(
+                    accountService.transferAsync(1L, 2L, Money.of(100_000)),
+                    accountService.transferAsync(1L, 2L, Money.of(200_000)),
+                    accountService.transferAsync(1L, 99L, Money.of(1000))); // 없는 계좌
+
+            assertThat(futures).extracting(future -> future.join().getStatus()).containsExactly(
+                    TransferResultStatus.SUCCESS, TransferResultStatus.SUCCESS, TransferResultStatus.FAILED);
+        } finally {
+            pipeline.stop();
+        }
+
+        assertThat(mainAccount.getBalance()).isEqualByComparingTo("2700000");
+        assertThat(savingsAccount.getBalance()).isEqualByComparingTo("300000");
+        // 세 요청이 계좌 조회 한 번, 거래 내역 기록 한 번으로 끝난다 (건별 커밋이 아니다)
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(transactionBatchRepository, times(1)).insertAll(argThat(rows -> rows.size() == 6));
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋이 꺼져 있으면 transferAsync 는 바로 이체하고 완료된 결과를 돌려준다")
+    void transferAsync_Disabled() {
+        CompletableFuture<TransferResult> future = accountService.transferAsync(1L, 2L, Money.of(1_000_000));
+
+        assertThat(future).isCompleted();
+        assertThat(future.join().isSuccess()).isTrue();
+        assertThat(mainAccount.getBalance()).isEqualByComparingTo("2000000");
+        verify(transactionBatchRepository, times(3)).append(any());
+    }
 }
@@ -3,10 +3,16 @@ package com.mwkim.projecthub.minipay.service;
 import com.mwkim.projecthub.minipay.entity.Settlement;
 import com.mwkim.projecthub.minipay.entity.SettlementParticipant;
 import com.mwkim.projecthub.minipay.entity.User;
+import com.mwkim.projecthub.minipay.enums.SettlementParticipantStatus;
 import com.mwkim.projecthub.minipay.enums.SettlementType;
 import com.mwkim.projecthub.minipay.exception.custom.ParticipantNotFoundException;
+import com.mwkim.projecthub.minipay.exception.custom.SettlementAlreadyExecutedException;
 import com.mwkim.projecthub.minipay.exception.custom.SettlementNotFoundException;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantBatchRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantRepository;
 import com.mwkim.projecthub.minipay.repository.SettlementRepository;
+import com.mwkim.projecthub.minipay.settlement.SettlementExecutor;
+import com.mwkim.projecthub.minipay.settlement.ShareAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,6 +29,8 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class SettlementServiceTest {
@@ -35,10 +43,20 @@ class SettlementServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SettlementParticipantRepository settlementParticipantRepository;
+
+    @Mock
+    private SettlementExecutor settlementExecutor;
+
+    @Mock
+    private SettlementParticipantBatchRepository settlementParticipantBatchRepository;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        settlementService = new SettlementService(settlementRepository, userService);
+        settlementService = new SettlementService(settlementRepository, userService, settlementParticipantRepository, settlementExecutor,
+                new ShareAllocator(), settlementParticipantBatchRepository);
     }
 
     @Test
@@ -56,9 +74,9 @@ class SettlementServiceTest {
         User participant3 = User.createUser("Participant3");
 
         when(userService.getUserById(1L)).thenReturn(requester);
-        when(userService.getUserById(2L)).thenReturn(participant1);
-        when(userService.getUserById(3L)).thenReturn(participant2);
-        when(userService.getUserById(4L)).thenReturn(participant3);
+        when(userService.getUserReference(2L)).thenReturn(participant1);
+        when(userService.getUserReference(3L)).thenReturn(participant2);
+        when(userService.getUserReference(4L)).thenReturn(participant3);
         when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -92,9 +110,9 @@ class SettlementServiceTest {
         User participant3 = User.createUser("Participant3");
 
         when(userService.getUserById(1L)).thenReturn(requester);
-        when(userService.getUserById(2L)).thenReturn(participant1);
-        when(userService.getUserById(3L)).thenReturn(participant2);
-        when(userService.getUserById(4L)).thenReturn(participant3);
+        when(userService.getUserReference(2L)).thenReturn(participant1);
+        when(userService.getUserReference(3L)).thenReturn(participant2);
+        when(userService.getUserReference(4L)).thenReturn(participant3);
         when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -113,6 +131,20 @@ class SettlementServiceTest {
         assertThat(shares).allMatch(share -> share.compareTo(BigDecimal.ONE) >= 0);
     }
 
+    @Test
+    @DisplayName("없는 참여자 id 는 한 번에 모아서 알려준다")
+    void testCreateSettlement_MissingParticipants() {
+        List<Long> participantIds = Arrays.asList(2L, 3L, 4L, 5L);
+        when(userService.getUserById(1L)).thenReturn(User.createUser("Requester"));
+        when(userService.findMissingUserIds(participantIds)).thenReturn(List.of(3L, 5L));
+
+        assertThatThrownBy(() -> settlementService.createSettlement(1L, BigDecimal.valueOf(1000), SettlementType.EQUAL, participantIds))
+                .isInstanceOf(ParticipantNotFoundException.class)
+                .satisfies(e -> assertThat(((ParticipantNotFoundException) e).getMissingIds()).containsExactly(3L, 5L));
+        verify(userService, never()).getUserReference(any());
+        verify(settlementRepository, never()).save(any());
+    }
+
 //    @Test
 //    void testApproveSettlement_Success() {
 //        // Given
@@ -145,15 +177,81 @@ class SettlementServiceTest {
         Long participantId = 2L;
         Long settlementId = 1L;
 
-        Settlement settlement = Settlement.builder().participants(new ArrayList<>()).build();
-
-        when(settlementRepository.findById(settlementId)).thenReturn(Optional.of(settlement));
+        when(settlementRepository.existsById(settlementId)).thenReturn(true);
 
         // When / Then
         assertThatThrownBy(() -> settlementService.approveSettlement(participantId, settlementId))
                 .isInstanceOf(ParticipantNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("승인은 참여자 행만 직접 바꾸고 인원수를 옮긴다")
+    void testApproveSettlement_DirectUpdate() {
+        when(settlementParticipantRepository.findStatuses(1L, 2L)).thenReturn(List.of(SettlementParticipantStatus.PENDING));
+        when(settlementParticipantRepository.updateStatus(1L, 2L, SettlementParticipantStatus.PENDING, SettlementParticipantStatus.APPROVED))
+                .thenReturn(1);
+        when(settlementRepository.adjustCounts(1L, -1, 1, 0)).thenReturn(1);
+
+        settlementService.approveSettlement(2L, 1L);
+
+        verify(settlementRepository).adjustCounts(1L, -1, 1, 0);
+        verify(settlementExecutor).requestIfReady(1L);
+        verify(settlementRepository, never()).findById(any());
+        verify(settlementRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("승인 -> 거절로 바꾸면 승인 인원이 거절로 옮겨간다")
+    void testRejectSettlement_AfterApprove() {
+        when(settlementParticipantRepository.findStatuses(1L, 2L)).thenReturn(List.of(SettlementParticipantStatus.APPROVED));
+        when(settlementParticipantRepository.updateStatus(1L, 2L, SettlementParticipantStatus.APPROVED, SettlementParticipantStatus.REJECTED))
+                .thenReturn(1);
+        when(settlementRepository.adjustCounts(1L, 0, -1, 1)).thenReturn(1);
+
+        settlementService.rejectSettlement(2L, 1L);
+
+        verify(settlementRepository).adjustCounts(1L, 0, -1, 1);
+        verify(settlementExecutor, never()).requestIfReady(any());
+    }
+
+    @Test
+    @DisplayName("송금 대기(QUEUED) 이후의 거절은 받지 않는다")
+    void testRejectSettlement_AfterQueued() {
+        when(settlementParticipantRepository.findStatuses(1L, 2L)).thenReturn(List.of(SettlementParticipantStatus.APPROVED));
+        when(settlementParticipantRepository.updateStatus(1L, 2L, SettlementParticipantStatus.APPROVED, SettlementParticipantStatus.REJECTED))
+                .thenReturn(1);
+        when(settlementRepository.adjustCounts(1L, 0, -1, 1)).thenReturn(0); // executionStatus != NONE
+
+        assertThatThrownBy(() -> settlementService.rejectSettlement(2L, 1L))
+                .isInstanceOf(SettlementAlreadyExecutedException.class);
+        verify(settlementExecutor, never()).requestIfReady(any());
+    }
+
+    @Test
+    @DisplayName("일괄 승인 - 정산별로 인원수를 한 번씩 조정한다")
+    void testApproveAllPending() {
+        when(settlementParticipantRepository.lockPendingSettlementIds(2L)).thenReturn(List.of(10L, 11L, 11L));
+        when(settlementParticipantRepository.approveAllPending(2L)).thenReturn(3);
+        when(settlementRepository.adjustCounts(anyLong(), anyInt(), anyInt(), anyInt())).thenReturn(1);
+
+        int approved = settlementService.approveAllPending(2L, null);
+
+        assertThat(approved).isEqualTo(3);
+        verify(settlementRepository).adjustCounts(10L, -1, 1, 0);
+        verify(settlementRepository).adjustCounts(11L, -2, 2, 0);
+    }
+
+    @Test
+    @DisplayName("참여자 추가 시 PENDING 인원수가 늘어난다")
+    void testSettlementCounters() {
+        Settlement settlement = Settlement.createSettlement(User.createUser("Requester"), null, SettlementType.EQUAL);
+        settlement.addParticipant(SettlementParticipant.createSettlementParticipant(User.createUser("p1"), null));
+        settlement.addParticipant(SettlementParticipant.createSettlementParticipant(User.createUser("p2"), null));
+
+        assertThat(settlement.getPendingCount()).isEqualTo(2);
+        assertThat(settlement.isCompleted()).isFalse();
+    }
+
 //    @Test
 //    void testRejectSettlement_Success() {
 //        // Given
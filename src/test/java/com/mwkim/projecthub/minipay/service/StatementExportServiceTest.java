@@ -0,0 +1,87 @@
+package com.mwkim.projecthub.minipay.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mwkim.projecthub.minipay.config.StatementExportProperties;
+import com.mwkim.projecthub.minipay.enums.StatementFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StatementExportServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private StatementExportService statementExportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        statementExportService = new StatementExportService(jdbcTemplate, new ObjectMapper(), new StatementExportProperties());
+
+        // 두 행을 돌려주는 forward-only 커서 흉내
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 2L);
+        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0)));
+        when(rs.getString(3)).thenReturn("DEPOSIT", "TRANSFER");
+        when(rs.getString(4)).thenReturn("COMPLETED");
+        when(rs.getBigDecimal(5)).thenReturn(new BigDecimal("10000.00"), new BigDecimal("500"));
+        when(rs.getString(6)).thenReturn("Deposit", "송금: \"1\",2");
+        when(rs.getString(7)).thenReturn(null, "OUTGOING");
+        when(rs.getObject(8, Long.class)).thenReturn(null, 2L);
+        when(rs.getObject(9, Long.class)).thenReturn(null, 7L);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("CSV + gzip : 헤더와 escape 된 행이 압축되어 나온다")
+    void export_CsvGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        statementExportService.export(1L, null, null, StatementFormat.CSV, true, out);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(csv).isEqualTo(
+                "id,transaction_date,type,status,amount,description,direction,counterparty_account_id,transfer_id\n" +
+                "1,2024-01-01T09:00,DEPOSIT,COMPLETED,10000.00,Deposit,,,\n" +
+                "2,2024-01-01T09:00,TRANSFER,COMPLETED,500,\"송금: \"\"1\"\",2\",OUTGOING,2,7\n");
+    }
+
+    @Test
+    @DisplayName("NDJSON : 한 줄에 한 건")
+    void export_Ndjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        statementExportService.export(1L, LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0),
+                StatementFormat.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readTree(lines[1]).get("description").asText()).isEqualTo("송금: \"1\",2");
+        assertThat(new ObjectMapper().readTree(lines[0]).get("amount").decimalValue()).isEqualByComparingTo("10000");
+        assertThat(new ObjectMapper().readTree(lines[0]).get("transferId").isNull()).isTrue();
+        assertThat(new ObjectMapper().readTree(lines[1]).get("counterpartyAccountId").asLong()).isEqualTo(2L);
+        assertThat(new ObjectMapper().readTree(lines[1]).get("direction").asText()).isEqualTo("OUTGOING");
+    }
+}
@@ -0,0 +1,114 @@
+package com.mwkim.projecthub.minipay.service;
+
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryItem;
+import com.mwkim.projecthub.minipay.dto.TransactionHistoryPage;
+import com.mwkim.projecthub.minipay.enums.TransactionStatus;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private TransactionService transactionService;
+
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transactionService = new TransactionService(transactionRepository, accountRepository);
+    }
+
+    @Test
+    @DisplayName("size + 1 건이 조회되면 마지막 행을 다음 커서로 돌려준다")
+    void history_HasNext() {
+        when(transactionRepository.findHistory(eq(1L), isNull(), isNull(), isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(rows(3));
+
+        TransactionHistoryPage page = transactionService.getTransactionHistory(1L, null, null, null, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursorId()).isEqualTo(99L);
+        assertThat(page.getNextCursorDate()).isEqualTo(base.minusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("마지막 페이지는 커서가 없다")
+    void history_LastPage() {
+        LocalDateTime cursorDate = base.minusMinutes(1);
+        when(transactionRepository.findHistory(1L, TransactionType.DEPOSIT, TransactionStatus.COMPLETED,
+                cursorDate, 99L, Limit.of(3))).thenReturn(rows(1));
+
+        TransactionHistoryPage page = transactionService.getTransactionHistory(
+                1L, TransactionType.DEPOSIT, TransactionStatus.COMPLETED, cursorDate, 99L, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursorId()).isNull();
+    }
+
+    @Test
+    @DisplayName("커서는 날짜와 id 를 함께 넘겨야 한다")
+    void history_PartialCursor() {
+        assertThatThrownBy(() -> transactionService.getTransactionHistory(1L, null, null, base, null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("페이지 크기는 최대 100건")
+    void history_MaxPageSize() {
+        when(transactionRepository.findHistory(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        transactionService.getTransactionHistory(1L, null, null, null, null, 10_000);
+
+        verify(transactionRepository).findHistory(1L, null, null, null, null, Limit.of(101));
+    }
+
+    @Test
+    @DisplayName("상대 계좌 송금 내역도 같은 keyset 규칙으로 페이지를 나눈다")
+    void transfersWith_HasNext() {
+        when(transactionRepository.findTransfersWith(1L, 2L, null, null, Limit.of(3))).thenReturn(rows(3));
+
+        TransactionHistoryPage page = transactionService.getTransfersWith(1L, 2L, null, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursorId()).isEqualTo(99L);
+    }
+
+    // 최신순 : id 100, 99, 98 ...
+    private List<TransactionHistoryItem> rows(int count) {
+        List<TransactionHistoryItem> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new TransactionHistoryItem(100L - i, TransactionType.DEPOSIT, Money.of(1000),
+                    "Deposit", base.minusMinutes(i), TransactionStatus.COMPLETED, null, null, null));
+        }
+        return rows;
+    }
+}
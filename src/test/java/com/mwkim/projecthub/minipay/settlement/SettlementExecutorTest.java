@@ -0,0 +1,174 @@
+package com.mwkim.projecthub.minipay.settlement;
+
+import com.mwkim.projecthub.minipay.config.SettlementExecutionProperties;
+import com.mwkim.projecthub.minipay.dto.ParticipantShare;
+import com.mwkim.projecthub.minipay.dto.TransferCommand;
+import com.mwkim.projecthub.minipay.dto.TransferResult;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.SettlementExecutionStatus;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementParticipantRepository;
+import com.mwkim.projecthub.minipay.repository.SettlementRepository;
+import com.mwkim.projecthub.minipay.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SettlementExecutorTest {
+
+    private static final Long SETTLEMENT_ID = 1L;
+    private static final Long REQUESTER = 100L;
+
+    @Mock
+    private SettlementRepository settlementRepository;
+
+    @Mock
+    private SettlementParticipantRepository settlementParticipantRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    private SettlementExecutor settlementExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        settlementExecutor = new SettlementExecutor(settlementRepository, settlementParticipantRepository, accountRepository,
+                accountService, new TransactionTemplate(mock(PlatformTransactionManager.class)), new SettlementExecutionProperties());
+
+        when(settlementRepository.findRequesterId(SETTLEMENT_ID)).thenReturn(Optional.of(REQUESTER));
+        when(settlementParticipantRepository.findShares(SETTLEMENT_ID)).thenReturn(List.of(
+                new ParticipantShare(REQUESTER, Money.of(1000)),
+                new ParticipantShare(200L, Money.of(1000)),
+                new ParticipantShare(300L, Money.of(1001))));
+        when(accountRepository.findAccountIdsByUserIds(anyCollection(), eq(AccountType.MAIN))).thenReturn(List.of(
+                new Object[]{REQUESTER, 10L}, new Object[]{200L, 20L}, new Object[]{300L, 30L}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        settlementExecutor.stop();
+    }
+
+    @Test
+    @DisplayName("참여자 -> 요청자 송금을 한 번의 atomic 일괄 이체로 실행한다")
+    void execute_TransfersInOneBatch() {
+        when(settlementRepository.completeIfFullyApproved(SETTLEMENT_ID)).thenReturn(1);
+        when(accountService.transferBatch(anyList(), eq(true))).thenReturn(List.of());
+
+        settlementExecutor.execute(SETTLEMENT_ID);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransferCommand>> captor = ArgumentCaptor.forClass(List.class);
+        verify(accountService).transferBatch(captor.capture(), eq(true));
+        assertThat(captor.getValue()).extracting(TransferCommand::getFromAccountId).containsExactly(20L, 30L);
+        assertThat(captor.getValue()).allMatch(command -> command.getToAccountId().equals(10L));
+        assertThat(captor.getValue().get(1).getAmount()).isEqualByComparingTo("1001");
+    }
+
+    @Test
+    @DisplayName("원장 모드와 함께 정산 실행을 켜면 시작할 때 거부하고, 꺼두면 QUEUED 로만 남긴다")
+    void ledgerMode_RequiresExecutionDisabled() {
+        ReflectionTestUtils.setField(settlementExecutor, "ledgerEngine", mock(LedgerEngine.class));
+        assertThatThrownBy(() -> settlementExecutor.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=ledger");
+
+        SettlementExecutionProperties disabled = new SettlementExecutionProperties();
+        disabled.setEnabled(false);
+        SettlementExecutor executor = new SettlementExecutor(settlementRepository, settlementParticipantRepository, accountRepository,
+                accountService, new TransactionTemplate(mock(PlatformTransactionManager.class)), disabled);
+        ReflectionTestUtils.setField(executor, "ledgerEngine", mock(LedgerEngine.class));
+        executor.checkTransferStrategy();
+        when(settlementRepository.markQueuedIfFullyApproved(1L)).thenReturn(1);
+
+        executor.requestIfReady(1L);
+        executor.sweep();
+
+        verify(settlementRepository, never()).findQueuedIds(any());
+        verify(accountService, never()).transferBatch(anyList(), anyBoolean());
+        executor.stop();
+    }
+
+    @Test
+    @DisplayName("수령 대기 모드와 함께 정산 실행을 켜도 시작할 때 거부한다")
+    void pendingMode_RequiresExecutionDisabled() {
+        ReflectionTestUtils.setField(settlementExecutor, "pendingTransferEngine", mock(PendingTransferEngine.class));
+
+        assertThatThrownBy(() -> settlementExecutor.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=pending");
+    }
+
+    @Test
+    @DisplayName("이미 처리된 정산은 다시 송금하지 않는다")
+    void execute_Idempotent() {
+        when(settlementRepository.completeIfFullyApproved(SETTLEMENT_ID)).thenReturn(0);
+
+        settlementExecutor.execute(SETTLEMENT_ID);
+
+        verify(accountService, never()).transferBatch(anyList(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("한 건이라도 실패하면 FAILED 로 기록한다")
+    void execute_FailedTransfer() {
+        when(settlementRepository.completeIfFullyApproved(SETTLEMENT_ID)).thenReturn(1);
+        TransferCommand command = new TransferCommand(20L, 10L, Money.of(1000).toBigDecimal());
+        when(accountService.transferBatch(anyList(), eq(true))).thenReturn(List.of(
+                TransferResult.failed(0, command, "Daily deposit limit exceeded"),
+                TransferResult.rolledBack(1, command)));
+
+        settlementExecutor.execute(SETTLEMENT_ID);
+
+        verify(settlementRepository).transitionExecution(eq(SETTLEMENT_ID), eq(SettlementExecutionStatus.QUEUED),
+                eq(SettlementExecutionStatus.FAILED), contains("Daily deposit limit exceeded"));
+    }
+
+    @Test
+    @DisplayName("아직 전원 승인이 아니면 실행을 예약하지 않는다")
+    void requestIfReady_NotReady() {
+        when(settlementRepository.markQueuedIfFullyApproved(SETTLEMENT_ID)).thenReturn(0);
+
+        settlementExecutor.requestIfReady(SETTLEMENT_ID);
+
+        verify(settlementRepository, never()).transitionExecution(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("전원 승인 -> 실행 전 거절 : 송금하지 않고 FAILED 로 끝낸다")
+    void execute_RejectedAfterQueued() {
+        // 마지막 승인으로 QUEUED 가 됐지만, 워커가 실행하기 전에 한 명이 거절해서 rejectedCount = 1
+        when(settlementRepository.markQueuedIfFullyApproved(SETTLEMENT_ID)).thenReturn(1);
+        settlementExecutor.requestIfReady(SETTLEMENT_ID);
+        when(settlementRepository.completeIfFullyApproved(SETTLEMENT_ID)).thenReturn(0);
+
+        settlementExecutor.execute(SETTLEMENT_ID);
+
+        verify(accountService, never()).transferBatch(anyList(), anyBoolean());
+        verify(settlementParticipantRepository, never()).findShares(any());
+        verify(settlementRepository).transitionExecution(eq(SETTLEMENT_ID), eq(SettlementExecutionStatus.QUEUED),
+                eq(SettlementExecutionStatus.FAILED), contains("no longer fully approved"));
+    }
+}
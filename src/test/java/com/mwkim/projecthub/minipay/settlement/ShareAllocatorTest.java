@@ -0,0 +1,80 @@
+package com.mwkim.projecthub.minipay.settlement;
+
+import com.mwkim.projecthub.minipay.enums.SettlementType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShareAllocatorTest {
+
+    private final ShareAllocator shareAllocator = new ShareAllocator();
+
+    @Test
+    @DisplayName("균등 분배 : 나머지는 마지막 참여자에게")
+    void equalShares() {
+        List<Long> shares = new ArrayList<>();
+        shareAllocator.allocate(1000, 3, SettlementType.EQUAL, (i, share) -> shares.add(share));
+
+        assertThat(shares).containsExactly(333L, 333L, 334L);
+    }
+
+    @Test
+    @DisplayName("랜덤 분배 : 모든 몫이 1원 이상이고 합이 정확하다")
+    void randomSharesExactTotal() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int run = 0; run < 1_000; run++) {
+            int participants = random.nextInt(1, 50);
+            long total = random.nextLong(participants, 10_000_000);
+            long[] sum = {0};
+            long[] min = {Long.MAX_VALUE};
+
+            ShareAllocator.allocateRandom(total, participants, random.split(), (i, share) -> {
+                sum[0] += share;
+                min[0] = Math.min(min[0], share);
+            });
+
+            assertThat(sum[0]).isEqualTo(total);
+            assertThat(min[0]).isGreaterThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("총액이 인원수와 같으면 모두 1원")
+    void minimumOneWon() {
+        List<Long> shares = new ArrayList<>();
+        shareAllocator.allocate(5, 5, SettlementType.RANDOM, (i, share) -> shares.add(share));
+
+        assertThat(shares).containsOnly(1L).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("총액이 인원수보다 작으면 1원 보장이 불가능하다")
+    void totalTooSmall() {
+        assertThatThrownBy(() -> shareAllocator.allocate(2, 3, SettlementType.RANDOM, (i, share) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("100만 명 에어드랍도 컬렉션 없이 한 번에 흘려보낸다")
+    void millionParticipants() {
+        int participants = 1_000_000;
+        long total = 1_000_000_000L;
+        long[] sum = {0};
+        int[] count = {0};
+
+        shareAllocator.allocate(total, participants, SettlementType.RANDOM, (i, share) -> {
+            assertThat(i).isEqualTo(count[0]);
+            sum[0] += share;
+            count[0]++;
+        });
+
+        assertThat(count[0]).isEqualTo(participants);
+        assertThat(sum[0]).isEqualTo(total);
+    }
+}
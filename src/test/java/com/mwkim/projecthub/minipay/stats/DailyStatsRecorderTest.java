@@ -0,0 +1,120 @@
+package com.mwkim.projecthub.minipay.stats;
+
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.Transaction;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.enums.TransactionType;
+import com.mwkim.projecthub.minipay.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DailyStatsRecorderTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DailyStatsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        recorder = new DailyStatsRecorder(jdbcTemplate);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResourceIfPossible(recorder);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 증분을 키별로 합쳐서, 커밋 직전에 키 순서대로 한 batch 로 쓴다")
+    void record_MergesAndFlushesBeforeCommit() {
+        recorder.record(20L, DAY, TransactionType.DEPOSIT, 1000);
+        recorder.record(10L, DAY, TransactionType.WITHDRAW, 1000);
+        recorder.record(10L, DAY, TransactionType.TRANSFER, 1000);
+        recorder.record(10L, DAY, TransactionType.WITHDRAW, 500);
+        verifyNoInteractions(jdbcTemplate);
+
+        beforeCommit();
+
+        List<Map.Entry<DailyStatsRecorder.StatKey, long[]>> rows = capturedRows();
+        assertThat(rows).extracting(row -> row.getKey().accountId()).containsExactly(10L, 10L, 20L);
+        assertThat(rows).extracting(row -> row.getKey().type())
+                .containsExactly(TransactionType.WITHDRAW, TransactionType.TRANSFER, TransactionType.DEPOSIT);
+        assertThat(rows.get(0).getValue()).containsExactly(2, 1500);
+        assertThat(rows.get(2).getValue()).containsExactly(1, 1000);
+    }
+
+    @Test
+    @DisplayName("롤백되면 증분을 쓰지 않는다")
+    void record_DiscardedOnRollback() {
+        recorder.record(10L, DAY, TransactionType.DEPOSIT, 1000);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getResource(recorder)).isNull();
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서는 바로 쓴다")
+    void record_WithoutTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        recorder.record(10L, DAY, TransactionType.DEPOSIT, 1000);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO account_daily_stats"), anyCollection(), eq(1), any());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Test
+    @DisplayName("거래 내역은 기록한 날(오늘)의 집계에 더해진다")
+    void record_Transaction_BucketsToday() {
+        Account account = Account.builder().id(10L).type(AccountType.MAIN).balance(BigDecimal.ZERO).build();
+        LocalDate before = LocalDate.now();
+        recorder.record(Transaction.createTransaction(account, TransactionType.DEPOSIT, Money.of(1000), "Deposit"));
+        LocalDate after = LocalDate.now();
+
+        beforeCommit();
+
+        LocalDate day = capturedRows().get(0).getKey().day();
+        assertThat(day).isBetween(before, after); // 실행 중 자정을 넘기는 경우만 after
+    }
+
+    private void beforeCommit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map.Entry<DailyStatsRecorder.StatKey, long[]>> capturedRows() {
+        ArgumentCaptor<List<Map.Entry<DailyStatsRecorder.StatKey, long[]>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), anyInt(), any());
+        return new ArrayList<>(captor.getValue());
+    }
+}
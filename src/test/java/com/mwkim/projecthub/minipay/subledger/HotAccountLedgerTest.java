@@ -0,0 +1,170 @@
+package com.mwkim.projecthub.minipay.subledger;
+
+import com.mwkim.projecthub.minipay.concurrency.ConditionalUpdateTransferEngine;
+import com.mwkim.projecthub.minipay.config.HotAccountProperties;
+import com.mwkim.projecthub.minipay.dto.AccountSummary;
+import com.mwkim.projecthub.minipay.entity.Account;
+import com.mwkim.projecthub.minipay.entity.AccountBalanceSlot;
+import com.mwkim.projecthub.minipay.enums.AccountType;
+import com.mwkim.projecthub.minipay.exception.custom.AccountNotFoundException;
+import com.mwkim.projecthub.minipay.ledger.LedgerEngine;
+import com.mwkim.projecthub.minipay.money.Money;
+import com.mwkim.projecthub.minipay.pending.PendingTransferEngine;
+import com.mwkim.projecthub.minipay.repository.AccountBalanceSlotRepository;
+import com.mwkim.projecthub.minipay.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotAccountLedgerTest {
+
+    private static final int SLOTS = 8;
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private HotAccountLedger hotAccountLedger;
+
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setAccountIds(Set.of(10L));
+        properties.setSlots(SLOTS);
+        hotAccountLedger = new HotAccountLedger(slotRepository, accountRepository,
+                TransactionOperations.withoutTransaction(), properties);
+
+        merchant = Account.builder()
+                .id(10L)
+                .type(AccountType.MAIN)
+                .balance(new BigDecimal("1000"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("입금은 설정된 범위의 슬롯 하나에만 더한다")
+    void creditPicksSlot() {
+        when(slotRepository.add(eq(10L), anyInt(), anyLong())).thenReturn(1);
+
+        for (int i = 0; i < 100; i++) {
+            hotAccountLedger.credit(10L, Money.of(500));
+        }
+
+        ArgumentCaptor<Integer> slotNos = ArgumentCaptor.forClass(Integer.class);
+        verify(slotRepository, times(100)).add(eq(10L), slotNos.capture(), eq(500L));
+        assertThat(slotNos.getAllValues()).allMatch(slotNo -> slotNo >= 0 && slotNo < SLOTS);
+        assertThat(slotNos.getAllValues().stream().distinct().count()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("슬롯 행이 없으면 입금하지 않고 예외")
+    void creditWithoutSlots() {
+        when(slotRepository.add(eq(10L), anyInt(), anyLong())).thenReturn(0);
+
+        when(accountRepository.existsById(10L)).thenReturn(true);
+
+        assertThatThrownBy(() -> hotAccountLedger.credit(10L, Money.of(500)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("없는 계좌로 입금하면 계좌 없음 예외")
+    void creditUnknownAccount() {
+        when(slotRepository.add(eq(10L), anyInt(), anyLong())).thenReturn(0);
+        when(accountRepository.existsById(10L)).thenReturn(false);
+
+        assertThatThrownBy(() -> hotAccountLedger.credit(10L, Money.of(500)))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("원장 모드와 함께 켜면 시작할 때 거부한다")
+    void rejectLedgerMode() {
+        ReflectionTestUtils.setField(hotAccountLedger, "ledgerEngine", mock(LedgerEngine.class));
+
+        assertThatThrownBy(() -> hotAccountLedger.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=ledger");
+    }
+
+    @Test
+    @DisplayName("슬롯을 모르는 조건부 UPDATE, 보류 송금 모드와 함께 켜도 시작할 때 거부한다")
+    void rejectConditionalAndPendingModes() {
+        ReflectionTestUtils.setField(hotAccountLedger, "conditionalUpdateTransferEngine", mock(ConditionalUpdateTransferEngine.class));
+
+        assertThatThrownBy(() -> hotAccountLedger.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=conditional");
+
+        ReflectionTestUtils.setField(hotAccountLedger, "conditionalUpdateTransferEngine", null);
+        ReflectionTestUtils.setField(hotAccountLedger, "pendingTransferEngine", mock(PendingTransferEngine.class));
+
+        assertThatThrownBy(() -> hotAccountLedger.checkTransferStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transfer.strategy=pending");
+    }
+
+    @Test
+    @DisplayName("sweep 은 슬롯 잔액을 계좌 행으로 옮기고 슬롯을 0 으로 만든다")
+    void sweepMovesSlotsIntoAccount() {
+        AccountBalanceSlot first = slotWith(0, 300);
+        AccountBalanceSlot second = slotWith(1, 200);
+        when(slotRepository.findAllByAccountIdForUpdate(10L)).thenReturn(List.of(first, second));
+
+        Money swept = hotAccountLedger.sweepInto(merchant);
+
+        assertThat(swept).isEqualTo(Money.of(500));
+        assertThat(merchant.getBalance()).isEqualByComparingTo("1500");
+        assertThat(first.getBalanceMoney()).isEqualTo(Money.ZERO);
+        assertThat(second.getBalanceMoney()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    @DisplayName("잔액 조회는 계좌 행과 슬롯 잔액을 합산한다")
+    void summaryIncludesSlots() {
+        when(slotRepository.sumBalance(10L)).thenReturn(new BigDecimal("700"));
+
+        AccountSummary summary = hotAccountLedger.summarize(merchant);
+
+        assertThat(summary.getBalance()).isEqualByComparingTo("1700");
+    }
+
+    @Test
+    @DisplayName("정리 작업은 계좌 행을 잠근 뒤 슬롯을 합산한다")
+    void consolidate() {
+        when(accountRepository.findAllByIdForUpdate(List.of(10L))).thenReturn(List.of(merchant));
+        when(slotRepository.findAllByAccountIdForUpdate(10L)).thenReturn(List.of(slotWith(0, 250)));
+
+        hotAccountLedger.consolidate();
+
+        assertThat(merchant.getBalance()).isEqualByComparingTo("1250");
+    }
+
+    private AccountBalanceSlot slotWith(int slotNo, long balance) {
+        AccountBalanceSlot slot = AccountBalanceSlot.createSlot(10L, slotNo);
+        // 슬롯 입금은 네이티브 UPDATE 라 엔티티에는 setter 가 없다. 테스트에서는 잔액을 직접 채운다.
+        ReflectionTestUtils.setField(slot, "balance", Money.of(balance));
+        return slot;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mwkim.projecthub.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.getBudgets().put("payment", budget(2, 1));
+        properties.getBudgets().put("payment-ip", budget(4, 1));
+        properties.getBudgets().put("storage", budget(1, 0.1));
+        RateLimitProperties.Endpoint standingOrders = endpoint("/users/{userId}/standing-orders/**", List.of("POST"), "payment");
+        standingOrders.setIpBudget("payment-ip");
+        properties.getEndpoints().add(standingOrders);
+        properties.getEndpoints().add(endpoint("/files/upload", List.of("POST"), "storage"));
+        filter = new RateLimitFilter(properties, meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("한도를 넘으면 컨트롤러에 넘기지 않고 429 와 Retry-After 를 돌려준다")
+    void overLimit_Returns429() throws Exception {
+        assertThat(call("POST", "/users/1/standing-orders", null).getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/users/1/standing-orders/7", null).getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/users/1/standing-orders", null), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("ratelimit.rejected").tag("budget", "payment").counter().count()).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(call("POST", "/users/1/standing-orders", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("회원마다 bucket 이 따로다")
+    void bucketsPerUser() throws Exception {
+        call("POST", "/users/1/standing-orders", null);
+        call("POST", "/users/1/standing-orders", null);
+        assertThat(call("POST", "/users/1/standing-orders", null).getStatus()).isEqualTo(429);
+        assertThat(call("POST", "/users/2/standing-orders", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("경로의 userId 를 바꿔가며 보내도 IP bucket 을 넘지 못한다")
+    void ipBucket_CapsRotatingUserIds() throws Exception {
+        for (int userId = 1; userId <= 4; userId++) {
+            assertThat(call("POST", "/users/" + userId + "/standing-orders", null).getStatus()).isEqualTo(200);
+        }
+        assertThat(call("POST", "/users/5/standing-orders", null).getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("ratelimit.rejected").tag("budget", "payment-ip").counter().count()).isEqualTo(1);
+
+        MockHttpServletRequest otherClient = request("POST", "/users/5/standing-orders", null);
+        otherClient.setRemoteAddr("10.0.0.2");
+        assertThat(call(otherClient).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("업로드는 인증된 principal 로 세고, 본문은 읽지 않는다")
+    void upload_KeyedByPrincipal() throws Exception {
+        assertThat(call(upload("alice", "10.0.0.1")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = call(upload("alice", "10.0.0.2"));
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("10");
+
+        assertThat(call(upload("bob", "10.0.0.3")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("업로드 IP 한도를 따로 두면 같은 IP 뒤의 회원들이 회원 한도를 각자 쓰고, 익명 요청은 회원 한도로 센다")
+    void upload_SeparateIpBudget() throws Exception {
+        properties.getBudgets().put("storage-ip", budget(4, 0.5));
+        properties.getEndpoints().get(1).setIpBudget("storage-ip");
+        filter = new RateLimitFilter(properties, meterRegistry, now::get);
+
+        assertThat(call(upload("alice", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(call(upload("bob", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(call(upload("alice", "10.0.0.1")).getStatus()).isEqualTo(429);
+
+        assertThat(call("POST", "/files/upload", null).getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/files/upload", null).getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("ratelimit.rejected").tag("budget", "storage").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("쿼리 문자열 userId 와 X-User-Id 헤더로는 회원 키를 바꿀 수 없다")
+    void upload_IgnoresClientSuppliedUserId() throws Exception {
+        assertThat(call("POST", "/files/upload", "userId=alice").getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest spoofed = request("POST", "/files/upload", "userId=bob");
+        spoofed.addHeader("X-User-Id", "bob");
+        assertThat(call(spoofed).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("잘못된 % 이스케이프가 있는 쿼리 문자열도 IP 키로 센다")
+    void malformedQuery_FallsBackToIp() throws Exception {
+        assertThat(call("POST", "/files/upload", "userId=%zz").getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/files/upload", "userId=%").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("설정에 없는 경로와 메서드는 세지 않는다")
+    void unmatched_PassesThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(call("GET", "/users/1/standing-orders", null).getStatus()).isEqualTo(200);
+            assertThat(call("GET", "/files/abc", "userId=alice").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    @DisplayName("없는 한도를 가리키거나 cost 가 capacity 보다 크면 시작할 때 실패한다")
+    void invalidConfiguration() {
+        properties.getEndpoints().add(endpoint("/x", List.of(), "unknown"));
+        assertThatThrownBy(() -> new RateLimitFilter(properties, meterRegistry)).isInstanceOf(IllegalStateException.class);
+
+        properties.getEndpoints().remove(properties.getEndpoints().size() - 1);
+        RateLimitProperties.Endpoint expensive = endpoint("/y", List.of(), "storage");
+        expensive.setCost(2);
+        properties.getEndpoints().add(expensive);
+        assertThatThrownBy(() -> new RateLimitFilter(properties, meterRegistry)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private MockHttpServletResponse call(String method, String uri, String query) throws Exception {
+        return call(request(method, uri, query));
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest upload(String principal, String remoteAddr) {
+        MockHttpServletRequest request = request("POST", "/files/upload", null);
+        request.setUserPrincipal(() -> principal);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setQueryString(query);
+        return request;
+    }
+
+    private static RateLimitProperties.Budget budget(int capacity, double refillPerSecond) {
+        RateLimitProperties.Budget budget = new RateLimitProperties.Budget();
+        budget.setCapacity(capacity);
+        budget.setRefillPerSecond(refillPerSecond);
+        return budget;
+    }
+
+    private static RateLimitProperties.Endpoint endpoint(String pattern, List<String> methods, String budget) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setPattern(pattern);
+        endpoint.setMethods(methods);
+        endpoint.setBudget(budget);
+        return endpoint;
+    }
+}
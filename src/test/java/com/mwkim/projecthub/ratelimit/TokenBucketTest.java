@@ -0,0 +1,78 @@
+package com.mwkim.projecthub.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("capacity 만큼 몰아 쓰고, 그 뒤로는 충전 속도만큼만 허용한다")
+    void tryConsume_BurstThenRefill() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(SECOND);
+
+        assertThat(bucket.tryConsume(1, SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(1, SECOND)).isZero();
+        assertThat(bucket.tryConsume(1, SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    @DisplayName("오래 쉬어도 capacity 이상 쌓이지 않는다")
+    void tryConsume_DoesNotOverfill() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        long later = 60 * SECOND;
+
+        assertThat(bucket.tryConsume(2, later)).isZero();
+        assertThat(bucket.tryConsume(1, later)).isPositive();
+    }
+
+    @Test
+    @DisplayName("거절된 요청은 토큰을 쓰지 않는다")
+    void tryConsume_RejectedDoesNotConsume() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        assertThat(bucket.tryConsume(2, 0)).isZero();
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryConsume(1, 0)).isPositive();
+        }
+        assertThat(bucket.tryConsume(1, SECOND)).isZero();
+    }
+
+    @Test
+    @DisplayName("동시에 요청해도 capacity 를 넘겨 허용하지 않는다")
+    void tryConsume_Concurrent() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 0.001, 0);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (bucket.tryConsume(1, 0) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+}